@@ -0,0 +1,161 @@
+package org.example.benchmark;
+
+import org.example.websocket.constant.ApplicationConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.example.websocket.constant.ByteConversionConstants.*;
+import static org.example.websocket.constant.ByteResponseCreationConstants.*;
+
+/**
+ * Builds binary broadcast frames laid out exactly as {@link org.example.websocket.WebSocketParser} expects,
+ * using the offsets from ByteResponseCreationConstants. Values are realistic NSE equity numbers.
+ */
+public final class FrameFixtures {
+
+    public enum PacketKind {
+        LTP(LTP_PKT, LTP_PACKET_SIZE),
+        QUOTE(QUOTE_PKT, QUOTE_PACKET_SIZE),
+        FULL(FULL_PKT, FULL_PACKET_SIZE),
+        INDEX_LTP(INDEX_LTP_PKT, INDEX_LTP_PACKET_SIZE),
+        INDEX_QUOTE(INDEX_QUOTE_PKT, INDEX_QUOTE_PACKET_SIZE),
+        INDEX_FULL(INDEX_FULL_PKT, INDEX_FULL_PACKET_SIZE);
+
+        final byte type;
+        final int size;
+
+        PacketKind(byte type, int size) {
+            this.type = type;
+            this.size = size;
+        }
+    }
+
+    // Wire times are seconds since 1980-01-01; this is 2025-05-02 10:15:00 IST
+    private static final int WIRE_TIME = (int) (1746161100L - ApplicationConstants.NINETY_EIGHTY_CONSTANT);
+
+    private FrameFixtures() {}
+
+    /**
+     * A frame holding {@code packets} packets of one kind, for consecutive security IDs starting at {@code firstSecurityId}.
+     */
+    public static ByteBuffer frame(PacketKind kind, int packets, int firstSecurityId) {
+        ByteBuffer frame = ByteBuffer.allocate(kind.size * packets).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < packets; i++) {
+            writePacket(frame, i * kind.size, kind, firstSecurityId + i, 1500f + i, i);
+        }
+        return frame;
+    }
+
+    /**
+     * A single FULL packet for {@code securityId}; {@code seq} nudges prices and quantities so consecutive
+     * frames look like a moving book.
+     */
+    public static ByteBuffer fullFrame(int securityId, float ltp, int seq) {
+        ByteBuffer frame = ByteBuffer.allocate(FULL_PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        writePacket(frame, 0, PacketKind.FULL, securityId, ltp, seq);
+        return frame;
+    }
+
+    private static void writePacket(ByteBuffer b, int pos, PacketKind kind, int securityId, float ltp, int seq) {
+        b.put(pos + TYPE_OFFSET, kind.type);
+        switch (kind) {
+            case LTP -> {
+                b.putFloat(pos + LTP_OFFSET, ltp);
+                b.putInt(pos + LTP_LTT_OFFSET, WIRE_TIME + seq);
+                b.putInt(pos + LTP_SECURITY_ID_OFFSET, securityId);
+                b.put(pos + LTP_TRADABLE_OFFSET, (byte) 1);
+                b.put(pos + LTP_MODETYPE_OFFSET, LTP_PKT);
+                b.putFloat(pos + LTP_CHANGE_ABSOLUTE_OFFSET, 12.349999f);
+                b.putFloat(pos + LTP_CHANGE_PERCENT_OFFSET, 0.83f);
+            }
+            case INDEX_LTP -> {
+                b.putFloat(pos + LTP_OFFSET, ltp * 15);
+                b.putInt(pos + INDEX_LTP_LUT_OFFSET, WIRE_TIME + seq);
+                b.putInt(pos + INDEX_LTP_SECURITY_ID_OFFSET, securityId);
+                b.put(pos + INDEX_LTP_TRADABLE_OFFSET, (byte) 0);
+                b.put(pos + INDEX_LTP_MODETYPE_OFFSET, LTP_PKT);
+                b.putFloat(pos + INDEX_LTP_CHANGE_ABSOLUTE_OFFSET, -48.150002f);
+                b.putFloat(pos + INDEX_LTP_CHANGE_PERCENT_OFFSET, -0.21f);
+            }
+            case QUOTE -> {
+                b.putFloat(pos + LTP_OFFSET, ltp);
+                b.putInt(pos + QUOTE_LTT_OFFSET, WIRE_TIME + seq);
+                b.putInt(pos + QUOTE_SECURITY_ID_OFFSET, securityId);
+                b.put(pos + QUOTE_TRADABLE_OFFSET, (byte) 1);
+                b.put(pos + QUOTE_MODETYPE_OFFSET, QUOTE_PKT);
+                b.putInt(pos + QUOTE_LAST_TRADED_QUANTITY_OFFSET, 25 + seq % 7);
+                b.putFloat(pos + QUOTE_AVG_TRADED_PRICE_OFFSET, ltp - 1.5f);
+                b.putInt(pos + QUOTE_VOLUME_OFFSET, 1_250_000 + seq * 40);
+                b.putInt(pos + QUOTE_TOTAL_BUY_QUANTITY_OFFSET, 310_000 + seq * 13);
+                b.putInt(pos + QUOTE_TOTAL_SELL_QUANTITY_OFFSET, 290_000 - seq * 11);
+                b.putFloat(pos + QUOTE_OPEN_OFFSET, ltp - 8);
+                b.putFloat(pos + QUOTE_CLOSE_OFFSET, ltp - 12.35f);
+                b.putFloat(pos + QUOTE_HIGH_OFFSET, ltp + 6);
+                b.putFloat(pos + QUOTE_LOW_OFFSET, ltp - 14);
+                b.putFloat(pos + QUOTE_CHANGE_PERCENT_OFFSET, 0.83f);
+                b.putFloat(pos + QUOTE_CHANGE_ABSOLUTE_OFFSET, 12.349999f);
+                b.putFloat(pos + QUOTE_52_WEEK_HIGH_OFFSET, ltp * 1.3f);
+                b.putFloat(pos + QUOTE_52_WEEK_LOW_OFFSET, ltp * 0.7f);
+            }
+            case INDEX_QUOTE -> {
+                b.putFloat(pos + LTP_OFFSET, ltp * 15);
+                b.putInt(pos + INDEX_QUOTE_SECURITY_ID_OFFSET, securityId);
+                b.put(pos + INDEX_QUOTE_TRADABLE_OFFSET, (byte) 0);
+                b.put(pos + INDEX_QUOTE_MODETYPE_OFFSET, QUOTE_PKT);
+                b.putFloat(pos + INDEX_QUOTE_OPEN_OFFSET, ltp * 15 - 30);
+                b.putFloat(pos + INDEX_QUOTE_CLOSE_OFFSET, ltp * 15 + 48.15f);
+                b.putFloat(pos + INDEX_QUOTE_HIGH_OFFSET, ltp * 15 + 60);
+                b.putFloat(pos + INDEX_QUOTE_LOW_OFFSET, ltp * 15 - 75);
+                b.putFloat(pos + INDEX_QUOTE_CHANGE_PERCENT_OFFSET, -0.21f);
+                b.putFloat(pos + INDEX_QUOTE_CHANGE_ABSOLUTE_OFFSET, -48.150002f);
+                b.putFloat(pos + INDEX_QUOTE_52_WEEK_HIGH_OFFSET, ltp * 18);
+                b.putFloat(pos + INDEX_QUOTE_52_WEEK_LOW_OFFSET, ltp * 12);
+            }
+            case INDEX_FULL -> {
+                b.putFloat(pos + LTP_OFFSET, ltp * 15);
+                b.putInt(pos + INDEX_FULL_SECURITY_ID_OFFSET, securityId);
+                b.put(pos + INDEX_FULL_TRADABLE_OFFSET, (byte) 0);
+                b.put(pos + INDEX_FULL_MODETYPE_OFFSET, FULL_PKT);
+                b.putFloat(pos + INDEX_FULL_OPEN_OFFSET, ltp * 15 - 30);
+                b.putFloat(pos + INDEX_FULL_CLOSE_OFFSET, ltp * 15 + 48.15f);
+                b.putFloat(pos + INDEX_FULL_HIGH_OFFSET, ltp * 15 + 60);
+                b.putFloat(pos + INDEX_FULL_LOW_OFFSET, ltp * 15 - 75);
+                b.putFloat(pos + INDEX_FULL_CHANGE_PERCENT_OFFSET, -0.21f);
+                b.putFloat(pos + INDEX_FULL_CHANGE_ABSOLUTE_OFFSET, -48.150002f);
+                b.putInt(pos + INDEX_FULL_LUT_OFFSET, WIRE_TIME + seq);
+            }
+            case FULL -> {
+                for (int level = 0; level < DEPTH_PACKETS_COUNT; level++) {
+                    int depth = pos + level * DEPTH_PACKET_SIZE;
+                    b.putInt(depth + DEPTH_BUY_QUANTITY_OFFSET, 400 + 150 * level + (seq * 37) % 300);
+                    b.putInt(depth + DEPTH_SELL_QUANTITY_OFFSET, 380 + 140 * level + (seq * 53) % 300);
+                    b.putShort(depth + DEPTH_BUY_ORDER_OFFSET, (short) (3 + level + seq % 4));
+                    b.putShort(depth + DEPTH_SELL_ORDER_OFFSET, (short) (2 + level + seq % 5));
+                    b.putFloat(depth + DEPTH_BUY_PRICE_OFFSET, ltp - 0.05f * (level + 1));
+                    b.putFloat(depth + DEPTH_SELL_PRICE_OFFSET, ltp + 0.05f * (level + 1));
+                }
+                b.putFloat(pos + FULL_LTP_OFFSET, ltp);
+                b.putInt(pos + FULL_LTT_OFFSET, WIRE_TIME + seq);
+                b.putInt(pos + FULL_SECURITY_ID_OFFSET, securityId);
+                b.put(pos + FULL_TRADABLE_OFFSET, (byte) 1);
+                b.put(pos + FULL_MODETYPE_OFFSET, FULL_PKT);
+                b.putInt(pos + FULL_LAST_TRADED_QUANTITY_OFFSET, 25 + seq % 7);
+                b.putFloat(pos + FULL_AVG_TRADED_PRICE_OFFSET, ltp - 1.5f);
+                b.putInt(pos + FULL_VOLUME_OFFSET, 1_250_000 + seq * 40);
+                b.putInt(pos + FULL_TOTAL_BUY_QUANTITY_OFFSET, 310_000 + seq * 13);
+                b.putInt(pos + FULL_TOTAL_SELL_QUANTITY_OFFSET, 290_000 - seq * 11);
+                b.putFloat(pos + FULL_OPEN_OFFSET, ltp - 8);
+                b.putFloat(pos + FULL_CLOSE_OFFSET, ltp - 12.35f);
+                b.putFloat(pos + FULL_HIGH_OFFSET, ltp + 6);
+                b.putFloat(pos + FULL_LOW_OFFSET, ltp - 14);
+                b.putFloat(pos + FULL_CHANGE_PERCENT_OFFSET, 0.83f);
+                b.putFloat(pos + FULL_CHANGE_ABSOLUTE_OFFSET, 12.349999f);
+                b.putFloat(pos + FULL_52_WEEK_HIGH_OFFSET, ltp * 1.3f);
+                b.putFloat(pos + FULL_52_WEEK_LOW_OFFSET, ltp * 0.7f);
+                b.putInt(pos + FULL_OI_OFFSET, 0);
+                b.putInt(pos + FULL_CHANGE_OI_OFFSET, 0);
+            }
+        }
+    }
+}
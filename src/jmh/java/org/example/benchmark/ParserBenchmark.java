@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import org.example.websocket.WebSocketParser;
+import org.example.websocket.model.Tick;
+import org.example.websocket.model.TickView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame decode cost per packet type, for the owned-Tick path and the flyweight path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+    @Param({"LTP", "QUOTE", "FULL", "INDEX_LTP", "INDEX_QUOTE", "INDEX_FULL"})
+    public FrameFixtures.PacketKind kind;
+
+    // 1 = a single update, 32 = a burst across the whole watchlist
+    @Param({"1", "32"})
+    public int packetsPerFrame;
+
+    private final WebSocketParser parser = new WebSocketParser();
+    private final TickView view = new TickView();
+    private ByteBuffer frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frame = FrameFixtures.frame(kind, packetsPerFrame, 3787);
+    }
+
+    @Benchmark
+    public List<Tick> parseTicks() {
+        return parser.parse(frame);
+    }
+
+    @Benchmark
+    public int parseFlyweight(Blackhole bh) throws Exception {
+        return parser.parse(frame, view, v -> {
+            bh.consume(v.getSecurityId());
+            bh.consume(v.getLastTradedPrice());
+            bh.consume(v.getLastTradedTime());
+            if (v.hasDepth()) {
+                bh.consume(v.getBuyPrice(0));
+                bh.consume(v.getSellPrice(0));
+                bh.consume(v.getBuyQuantity(0));
+                bh.consume(v.getSellQuantity(0));
+            }
+        });
+    }
+}
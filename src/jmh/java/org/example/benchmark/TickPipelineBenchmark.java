@@ -0,0 +1,183 @@
+package org.example.benchmark;
+
+import org.example.Main;
+import org.example.dataAnalysis.depthStrategy.StrategyOne;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.BackTesterUtility;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.FlatForest;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.FlatForestCompiler;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.MLUtils;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelSelector;
+import org.example.tradeGovernance.TradeAnalysis;
+import org.example.tradeGovernance.model.Position;
+import org.example.websocket.WebSocketParser;
+import org.example.websocket.dataPreparation.DepthPacketHistoryManager;
+import org.example.websocket.model.Tick;
+import org.openjdk.jmh.annotations.*;
+import weka.classifiers.Classifier;
+import weka.core.SerializationHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each stage a FULL tick goes through on the live path, and of the stages chained together.
+ * Run with the gc profiler (the default jmh.args) to get bytes allocated per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TickPipelineBenchmark {
+
+    private static final int SECURITY_ID = 3787;
+    private static final int AGGREGATION_WINDOW = 10;
+    private static final int FRAME_COUNT = 1024;
+
+    private final WebSocketParser parser = new WebSocketParser();
+    private final MLUtils mlUtils = new MLUtils(ModelSelector.ModelType.RANDOM_FOREST);
+    private final TradeAnalysis tradeAnalysis = new TradeAnalysis();
+    private final DepthPacketHistoryManager historyManager = DepthPacketHistoryManager.getInstance();
+
+    private ByteBuffer[] frames;
+    private Tick[] ticks;
+    private List<Tick> window;
+    private Tick aggregatedTick;
+    private double[] features;
+    private Classifier model;
+    private FlatForest flatForest;
+    private final double[] distribution = new double[3];
+
+    private int cursor;
+    private final List<Tick> chainBuffer = new ArrayList<>(AGGREGATION_WINDOW);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        frames = new ByteBuffer[FRAME_COUNT];
+        ticks = new Tick[FRAME_COUNT];
+        float ltp = 1500f;
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            ltp += (random.nextFloat() - 0.5f) * 0.5f;
+            frames[i] = FrameFixtures.fullFrame(SECURITY_ID, ltp, i);
+            ticks[i] = parser.parse(frames[i]).get(0);
+        }
+
+        window = new ArrayList<>(List.of(ticks).subList(0, AGGREGATION_WINDOW));
+        aggregatedTick = BackTesterUtility.aggregateTicks(window);
+        features = mlUtils.extractFeatures(aggregatedTick);
+        model = loadSerializedForest(random);
+        flatForest = FlatForestCompiler.compile(model);
+
+        // A handful of open positions so evaluateTradeAction walks a realistic list
+        Main.currentPositions.clear();
+        for (int id : new int[]{1406, 2475, 5097, 10666}) {
+            Position position = new Position();
+            position.setSecurity_id(String.valueOf(id));
+            position.setNet_qty(1);
+            position.setProduct("I");
+            Main.currentPositions.add(position);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Main.currentPositions.clear();
+        historyManager.clearAll();
+    }
+
+    /**
+     * Trains a RandomForest on features drawn from the fixture ticks and round-trips it through
+     * Weka serialization, the same way StrategyTwo loads model_global.model.
+     */
+    private Classifier loadSerializedForest(Random random) throws Exception {
+        List<double[]> trainingFeatures = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i + AGGREGATION_WINDOW <= FRAME_COUNT; i += AGGREGATION_WINDOW) {
+            double[] f = mlUtils.extractFeatures(BackTesterUtility.aggregateTicks(List.of(ticks).subList(i, i + AGGREGATION_WINDOW)));
+            for (int k = 0; k < 8; k++) {
+                double[] noisy = f.clone();
+                for (int j = 0; j < noisy.length; j++) noisy[j] += random.nextGaussian() * 0.01;
+                trainingFeatures.add(noisy);
+                labels.add(noisy[0] > 0.05 ? "BUY" : noisy[0] < -0.05 ? "SELL" : "HOLD");
+            }
+        }
+        Classifier trained = mlUtils.trainModel(trainingFeatures, labels);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerializationHelper.write(bytes, trained);
+        return (Classifier) SerializationHelper.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private int nextIndex() {
+        int index = cursor;
+        cursor = (cursor + 1) & (FRAME_COUNT - 1);
+        return index;
+    }
+
+    // ----- Individual stages -----
+
+    @Benchmark
+    public List<Tick> parseFullFrame() {
+        return parser.parse(frames[nextIndex()]);
+    }
+
+    @Benchmark
+    public void historyAddTick() {
+        historyManager.addTick(ticks[nextIndex()], null);
+    }
+
+    @Benchmark
+    public Tick aggregateTicks() {
+        return BackTesterUtility.aggregateTicks(window);
+    }
+
+    @Benchmark
+    public double[] extractFeatures() {
+        return mlUtils.extractFeatures(aggregatedTick);
+    }
+
+    @Benchmark
+    public MLUtils.PredictionResult predictWithConfidence() throws Exception {
+        return mlUtils.predictWithConfidence(model, features);
+    }
+
+    @Benchmark
+    public int predictFlatForest() {
+        return flatForest.score(features, distribution);
+    }
+
+    @Benchmark
+    public TradeAnalysis.Action evaluateTradeAction() {
+        return tradeAnalysis.evaluateTradeAction(SECURITY_ID, StrategyOne.Signal.BUY, null);
+    }
+
+    // ----- Chained: one op = one FULL frame through the whole decision path -----
+
+    @Benchmark
+    public TradeAnalysis.Action tickToDecision() throws Exception {
+        Tick tick = parser.parse(frames[nextIndex()]).get(0);
+        historyManager.addTick(tick, null);
+
+        chainBuffer.add(tick);
+        if (chainBuffer.size() < AGGREGATION_WINDOW) {
+            return TradeAnalysis.Action.HOLD;
+        }
+
+        Tick aggregated = BackTesterUtility.aggregateTicks(chainBuffer);
+        chainBuffer.clear();
+        MLUtils.PredictionResult result = mlUtils.predictWithConfidence(model, mlUtils.extractFeatures(aggregated));
+        StrategyOne.Signal signal = switch (result.label) {
+            case "BUY" -> StrategyOne.Signal.BUY;
+            case "SELL" -> StrategyOne.Signal.SELL;
+            default -> StrategyOne.Signal.HOLD;
+        };
+        return tradeAnalysis.evaluateTradeAction(SECURITY_ID, signal, null);
+    }
+}
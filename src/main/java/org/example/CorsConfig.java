@@ -2,6 +2,7 @@ package org.example;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,6 +17,12 @@ public class CorsConfig {
                         .allowedOrigins("*")
                         .allowedMethods("GET");
             }
+
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                // Streamed tick downloads run as long as the export takes; the container default is 30s
+                configurer.setDefaultTimeout(30L * 60 * 1000);
+            }
         };
     }
 }
@@ -1,6 +1,8 @@
 package org.example;
 
 import org.example.dataAnalysis.depthStrategy.StrategyOne;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelHolder;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelRegistry;
 import org.example.logger.WebSocketLogRedirector;
 import org.example.tokenStorage.TokenInfo;
 import org.example.tokenStorage.TokenStorageService;
@@ -9,6 +11,7 @@ import org.example.tradeGovernance.PositionServices;
 import org.example.tradeGovernance.TradeAnalysis;
 import org.example.tradeGovernance.model.OrderBookResponse;
 import org.example.tradeGovernance.model.Position;
+import org.example.websocket.dataPreparation.SubscriptionManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -16,11 +19,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 
 import java.io.PrintStream;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 @SpringBootApplication
 @EnableScheduling // 🔁 Enables Spring Scheduler
@@ -71,7 +72,8 @@ public class Main {
                 if (freshPositions != null) {
                     currentPositions.clear();
                     currentPositions.addAll(freshPositions);
-
+                    SubscriptionManager.getInstance().syncOpenPositions(freshPositions);
+                    ModelRegistry.getInstance().prefetch(openSecurityIds(freshPositions));
                 }
             }
         } catch (Exception e) {
@@ -79,6 +81,19 @@ public class Main {
         }
     }
 
+    private static List<Integer> openSecurityIds(List<Position> positions) {
+        List<Integer> ids = new ArrayList<>();
+        for (Position position : positions) {
+            if (position.getNet_qty() == 0 || position.getSecurity_id() == null) continue;
+            try {
+                ids.add(Integer.parseInt(position.getSecurity_id()));
+            } catch (NumberFormatException ignored) {
+                // not a feed security id
+            }
+        }
+        return ids;
+    }
+
     /**
      * 📘 Refreshes the global order book every 2 seconds.
      */
@@ -97,6 +112,31 @@ public class Main {
         }
     }
 
+    /**
+     * ⏬ Drops symbols that were auto-promoted to FULL back to their base mode once they go quiet.
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void demoteIdleSubscriptions() {
+        try {
+            SubscriptionManager.getInstance().demoteIdle();
+        } catch (Exception e) {
+            System.err.println("❌ Error demoting idle subscriptions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 🔄 Picks up model files replaced outside the app; the swaps themselves happen on the loader threads.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void refreshModels() {
+        try {
+            ModelHolder.getGlobal().reloadIfChanged();
+            ModelRegistry.getInstance().reloadChanged();
+        } catch (Exception e) {
+            System.err.println("❌ Error checking for a new model: " + e.getMessage());
+        }
+    }
+
     @Scheduled(cron = "0/30 0-14 9 * * *", zone = "Asia/Kolkata")
     public void scheduledSquareOffBetween230And245IST() {
         System.out.println("🛎️ Scheduled Square-Off Triggered (2:30–2:45 PM IST)");
@@ -109,22 +149,17 @@ public class Main {
     @Scheduled(fixedRate = 600000) // Check every 600 seconds
     public void checkMarketDataFileSizeAndTriggerRetraining() {
         try {
-            Path filePath = Paths.get("src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/marketdata.jsonl.gz");
+            // Legacy marketdata.jsonl.gz plus the tick journal's segments
+            long sizeInBytes = org.example.dataAnalysis.depthStrategy.machineLearning.trainingData.TrainingDataProcessor.getMarketDataBytes();
+            long sizeInMB = sizeInBytes / (1024 * 1024);
 
-            if (Files.exists(filePath)) {
-                long sizeInBytes = Files.size(filePath);
-                long sizeInMB = sizeInBytes / (1024 * 1024);
+            if (sizeInMB >= 48) {
+                System.out.println("📦 Market data size = " + sizeInMB + "MB. Triggering retraining...");
 
-                if (sizeInMB >= 48) {
-                    System.out.println("📦 File size = " + sizeInMB + "MB. Triggering retraining...");
-
-                    org.example.dataAnalysis.depthStrategy.machineLearning.trainingData.TrainingDataProcessor.triggerRetraining();
-                    System.out.println("✅ Retraining successfully triggered due to file size threshold.");
-                } else {
-                    System.out.println("📏 File size = " + sizeInMB + "MB. Retraining not required.");
-                }
+                org.example.dataAnalysis.depthStrategy.machineLearning.trainingData.TrainingDataProcessor.triggerRetraining();
+                System.out.println("✅ Retraining successfully triggered due to file size threshold.");
             } else {
-                System.out.println("⚠️ Market data file not found for size check.");
+                System.out.println("📏 Market data size = " + sizeInMB + "MB. Retraining not required.");
             }
         } catch (Exception e) {
             System.err.println("❌ Error while checking file size or triggering retraining: " + e.getMessage());
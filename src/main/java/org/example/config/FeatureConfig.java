@@ -0,0 +1,25 @@
+package org.example.config;
+
+/**
+ * Feature set used when training. Live inference follows whatever the loaded model was trained on.
+ */
+public class FeatureConfig {
+    private static boolean rollingFeatures = false; // append RollingFeatures to the snapshot features
+    private static boolean datasetCache = true; // reuse saved backtest features/labels while the tick files are unchanged
+
+    public static boolean isRollingFeatures() {
+        return rollingFeatures;
+    }
+
+    public static void setRollingFeatures(boolean enabled) {
+        rollingFeatures = enabled;
+    }
+
+    public static boolean isDatasetCache() {
+        return datasetCache;
+    }
+
+    public static void setDatasetCache(boolean enabled) {
+        datasetCache = enabled;
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.config;
+
+import org.example.websocket.pipeline.WaitStrategy;
+import org.example.websocket.recording.JournalSyncPolicy;
+
+/**
+ * Tunables for the market data ingest pipeline. Read when the WebSocket is (re)started.
+ */
+public class IngestConfig {
+    private static int workerCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static int ringCapacity = 4096; // per worker, rounded up to a power of two
+    private static WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+    private static int connectionCount = 1; // parallel feed sessions, symbols partitioned by securityId
+    private static boolean conflation = false; // keep only the latest pending tick per symbol
+    private static int historyCapacity = 100; // ticks kept per symbol; applies to symbols seen after a change
+
+    // Raw frame capture of the live feed
+    private static boolean recordFrames = false;
+    private static String captureDirectory = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/frames";
+    private static int captureSegmentBytes = 64 * 1024 * 1024;
+
+    // Tick journal (decoded FULL ticks as gzip'd JSON lines); read when the journal starts
+    private static String journalDirectory = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/journal";
+    private static int journalQueueCapacity = 65536; // ticks waiting for the writer; beyond this they are counted as dropped
+    private static int journalBlockBytes = 256 * 1024; // uncompressed JSON per gzip block
+    private static long journalFlushMillis = 1000; // a partial block is written after this long
+    private static JournalSyncPolicy journalSyncPolicy = JournalSyncPolicy.INTERVAL;
+    private static long journalSyncMillis = 5000; // for INTERVAL
+    private static long journalSegmentBytes = 48L * 1024 * 1024; // compressed bytes before rolling to a new segment
+    private static long journalSegmentMillis = 60L * 60 * 1000;
+
+    public static int getWorkerCount() {
+        return workerCount;
+    }
+
+    public static void setWorkerCount(int count) {
+        if (count < 1) throw new IllegalArgumentException("workerCount must be >= 1");
+        workerCount = count;
+    }
+
+    public static int getRingCapacity() {
+        return ringCapacity;
+    }
+
+    public static void setRingCapacity(int capacity) {
+        if (capacity < 2) throw new IllegalArgumentException("ringCapacity must be >= 2");
+        ringCapacity = capacity;
+    }
+
+    public static WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public static void setWaitStrategy(WaitStrategy strategy) {
+        waitStrategy = strategy;
+    }
+
+    public static int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public static void setConnectionCount(int count) {
+        if (count < 1) throw new IllegalArgumentException("connectionCount must be >= 1");
+        connectionCount = count;
+    }
+
+    public static boolean isConflation() {
+        return conflation;
+    }
+
+    public static void setConflation(boolean enabled) {
+        conflation = enabled;
+    }
+
+    public static int getHistoryCapacity() {
+        return historyCapacity;
+    }
+
+    public static void setHistoryCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("historyCapacity must be >= 1");
+        historyCapacity = capacity;
+    }
+
+    public static boolean isRecordFrames() {
+        return recordFrames;
+    }
+
+    public static void setRecordFrames(boolean enabled) {
+        recordFrames = enabled;
+    }
+
+    public static String getCaptureDirectory() {
+        return captureDirectory;
+    }
+
+    public static void setCaptureDirectory(String directory) {
+        captureDirectory = directory;
+    }
+
+    public static int getCaptureSegmentBytes() {
+        return captureSegmentBytes;
+    }
+
+    public static void setCaptureSegmentBytes(int bytes) {
+        captureSegmentBytes = bytes;
+    }
+
+    public static String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public static void setJournalDirectory(String directory) {
+        journalDirectory = directory;
+    }
+
+    public static int getJournalQueueCapacity() {
+        return journalQueueCapacity;
+    }
+
+    public static void setJournalQueueCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("journalQueueCapacity must be >= 1");
+        journalQueueCapacity = capacity;
+    }
+
+    public static int getJournalBlockBytes() {
+        return journalBlockBytes;
+    }
+
+    public static void setJournalBlockBytes(int bytes) {
+        if (bytes < 1) throw new IllegalArgumentException("journalBlockBytes must be >= 1");
+        journalBlockBytes = bytes;
+    }
+
+    public static long getJournalFlushMillis() {
+        return journalFlushMillis;
+    }
+
+    public static void setJournalFlushMillis(long millis) {
+        if (millis < 1) throw new IllegalArgumentException("journalFlushMillis must be >= 1");
+        journalFlushMillis = millis;
+    }
+
+    public static JournalSyncPolicy getJournalSyncPolicy() {
+        return journalSyncPolicy;
+    }
+
+    public static void setJournalSyncPolicy(JournalSyncPolicy policy) {
+        journalSyncPolicy = policy;
+    }
+
+    public static long getJournalSyncMillis() {
+        return journalSyncMillis;
+    }
+
+    public static void setJournalSyncMillis(long millis) {
+        journalSyncMillis = millis;
+    }
+
+    public static long getJournalSegmentBytes() {
+        return journalSegmentBytes;
+    }
+
+    public static void setJournalSegmentBytes(long bytes) {
+        if (bytes < 1) throw new IllegalArgumentException("journalSegmentBytes must be >= 1");
+        journalSegmentBytes = bytes;
+    }
+
+    public static long getJournalSegmentMillis() {
+        return journalSegmentMillis;
+    }
+
+    public static void setJournalSegmentMillis(long millis) {
+        if (millis < 1) throw new IllegalArgumentException("journalSegmentMillis must be >= 1");
+        journalSegmentMillis = millis;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.config;
+
+/**
+ * Tunables for per-symbol model serving.
+ */
+public class ModelConfig {
+    private static boolean perSymbolModels = true; // use models/model_<securityId>.* where present
+    private static long registryMaxBytes = 256L * 1024 * 1024; // heap budget for cached per-symbol models
+    private static long missingRecheckMillis = 5 * 60 * 1000; // how long "no model for this symbol" is trusted
+    private static boolean exportBacktestModels = false; // BackTesterMLDriven writes its models into the live models/ dir
+
+    public static boolean isPerSymbolModels() {
+        return perSymbolModels;
+    }
+
+    public static void setPerSymbolModels(boolean enabled) {
+        perSymbolModels = enabled;
+    }
+
+    public static long getRegistryMaxBytes() {
+        return registryMaxBytes;
+    }
+
+    public static void setRegistryMaxBytes(long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("registryMaxBytes must be >= 0");
+        registryMaxBytes = bytes;
+    }
+
+    public static long getMissingRecheckMillis() {
+        return missingRecheckMillis;
+    }
+
+    public static void setMissingRecheckMillis(long millis) {
+        missingRecheckMillis = millis;
+    }
+
+    public static boolean isExportBacktestModels() {
+        return exportBacktestModels;
+    }
+
+    public static void setExportBacktestModels(boolean enabled) {
+        exportBacktestModels = enabled;
+    }
+}
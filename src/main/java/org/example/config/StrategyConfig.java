@@ -0,0 +1,88 @@
+package org.example.config;
+
+import org.example.dataAnalysis.strategy.ArbitrationRule;
+
+/**
+ * Tunables for the multi-strategy engine. Pool size is read when the engine is created; the rest live.
+ */
+public class StrategyConfig {
+    private static int poolSize = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static ArbitrationRule arbitration = ArbitrationRule.PRIORITY; // first registered strategy wins
+    private static long evaluationTimeoutMillis = 500; // slower strategies count as "no opinion" for the round
+
+    // Evaluation scheduling per symbol; a threshold of 0 disables that trigger
+    private static long minEvaluationIntervalMillis = 250;
+    private static long maxEvaluationIntervalMillis = 10_000;
+    private static double imbalanceDeltaThreshold = 0.10; // change in top-5 depth imbalance (-1..1)
+    private static double priceMoveThreshold = 0.0005;   // relative move of best bid or ask (5 bps)
+    private static long volumeThreshold = 5_000;         // shares traded since the last evaluation
+
+    public static int getPoolSize() {
+        return poolSize;
+    }
+
+    public static void setPoolSize(int size) {
+        if (size < 1) throw new IllegalArgumentException("poolSize must be >= 1");
+        poolSize = size;
+    }
+
+    public static ArbitrationRule getArbitration() {
+        return arbitration;
+    }
+
+    public static void setArbitration(ArbitrationRule rule) {
+        if (rule == null) throw new IllegalArgumentException("arbitration must not be null");
+        arbitration = rule;
+    }
+
+    public static long getEvaluationTimeoutMillis() {
+        return evaluationTimeoutMillis;
+    }
+
+    public static void setEvaluationTimeoutMillis(long millis) {
+        if (millis < 1) throw new IllegalArgumentException("evaluationTimeoutMillis must be >= 1");
+        evaluationTimeoutMillis = millis;
+    }
+
+    public static long getMinEvaluationIntervalMillis() {
+        return minEvaluationIntervalMillis;
+    }
+
+    public static void setMinEvaluationIntervalMillis(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("minEvaluationIntervalMillis must be >= 0");
+        minEvaluationIntervalMillis = millis;
+    }
+
+    public static long getMaxEvaluationIntervalMillis() {
+        return maxEvaluationIntervalMillis;
+    }
+
+    public static void setMaxEvaluationIntervalMillis(long millis) {
+        if (millis < 1) throw new IllegalArgumentException("maxEvaluationIntervalMillis must be >= 1");
+        maxEvaluationIntervalMillis = millis;
+    }
+
+    public static double getImbalanceDeltaThreshold() {
+        return imbalanceDeltaThreshold;
+    }
+
+    public static void setImbalanceDeltaThreshold(double threshold) {
+        imbalanceDeltaThreshold = threshold;
+    }
+
+    public static double getPriceMoveThreshold() {
+        return priceMoveThreshold;
+    }
+
+    public static void setPriceMoveThreshold(double threshold) {
+        priceMoveThreshold = threshold;
+    }
+
+    public static long getVolumeThreshold() {
+        return volumeThreshold;
+    }
+
+    public static void setVolumeThreshold(long threshold) {
+        volumeThreshold = threshold;
+    }
+}
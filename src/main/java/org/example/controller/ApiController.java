@@ -1,13 +1,29 @@
 package org.example.controller;
 
 import org.example.config.MarketModeConfig;
+import org.example.config.StrategyConfig;
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarSpec;
 import org.example.dataAnalysis.depthStrategy.StrategyOne;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelHolder;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelInfo;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelRegistry;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelRegistryStats;
+import org.example.dataAnalysis.strategy.ArbitrationRule;
+import org.example.dataAnalysis.strategy.EvaluationScheduler;
+import org.example.dataAnalysis.strategy.StrategyEngine;
+import org.example.dataAnalysis.strategy.StrategyStats;
+import org.example.monitoring.LatencyRecorder;
 import org.example.dataAnalysis.depthStrategy.machineLearning.trainingData.TrainingDataProcessor;
 import org.example.websocket.WebSocketService;
+import org.example.websocket.model.ConnectionStats;
 import org.example.websocket.model.StrategySummary;
+import org.example.websocket.pipeline.WorkerStats;
+import org.example.websocket.recording.JournalStats;
+import org.example.websocket.recording.TickExporter;
+import org.example.websocket.recording.TickJournal;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,16 +31,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.GZIPInputStream;
 
 @Controller
 public class ApiController {
@@ -68,6 +82,109 @@ public class ApiController {
         return MarketModeConfig.isSimulationMode() ? "simulated" : "live";
     }
 
+    @GetMapping("/api/pipeline-stats")
+    @ResponseBody
+    public List<WorkerStats> getPipelineStats() {
+        return webSocketService.getPipelineStats();
+    }
+
+    // Completed bars for dashboard candles, oldest first; spec like TIME_60, VOLUME_10000, TICK_10
+    @GetMapping("/api/bars")
+    @ResponseBody
+    public List<Bar> getBars(@RequestParam int securityId,
+                             @RequestParam(defaultValue = "TIME_60") String spec,
+                             @RequestParam(defaultValue = "200") int limit) {
+        return BarEngine.getInstance().getBars(securityId, BarSpec.parse(spec), limit);
+    }
+
+    @GetMapping("/api/bar-specs")
+    @ResponseBody
+    public List<String> getBarSpecs() {
+        List<String> keys = new ArrayList<>();
+        for (BarSpec spec : BarEngine.getInstance().getSpecs()) keys.add(spec.getKey());
+        return keys;
+    }
+
+    // Per-stage latency since the last reset; reset=true starts a new interval
+    @GetMapping("/api/latency")
+    @ResponseBody
+    public Map<String, Object> getLatency(@RequestParam(defaultValue = "false") boolean reset) {
+        return LatencyRecorder.getInstance().report(reset);
+    }
+
+    // Per-strategy evaluation time and signal counts; reset=true starts a new interval
+    @GetMapping("/api/strategy-stats")
+    @ResponseBody
+    public List<StrategyStats> getStrategyStats(@RequestParam(defaultValue = "false") boolean reset) {
+        return StrategyEngine.getInstance().getStats(reset);
+    }
+
+    // rule: PRIORITY, MAJORITY or UNANIMOUS; omit to read the current rule
+    @GetMapping("/api/strategy-arbitration")
+    @ResponseBody
+    public String strategyArbitration(@RequestParam(required = false) ArbitrationRule rule) {
+        if (rule != null) StrategyConfig.setArbitration(rule);
+        return StrategyConfig.getArbitration().name();
+    }
+
+    // Version and load time of the live global model
+    @GetMapping("/api/model")
+    @ResponseBody
+    public ModelInfo getModelInfo() {
+        return ModelHolder.getGlobal().getInfo();
+    }
+
+    @GetMapping("/api/model/reload")
+    @ResponseBody
+    public String reloadModel() {
+        return ModelHolder.getGlobal().reloadAsync() ? "Model reload started" : "Model reload already in progress";
+    }
+
+    // Per-symbol model cache: hit/miss/eviction counters and what is resident
+    @GetMapping("/api/model-registry")
+    @ResponseBody
+    public ModelRegistryStats getModelRegistryStats() {
+        return ModelRegistry.getInstance().getStats();
+    }
+
+    // Change-driven evaluations: triggered per reason, bar closes suppressed and bars dropped unevaluated;
+    // reset=true starts a new interval
+    @GetMapping("/api/evaluation-stats")
+    @ResponseBody
+    public Map<String, Object> getEvaluationStats(@RequestParam(defaultValue = "false") boolean reset) {
+        Map<String, Object> stats = EvaluationScheduler.getInstance().getStats(reset);
+        stats.putAll(StrategyEngine.getInstance().getBarStats(reset));
+        return stats;
+    }
+
+    // Tick journal: queue depth, drops, write throughput and block flush latency; reset=true starts a new interval
+    @GetMapping("/api/journal-stats")
+    @ResponseBody
+    public JournalStats getJournalStats(@RequestParam(defaultValue = "false") boolean reset) {
+        return TickJournal.getInstance().getStats(reset);
+    }
+
+    @GetMapping("/api/connection-stats")
+    @ResponseBody
+    public List<ConnectionStats> getConnectionStats() {
+        return webSocketService.getConnectionStats();
+    }
+
+    // speed: 1 = recorded pace, N = N times faster, 0 = as fast as possible
+    @GetMapping("/api/replay")
+    @ResponseBody
+    public String startReplay(@RequestParam(defaultValue = TRAINING_DATA_DIR + "frames") String capture,
+                              @RequestParam(defaultValue = "1") double speed) {
+        webSocketService.startReplay(capture, speed);
+        return "Replay started from " + capture + (speed > 0 ? " at " + speed + "x" : " at max speed");
+    }
+
+    @GetMapping("/api/replay-status")
+    @ResponseBody
+    public Map<String, Object> getReplayStatus() {
+        return webSocketService.getReplayStatus();
+    }
+
     private static final List<String> STRATEGIES = List.of(
             "orderBookPressure", "depthImbalance", "depthConvexity",
             "bidAskSpread", "top5Weight", "volumeAtPrice"
@@ -179,36 +296,24 @@ public class ApiController {
         return result;
     }
 
+    // Stored ticks streamed straight from disk; securityId/from/to (epoch seconds, to exclusive) filter,
+    // format=GZIP sends compressed JSONL (the stored files as-is when unfiltered)
     @GetMapping("/api/download-compressed-ticks")
     @ResponseBody
-    public ResponseEntity<Resource> downloadCompressedFile() {
-        Path compressedPath = Paths.get("src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/marketdata.jsonl.gz");
-
-        try (GZIPInputStream gis = new GZIPInputStream(Files.newInputStream(compressedPath));
-             BufferedReader reader = new BufferedReader(new InputStreamReader(gis))) {
-
-            // Read decompressed content
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
-            }
-
-            // Create a temporary file with .json extension
-            Path tempFile = Files.createTempFile("all_ticks_", ".json");
-            Files.write(tempFile, content.toString().getBytes());
-
-            // Prepare the file as a downloadable Resource
-            Resource resource = new UrlResource(tempFile.toUri());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"all_ticks.json\"")
-                    .body(resource);
-
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<StreamingResponseBody> downloadCompressedFile(@RequestParam(required = false) Integer securityId,
+                                                                       @RequestParam(required = false) Long from,
+                                                                       @RequestParam(required = false) Long to,
+                                                                       @RequestParam(defaultValue = "JSONL") TickExporter.Format format) {
+        TickExporter exporter = new TickExporter(
+                Paths.get(TRAINING_DATA_DIR + "marketdata.jsonl.gz"), TickJournal.getInstance());
+        StreamingResponseBody body = out -> exporter.export(out, securityId, from, to, format);
+
+        boolean gzip = format == TickExporter.Format.GZIP;
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + (gzip ? "all_ticks.jsonl.gz" : "all_ticks.json") + "\"")
+                .body(body);
     }
 
 
@@ -1,10 +1,12 @@
 package org.example.controller;
 
 import org.example.Main;
+import org.example.config.IngestConfig;
 import org.example.config.MarketModeConfig;
 import org.example.tokenStorage.TokenInfo;
 import org.example.tokenStorage.TokenStorageService;
 import org.example.websocket.WebSocketService;
+import org.example.websocket.pipeline.WaitStrategy;
 import org.springframework.http.*;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -26,8 +28,18 @@ public class AuthenticationController {
 
     @GetMapping("/start-websocket")
     @ResponseBody
-    public String startWebSocket(@RequestParam(defaultValue = "live") String mode) {
+    public String startWebSocket(@RequestParam(defaultValue = "live") String mode,
+                                 @RequestParam(required = false) Integer workers,
+                                 @RequestParam(required = false) Integer connections,
+                                 @RequestParam(required = false) Boolean conflate,
+                                 @RequestParam(required = false) String waitStrategy,
+                                 @RequestParam(defaultValue = "false") boolean record) {
         MarketModeConfig.setSimulationMode("simulated".equalsIgnoreCase(mode));
+        IngestConfig.setRecordFrames(record);
+        if (workers != null) IngestConfig.setWorkerCount(workers);
+        if (connections != null) IngestConfig.setConnectionCount(connections);
+        if (conflate != null) IngestConfig.setConflation(conflate);
+        if (waitStrategy != null) IngestConfig.setWaitStrategy(WaitStrategy.valueOf(waitStrategy.toUpperCase()));
         webSocketService.startWebSocket();  // ✅ This will now resolve
         return "WebSocket started in " + mode + " mode.";
     }
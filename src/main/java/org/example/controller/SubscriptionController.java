@@ -0,0 +1,64 @@
+package org.example.controller;
+
+import org.example.websocket.dataPreparation.SubscriptionManager;
+import org.example.websocket.model.SubscriptionMode;
+import org.example.websocket.model.SymbolSubscription;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Controller
+@RequestMapping("/api/subscriptions")
+public class SubscriptionController {
+
+    private final SubscriptionManager subscriptionManager = SubscriptionManager.getInstance();
+
+    @GetMapping
+    @ResponseBody
+    public Map<String, Object> getSubscriptions() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("modeCounts", subscriptionManager.getModeCounts());
+        result.put("symbols", subscriptionManager.getSubscriptions());
+        return result;
+    }
+
+    @PostMapping("/{scripId}")
+    @ResponseBody
+    public SymbolSubscription addSymbol(@PathVariable String scripId,
+                                        @RequestParam(defaultValue = "FULL") SubscriptionMode mode) {
+        return subscriptionManager.add(scripId, mode);
+    }
+
+    @DeleteMapping("/{scripId}")
+    @ResponseBody
+    public ResponseEntity<String> removeSymbol(@PathVariable String scripId) {
+        return subscriptionManager.remove(scripId)
+                ? ResponseEntity.ok("Unsubscribed " + scripId)
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Promotes/demotes a symbol and pins it there; pinned symbols are skipped by automatic tiering.
+     */
+    @PostMapping("/{scripId}/mode")
+    @ResponseBody
+    public ResponseEntity<SymbolSubscription> setMode(@PathVariable String scripId,
+                                                      @RequestParam SubscriptionMode mode) {
+        SymbolSubscription sub = subscriptionManager.setMode(scripId, mode);
+        return sub == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(sub);
+    }
+
+    /**
+     * Returns a pinned symbol to automatic tiering, idling in {@code baseMode}.
+     */
+    @PostMapping("/{scripId}/auto")
+    @ResponseBody
+    public ResponseEntity<SymbolSubscription> unpin(@PathVariable String scripId,
+                                                    @RequestParam(defaultValue = "FULL") SubscriptionMode baseMode) {
+        SymbolSubscription sub = subscriptionManager.unpin(scripId, baseMode);
+        return sub == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(sub);
+    }
+}
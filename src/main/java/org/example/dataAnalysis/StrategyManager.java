@@ -1,37 +1,52 @@
 package org.example.dataAnalysis;
 
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarSpec;
 import org.example.dataAnalysis.depthStrategy.StrategyOne;
-import org.example.dataAnalysis.depthStrategy.StrategyTwo;
+import org.example.dataAnalysis.strategy.StrategyEngine;
+import org.example.dataAnalysis.strategy.StrategyOneAdapter;
+import org.example.dataAnalysis.strategy.StrategyTwoAdapter;
 import org.example.websocket.model.Tick;
 
-import java.util.*;
-
-import static org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.BackTesterUtility.*;
-
+/**
+ * Wires the default strategies into the {@link StrategyEngine}. They run on {@link #STRATEGY_BAR} bars, i.e.
+ * one evaluation per 10 FULL ticks of a symbol, cut by the {@link BarEngine} from every depth tick it receives.
+ * <p>
+ * This is a change of cadence from the original per-symbol buffer, which only collected the ticks that had
+ * passed the evaluation cooldown: a window then spanned 10 evaluated ticks (at least 10 cooldowns of wall
+ * time), whereas a bar now spans 10 received ticks, and evaluation gating decides per closed bar whether it
+ * is evaluated or skipped.
+ * Backtests cut the same bars from the recorded ticks, so live and offline windows now agree.
+ */
 public class StrategyManager {
 
     private static final int AGGREGATION_WINDOW = 10;
-    private static final Map<Integer, List<Tick>> tickBufferMap = new HashMap<>();
+    public static final BarSpec STRATEGY_BAR = BarSpec.ticks(AGGREGATION_WINDOW);
+
+    // Registration order is arbitration priority: the global model first, the imbalance rule behind it
+    static {
+        try {
+            StrategyEngine.getInstance().register(new StrategyTwoAdapter(STRATEGY_BAR));
+            StrategyEngine.getInstance().register(new StrategyOneAdapter(STRATEGY_BAR));
+        } catch (Exception e) {
+            System.err.println("❌ Failed to register default strategies: " + e.getMessage());
+        }
+    }
 
-    // Create a single instance of StrategyTwo
-    private static final StrategyTwo strategyTwo = new StrategyTwo();
+    /**
+     * The engine with the default strategies registered; use this rather than {@link StrategyEngine#getInstance()}
+     * where registration must already have happened, e.g. to ask whether a symbol has bars to evaluate.
+     */
+    public static StrategyEngine getEngine() {
+        return StrategyEngine.getInstance();
+    }
 
+    /**
+     * Runs the registered strategies on the symbol's bars from the {@link BarEngine} that closed since the
+     * last call and returns their arbitrated signal. The engine must already have been fed {@code tick}.
+     */
     public static StrategyOne.Signal strategySelector(Tick tick, int symbolId) throws Exception {
         if (tick == null) return StrategyOne.Signal.HOLD;
-
-        tickBufferMap.computeIfAbsent(symbolId, k -> new ArrayList<>()).add(tick);
-        List<Tick> buffer = tickBufferMap.get(symbolId);
-
-        System.out.println("buffer size " + buffer.size());
-        if (buffer.size() < AGGREGATION_WINDOW) {
-            return StrategyOne.Signal.HOLD;
-        }
-
-        Tick aggregatedTick = aggregateTicks(buffer);
-        tickBufferMap.put(symbolId, new ArrayList<>());
-        System.out.println("evaluate Signal entered");
-
-        // Use instance method
-        return strategyTwo.evaluateSignal(aggregatedTick);
+        return StrategyEngine.getInstance().evaluate(tick);
     }
 }
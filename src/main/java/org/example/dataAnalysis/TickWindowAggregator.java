@@ -0,0 +1,161 @@
+package org.example.dataAnalysis;
+
+import org.example.websocket.model.DepthBook;
+import org.example.websocket.model.Tick;
+
+/**
+ * Running version of {@code BackTesterUtility.aggregateTicks}: each tick is folded in as it arrives and
+ * closing the window only copies the accumulators out. The arithmetic mirrors the stream-based original
+ * exactly (float products widened to double, {@code DoubleStream.sum}'s compensated summation,
+ * {@code Math.max}/{@code Math.min} reductions), so live and backtest aggregates are bit-identical.
+ * Methods are synchronized; in the live pipeline each symbol has one writer, so the lock is uncontended.
+ */
+public class TickWindowAggregator {
+
+    private static final int LEVELS = DepthBook.LEVELS;
+
+    private int count;
+
+    // first / last
+    private int securityId;
+    private float open;
+    private Tick last;
+
+    // running sums and extremes
+    private int quantitySum;
+    private double notionalSum, notionalCompensation, notionalSimpleSum;
+    private long maxVolumeTraded;
+    private int maxTotalBuyQuantity, maxTotalSellQuantity;
+    private double high, low;
+
+    // per-level depth accumulators
+    private int depthCount;
+    private final int[] bidQuantity = new int[LEVELS], askQuantity = new int[LEVELS];
+    private final int[] bidOrders = new int[LEVELS], askOrders = new int[LEVELS];
+    private final double[] bidPriceSum = new double[LEVELS], askPriceSum = new double[LEVELS];
+
+    public synchronized void add(Tick tick) {
+        if (count == 0) {
+            securityId = tick.getSecurityId();
+            open = tick.getOpen();
+            maxVolumeTraded = tick.getVolumeTraded();
+            maxTotalBuyQuantity = tick.getTotalBuyQuantity();
+            maxTotalSellQuantity = tick.getTotalSellQuantity();
+            high = tick.getHigh();
+            low = tick.getLow();
+        } else {
+            maxVolumeTraded = Math.max(maxVolumeTraded, tick.getVolumeTraded());
+            maxTotalBuyQuantity = Math.max(maxTotalBuyQuantity, tick.getTotalBuyQuantity());
+            maxTotalSellQuantity = Math.max(maxTotalSellQuantity, tick.getTotalSellQuantity());
+            high = Math.max(high, tick.getHigh());
+            low = Math.min(low, tick.getLow());
+        }
+        last = tick;
+        count++;
+
+        quantitySum += tick.getLastTradedQuantity();
+        addNotional(tick.getAverageTradedPrice() * tick.getLastTradedQuantity());
+
+        DepthBook book = tick.getDepthBook();
+        if (book != null) {
+            for (int level = 0; level < LEVELS; level++) {
+                bidQuantity[level] += book.getBidQuantity(level);
+                askQuantity[level] += book.getAskQuantity(level);
+                bidOrders[level] = depthCount == 0 ? book.getBidOrders(level) : Math.max(bidOrders[level], book.getBidOrders(level));
+                askOrders[level] = depthCount == 0 ? book.getAskOrders(level) : Math.max(askOrders[level], book.getAskOrders(level));
+                bidPriceSum[level] += book.getBidPrice(level);
+                askPriceSum[level] += book.getAskPrice(level);
+            }
+            depthCount++;
+        }
+    }
+
+    // Same steps as Collectors.sumWithCompensation, as used by DoubleStream.sum()
+    private void addNotional(double value) {
+        double tmp = value - notionalCompensation;
+        double sum = notionalSum;
+        double velvel = sum + tmp;
+        notionalCompensation = (velvel - sum) - tmp;
+        notionalSum = velvel;
+        notionalSimpleSum += value;
+    }
+
+    // Same as Collectors.computeFinalSum
+    private double notional() {
+        double tmp = notionalSum - notionalCompensation;
+        if (Double.isNaN(tmp) && Double.isInfinite(notionalSimpleSum)) return notionalSimpleSum;
+        return tmp;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Writes the aggregate of the ticks added since the last reset into {@code target} (whose depth book
+     * is reused when present) and resets. Allocation-free once {@code target} has a book.
+     *
+     * @throws IllegalStateException if no tick was added
+     */
+    public synchronized Tick closeInto(Tick target) {
+        if (count == 0) throw new IllegalStateException("No ticks in window");
+
+        target.setLastTradedTime(last.getLastTradedTime());
+        target.setLastUpdatedTime(0);
+        target.setSecurityId(securityId);
+        target.setTradable((byte) 0);
+        target.setMode((byte) 0);
+        target.setLastTradedPrice(last.getLastTradedPrice());
+        target.setLastTradedQuantity(quantitySum);
+        target.setAverageTradedPrice((float) notional() / quantitySum);
+        target.setVolumeTraded(maxVolumeTraded);
+        target.setTotalBuyQuantity(maxTotalBuyQuantity);
+        target.setTotalSellQuantity(maxTotalSellQuantity);
+        target.setOpen(open);
+        target.setClose(last.getClose());
+        target.setHigh((float) high);
+        target.setLow((float) low);
+        target.setChangePercent(last.getChangePercent());
+        target.setChangeAbsolute(last.getChangeAbsolute());
+        target.setFiftyTwoWeekHigh(last.getFiftyTwoWeekHigh());
+        target.setFiftyTwoWeekLow(last.getFiftyTwoWeekLow());
+        target.setOi(last.getOi());
+        target.setOiChange(last.getOiChange());
+        target.setReceivedNanos(last.getReceivedNanos());
+        target.setParsedNanos(last.getParsedNanos());
+
+        DepthBook book = target.getDepthBook();
+        if (book == null) {
+            book = new DepthBook();
+            target.setDepthBook(book);
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            book.setLevel(level, bidQuantity[level], askQuantity[level],
+                    (short) bidOrders[level], (short) askOrders[level],
+                    depthCount == 0 ? 0f : (float) (bidPriceSum[level] / depthCount),
+                    depthCount == 0 ? 0f : (float) (askPriceSum[level] / depthCount));
+        }
+
+        reset();
+        return target;
+    }
+
+    /**
+     * Closes the window into a freshly allocated tick.
+     */
+    public Tick close() {
+        return closeInto(new Tick());
+    }
+
+    public synchronized void reset() {
+        count = 0;
+        last = null;
+        quantitySum = 0;
+        notionalSum = notionalCompensation = notionalSimpleSum = 0;
+        depthCount = 0;
+        for (int level = 0; level < LEVELS; level++) {
+            bidQuantity[level] = askQuantity[level] = bidOrders[level] = askOrders[level] = 0;
+            bidPriceSum[level] = askPriceSum[level] = 0;
+        }
+    }
+}
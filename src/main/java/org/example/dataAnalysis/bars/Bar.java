@@ -0,0 +1,28 @@
+package org.example.dataAnalysis.bars;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.websocket.model.Tick;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Bar {
+    private int securityId;
+    private String spec;
+    private long startTime; // epoch seconds (exchange time) of the first tick
+    private long endTime;   // epoch seconds of the last tick
+    private float open;
+    private float high;
+    private float low;
+    private float close;
+    private long volume;
+    private int tickCount;
+    private double vwap;
+
+    // Same aggregate BackTesterUtility.aggregateTicks builds from the bar's ticks; what the strategies consume
+    @JsonIgnore
+    private Tick aggregate;
+}
@@ -0,0 +1,77 @@
+package org.example.dataAnalysis.bars;
+
+import org.example.dataAnalysis.TickWindowAggregator;
+import org.example.websocket.model.Tick;
+
+/**
+ * Builds consecutive bars of one spec for one symbol. Not thread-safe; owned by {@link BarEngine}.
+ */
+class BarBuilder {
+
+    private final BarSpec spec;
+    private final int securityId;
+    private final TickWindowAggregator aggregator = new TickWindowAggregator();
+
+    private int tickCount;
+    private long bucket;
+    private long startTime, endTime;
+    private float open, high, low, close;
+    private long volume;
+    private double notional;
+
+    BarBuilder(BarSpec spec, int securityId) {
+        this.spec = spec;
+        this.securityId = securityId;
+    }
+
+    BarSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Adds a tick and returns the bar it completed, if any. A time bar is completed by the first tick of
+     * the next interval (and does not contain it); volume and tick bars by the tick that fills them.
+     */
+    Bar add(Tick tick, long time, long tradedQuantity) {
+        Bar completed = null;
+        if (spec.getType() == BarType.TIME) {
+            long tickBucket = time / spec.getSize();
+            if (tickCount > 0 && tickBucket > bucket) {
+                completed = close();
+            }
+            if (tickCount == 0) bucket = tickBucket;
+        }
+
+        float price = tick.getLastTradedPrice();
+        if (tickCount == 0) {
+            startTime = time;
+            open = high = low = price;
+        } else {
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+        }
+        close = price;
+        endTime = Math.max(endTime, time);
+        volume += tradedQuantity;
+        notional += (double) price * tradedQuantity;
+        tickCount++;
+        aggregator.add(tick);
+
+        boolean full = switch (spec.getType()) {
+            case TIME -> false;
+            case VOLUME -> volume >= spec.getSize();
+            case TICK -> tickCount >= spec.getSize();
+        };
+        return full ? close() : completed;
+    }
+
+    private Bar close() {
+        Bar bar = new Bar(securityId, spec.getKey(), startTime, endTime, open, high, low, close, volume, tickCount,
+                volume == 0 ? close : notional / volume, aggregator.close());
+        tickCount = 0;
+        volume = 0;
+        notional = 0;
+        endTime = 0;
+        return bar;
+    }
+}
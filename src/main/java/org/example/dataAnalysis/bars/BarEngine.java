@@ -0,0 +1,173 @@
+package org.example.dataAnalysis.bars;
+
+import org.example.websocket.model.Tick;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Builds every configured bar series for every symbol from the tick stream in one pass.
+ * Completed bars go to the subscribed {@link BarListener}s (on the thread that fed the closing tick)
+ * and into a bounded per-symbol history for the REST/WebSocket feeds.
+ * <p>
+ * Time bars follow exchange time ({@code lastTradedTime}, epoch seconds) so replays and backtests
+ * cut the same bars as the live feed. Volume is the change in cumulative {@code volumeTraded}
+ * between ticks, falling back to {@code lastTradedQuantity} when that is not available.
+ */
+public class BarEngine {
+
+    public static final List<BarSpec> DEFAULT_SPECS = List.of(
+            BarSpec.time(1), BarSpec.time(5), BarSpec.time(60),
+            BarSpec.volume(10_000),
+            BarSpec.ticks(10)
+    );
+    private static final int HISTORY_LIMIT = 500;
+
+    private static final BarEngine INSTANCE = new BarEngine(DEFAULT_SPECS);
+
+    private final List<BarSpec> specs;
+    private final Map<Integer, SymbolBars> symbols = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private static final class Subscription {
+        final BarSpec spec;
+        final BarListener listener;
+
+        Subscription(BarSpec spec, BarListener listener) {
+            this.spec = spec;
+            this.listener = listener;
+        }
+    }
+
+    public BarEngine(List<BarSpec> specs) {
+        this.specs = List.copyOf(specs);
+    }
+
+    public static BarEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The classes whose code decides how ticks become bars, package-private ones included, for callers that
+     * fingerprint that code (e.g. to invalidate datasets cut from bars).
+     */
+    public static List<Class<?>> getBarCode() {
+        return List.of(BarEngine.class, SymbolBars.class, BarBuilder.class, Bar.class, BarSpec.class, BarType.class);
+    }
+
+    public List<BarSpec> getSpecs() {
+        return specs;
+    }
+
+    /**
+     * @param spec only bars of this spec, or null for every bar
+     */
+    public void subscribe(BarSpec spec, BarListener listener) {
+        subscriptions.add(new Subscription(spec, listener));
+    }
+
+    public void unsubscribe(BarListener listener) {
+        subscriptions.removeIf(s -> s.listener == listener);
+    }
+
+    public void onTick(Tick tick) {
+        int securityId = tick.getSecurityId();
+        SymbolBars bars = symbols.get(securityId);
+        if (bars == null) {
+            bars = symbols.computeIfAbsent(securityId, SymbolBars::new);
+        }
+
+        List<Bar> completed = bars.add(tick);
+        if (completed == null) return;
+        for (Bar bar : completed) {
+            publish(bar);
+        }
+    }
+
+    private void publish(Bar bar) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.spec != null && !subscription.spec.getKey().equals(bar.getSpec())) continue;
+            try {
+                subscription.listener.onBar(bar);
+            } catch (Exception e) {
+                System.err.println("❌ Bar listener failed for " + bar.getSecurityId() + " " + bar.getSpec()
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Latest completed bars of a symbol, oldest first.
+     */
+    public List<Bar> getBars(int securityId, BarSpec spec, int limit) {
+        SymbolBars bars = symbols.get(securityId);
+        return bars == null ? Collections.emptyList() : bars.history(spec, limit);
+    }
+
+    public Set<Integer> getSymbols() {
+        return Collections.unmodifiableSet(symbols.keySet());
+    }
+
+    public void clear() {
+        symbols.clear();
+    }
+
+    /**
+     * Offline helper: every completed bar of one spec over a finished tick list (e.g. a backtest file).
+     * An unfinished trailing bar is left out, as it would be live.
+     */
+    public static List<Bar> buildBars(List<Tick> ticks, BarSpec spec) {
+        BarEngine engine = new BarEngine(List.of(spec));
+        List<Bar> bars = new ArrayList<>();
+        engine.subscribe(spec, bars::add);
+        for (Tick tick : ticks) {
+            engine.onTick(tick);
+        }
+        return bars;
+    }
+
+    private final class SymbolBars {
+        private final BarBuilder[] builders;
+        private final Map<String, ArrayDeque<Bar>> histories = new HashMap<>();
+        private long lastVolumeTraded = -1;
+
+        SymbolBars(int securityId) {
+            builders = new BarBuilder[specs.size()];
+            for (int i = 0; i < builders.length; i++) {
+                builders[i] = new BarBuilder(specs.get(i), securityId);
+                histories.put(specs.get(i).getKey(), new ArrayDeque<>());
+            }
+        }
+
+        synchronized List<Bar> add(Tick tick) {
+            long time = tick.getLastTradedTime() > 0 ? tick.getLastTradedTime() : tick.getLastUpdatedTime();
+            if (time <= 0) time = System.currentTimeMillis() / 1000;
+
+            long volumeTraded = tick.getVolumeTraded();
+            long traded = lastVolumeTraded >= 0 && volumeTraded >= lastVolumeTraded
+                    ? volumeTraded - lastVolumeTraded
+                    : tick.getLastTradedQuantity();
+            if (volumeTraded > 0) lastVolumeTraded = volumeTraded;
+
+            List<Bar> completed = null;
+            for (BarBuilder builder : builders) {
+                Bar bar = builder.add(tick, time, traded);
+                if (bar == null) continue;
+                ArrayDeque<Bar> history = histories.get(bar.getSpec());
+                if (history.size() == HISTORY_LIMIT) history.removeFirst();
+                history.addLast(bar);
+                if (completed == null) completed = new ArrayList<>(2);
+                completed.add(bar);
+            }
+            return completed;
+        }
+
+        synchronized List<Bar> history(BarSpec spec, int limit) {
+            ArrayDeque<Bar> history = histories.get(spec.getKey());
+            if (history == null) return Collections.emptyList();
+            List<Bar> all = new ArrayList<>(history);
+            return all.subList(Math.max(0, all.size() - Math.max(0, limit)), all.size());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.dataAnalysis.bars;
+
+@FunctionalInterface
+public interface BarListener {
+    void onBar(Bar bar) throws Exception;
+}
@@ -0,0 +1,42 @@
+package org.example.dataAnalysis.bars;
+
+import lombok.Data;
+
+/**
+ * Bar kind and size; the key (e.g. {@code TIME_60}, {@code VOLUME_10000}, {@code TICK_10}) names it in the API.
+ */
+@Data
+public class BarSpec {
+    private final BarType type;
+    private final long size;
+
+    public static BarSpec time(long seconds) {
+        return new BarSpec(BarType.TIME, seconds);
+    }
+
+    public static BarSpec volume(long quantity) {
+        return new BarSpec(BarType.VOLUME, quantity);
+    }
+
+    public static BarSpec ticks(long count) {
+        return new BarSpec(BarType.TICK, count);
+    }
+
+    public static BarSpec parse(String key) {
+        int separator = key.lastIndexOf('_');
+        if (separator < 0) throw new IllegalArgumentException("Bar spec must look like TIME_60: " + key);
+        BarType type = BarType.valueOf(key.substring(0, separator).toUpperCase());
+        long size = Long.parseLong(key.substring(separator + 1));
+        if (size <= 0) throw new IllegalArgumentException("Bar size must be positive: " + key);
+        return new BarSpec(type, size);
+    }
+
+    public String getKey() {
+        return type + "_" + size;
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+}
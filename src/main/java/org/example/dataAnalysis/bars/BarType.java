@@ -0,0 +1,7 @@
+package org.example.dataAnalysis.bars;
+
+public enum BarType {
+    TIME,   // fixed clock interval, size in seconds of exchange time
+    VOLUME, // closes once the traded quantity reaches size
+    TICK    // closes every size ticks
+}
@@ -0,0 +1,100 @@
+package org.example.dataAnalysis.bars;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams every completed bar as JSON at /bars-stream for dashboard candles.
+ * <p>
+ * Bars close on the tick workers, so the handler only queues them there; one sender thread serializes and
+ * writes them. Each session is wrapped in a {@link ConcurrentWebSocketSessionDecorator}: a browser that falls
+ * behind loses its oldest buffered candles, one stalled past {@link #SEND_TIME_LIMIT_MILLIS} is closed, and a
+ * failed send only drops that session. If the sender itself falls a whole queue behind, bars are counted as
+ * dropped instead of holding up the tick path.
+ */
+public class BarWebSocketHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MILLIS = 5_000;
+    private static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+    private static final int QUEUE_CAPACITY = 4_096;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // session id -> decorated session
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong droppedBars = new AtomicLong();
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "bar-stream-sender");
+                thread.setDaemon(true);
+                return thread;
+            }, (runnable, executor) -> droppedBars.incrementAndGet());
+
+    public BarWebSocketHandler(BarEngine barEngine) {
+        barEngine.subscribe(null, this::broadcast);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS,
+                BUFFER_SIZE_LIMIT, ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        sessions.remove(session.getId());
+    }
+
+    /**
+     * Bars not streamed because the sender queue was full.
+     */
+    public long getDroppedBars() {
+        return droppedBars.get();
+    }
+
+    // Runs on the tick worker that closed the bar; never blocks
+    private void broadcast(Bar bar) {
+        if (sessions.isEmpty()) return;
+        sender.execute(() -> send(bar));
+    }
+
+    private void send(Bar bar) {
+        TextMessage message;
+        try {
+            message = new TextMessage(mapper.writeValueAsString(bar));
+        } catch (IOException e) {
+            System.err.println("❌ Failed to serialize bar " + bar.getSpec() + " for " + bar.getSecurityId() + ": " + e.getMessage());
+            return;
+        }
+        for (WebSocketSession session : sessions.values()) {
+            if (!session.isOpen()) {
+                sessions.remove(session.getId());
+                continue;
+            }
+            try {
+                session.sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                // Includes the decorator's SessionLimitExceededException, after which it has closed the session
+                sessions.remove(session.getId());
+                System.err.println("⚠️ Dropped bar stream session " + session.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,39 +1,62 @@
 package org.example.dataAnalysis.depthStrategy;
 
 import org.example.websocket.model.Tick;
-import weka.classifiers.Classifier;
-import weka.core.SerializationHelper;
 import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.MLUtils;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelPredictor;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelRegistry;
 import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelSelector;
 
 /**
- * StrategyTwo (Simplified) - Performs inference using a single global pre-trained model.
- * Expects already-aggregated ticks. No training, no label finalization.
+ * StrategyTwo (Simplified) - Performs inference with the symbol's own pre-trained model when one exists,
+ * otherwise the global one. Expects already-aggregated ticks. No training, no label finalization.
  */
 public class StrategyTwo {
 
-    private static final String MODEL_PATH = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.model";
     private static final double MIN_CONFIDENCE_THRESHOLD = 0.5;
 
     private final MLUtils mlUtils = new MLUtils(ModelSelector.ModelType.RANDOM_FOREST);
-    private Classifier globalModel;
+    private final ModelRegistry modelRegistry;
+
+    public StrategyTwo() {
+        this(ModelRegistry.getInstance());
+    }
+
+    public StrategyTwo(ModelRegistry modelRegistry) {
+        this.modelRegistry = modelRegistry;
+    }
 
     /**
-     * Evaluates the signal using a shared global model.
+     * Evaluates the signal using the currently published model for the tick's symbol.
      *
      * @param tick Aggregated tick (input to the model)
-     * @return Trading signal (BUY, SELL, HOLD)
-     * @throws Exception if model loading or prediction fails
+     * @return Trading signal (BUY, SELL, HOLD); HOLD while no model has been loaded yet
+     * @throws Exception if prediction fails
      */
     public StrategyOne.Signal evaluateSignal(Tick tick) throws Exception {
-        // Load model once
-        if (globalModel == null) {
-            globalModel = (Classifier) SerializationHelper.read(MODEL_PATH);
+        return evaluateSignal(tick, null);
+    }
+
+    /**
+     * Same, for models trained with rolling features: {@code rolling} is the symbol's
+     * {@link org.example.dataAnalysis.features.RollingFeatures} as of the aggregated tick. Such a model holds
+     * when no rolling snapshot is available; snapshot-only models ignore it.
+     */
+    public StrategyOne.Signal evaluateSignal(Tick tick, double[] rolling) throws Exception {
+        // Never waits on disk: a missing model is loaded in the background and this call holds
+        ModelPredictor model = modelRegistry.predictorFor(tick.getSecurityId());
+        if (model == null) {
+            return StrategyOne.Signal.HOLD;
         }
 
-        // Extract features and predict
-        double[] features = mlUtils.extractFeatures(tick);
-        MLUtils.PredictionResult result = mlUtils.predictWithConfidence(globalModel, features);
+        // Extract features in the layout the model was trained on, and predict
+        double[] features;
+        if (model.numFeatures() == MLUtils.EXTENDED_FEATURE_COUNT) {
+            if (rolling == null) return StrategyOne.Signal.HOLD;
+            features = mlUtils.extractFeatures(tick, rolling);
+        } else {
+            features = mlUtils.extractFeatures(tick);
+        }
+        MLUtils.PredictionResult result = model.predict(features);
 
         if (result.confidence < MIN_CONFIDENCE_THRESHOLD) {
             return StrategyOne.Signal.HOLD;
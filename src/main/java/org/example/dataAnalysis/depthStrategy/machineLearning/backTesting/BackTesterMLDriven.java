@@ -1,16 +1,16 @@
 // Updated BackTesterMLDriven.java with Exit Reasons and Symbol-wise Models
 package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
 
-import org.example.websocket.model.Tick;
+import org.example.config.ModelConfig;
 import weka.classifiers.Classifier;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
-import static org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.BackTesterUtility.*;
-
 public class BackTesterMLDriven {
 
     private static final List<Integer> SYMBOL_IDS = Arrays.asList(
@@ -25,25 +25,27 @@ public class BackTesterMLDriven {
     private static final double MIN_CONFIDENCE_THRESHOLD = 0.6;
     private static final double TARGET_PROFIT_PERCENT = 0.008;
     private static final double STOP_LOSS_PERCENT = 0.004;
+    private static final FeatureDataset.Spec DATASET_SPEC = new FeatureDataset.Spec(
+            AGGREGATION_WINDOW, LOOKAHEAD_TICKS, TARGET_MOVE_THRESHOLD, FeatureDataset.LabelPrice.CLOSE, false);
 
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("Asia/Kolkata"));
 
+    /**
+     * Walk-forward backtest per symbol. With {@link ModelConfig#setExportBacktestModels} (or a
+     * {@code --export-models} argument) each symbol's last model is also published for live per-symbol
+     * inference, with the windows it never trained on as its holdout.
+     */
     public static void main(String[] args) throws Exception {
+        boolean exportModels = ModelConfig.isExportBacktestModels() || Arrays.asList(args).contains("--export-models");
 
         int grandTotalTrades = 0, grandWins = 0, grandLosses = 0;
         double grandTotalPnL = 0;
 
         for (int symbolId : SYMBOL_IDS) {
-            String filePath = BASE_PATH + symbolId + ".json";
-            List<Tick> rawTicks = loadTicks(filePath);
-            List<Tick> compressedTicks = new ArrayList<>();
-
-            for (int i = 0; i <= rawTicks.size() - AGGREGATION_WINDOW; i += AGGREGATION_WINDOW) {
-                compressedTicks.add(aggregateTicks(rawTicks.subList(i, i + AGGREGATION_WINDOW)));
-            }
+            FeatureDataset data = FeatureDatasetCache.load(BASE_PATH, symbolId, DATASET_SPEC);
 
-            if (compressedTicks.size() < INITIAL_TRAINING_SIZE + LOOKAHEAD_TICKS) {
+            if (data.size() < INITIAL_TRAINING_SIZE + LOOKAHEAD_TICKS) {
                 System.out.println("Not enough data for symbol " + symbolId + ". Skipping.");
                 continue;
             }
@@ -51,9 +53,11 @@ public class BackTesterMLDriven {
             MLUtils mlUtils = new MLUtils(ModelSelector.ModelType.RANDOM_FOREST);
             List<double[]> featureList = new ArrayList<>();
             List<String> labelList = new ArrayList<>();
+            // Windows seen since the last retrain, none of which the current model was trained on
+            List<double[]> unseenFeatures = new ArrayList<>();
+            List<String> unseenLabels = new ArrayList<>();
 
             Classifier model = null;
-            Tick entryTick = null;
             double entryPrice = 0;
             long entryTime = 0;
             String position = null;
@@ -62,15 +66,9 @@ public class BackTesterMLDriven {
             int wins = 0, losses = 0, trades = 0;
             double totalPnL = 0;
 
-            for (int i = 0; i < compressedTicks.size() - LOOKAHEAD_TICKS; i++) {
-                Tick tick = compressedTicks.get(i);
-                double[] features = mlUtils.extractFeatures(tick);
-
-                double futurePrice = compressedTicks.get(i + LOOKAHEAD_TICKS).getLastTradedPrice();
-                double currentPrice = tick.getLastTradedPrice();
-                double move = (futurePrice - currentPrice) / currentPrice;
-
-                String label = move > TARGET_MOVE_THRESHOLD ? "BUY" : move < -TARGET_MOVE_THRESHOLD ? "SELL" : "HOLD";
+            for (int i = 0; i < data.labeledSize(); i++) {
+                double[] features = data.getFeatures(i);
+                String label = data.getLabel(i);
                 featureList.add(features);
                 labelList.add(label);
                 if (featureList.size() > 200) {
@@ -83,6 +81,11 @@ public class BackTesterMLDriven {
                 if (model == null || retrainCounter >= RETRAIN_INTERVAL) {
                     model = mlUtils.trainModel(featureList, labelList);
                     retrainCounter = 0;
+                    unseenFeatures.clear();
+                    unseenLabels.clear();
+                } else {
+                    unseenFeatures.add(features);
+                    unseenLabels.add(label);
                 }
                 retrainCounter++;
 
@@ -93,19 +96,17 @@ public class BackTesterMLDriven {
                 if (position == null) {
                     if (prediction.equals("BUY")) {
                         position = "LONG";
-                        entryPrice = tick.getLastTradedPrice();
-                        entryTime = tick.getLastTradedTime();
-                        entryTick = tick;
+                        entryPrice = data.getPrice(i);
+                        entryTime = data.getTime(i);
                     } else if (prediction.equals("SELL")) {
                         position = "SHORT";
-                        entryPrice = tick.getLastTradedPrice();
-                        entryTime = tick.getLastTradedTime();
-                        entryTick = tick;
+                        entryPrice = data.getPrice(i);
+                        entryTime = data.getTime(i);
                     }
                     continue;
                 }
 
-                double exitPrice = tick.getLastTradedPrice();
+                double exitPrice = data.getPrice(i);
                 double priceChange = (exitPrice - entryPrice) / entryPrice;
                 boolean shouldExit = false;
                 String exitReason = "";
@@ -142,9 +143,26 @@ public class BackTesterMLDriven {
 
                     System.out.printf("Trade: %s | Entry: %.2f @ %s | Exit: %.2f @ %s | PnL: %.2f | Reason: %s\n",
                             position, entryPrice, FORMATTER.format(Instant.ofEpochSecond(entryTime)),
-                            exitPrice, FORMATTER.format(Instant.ofEpochSecond(tick.getLastTradedTime())), pnl, exitReason);
+                            exitPrice, FORMATTER.format(Instant.ofEpochSecond(data.getTime(i))), pnl, exitReason);
 
-                    position = null; entryPrice = 0; entryTick = null; entryTime = 0;
+                    position = null; entryPrice = 0; entryTime = 0;
+                }
+            }
+
+            // Publish the symbol's latest walk-forward model for live per-symbol inference, holdout first
+            if (exportModels && model != null) {
+                if (unseenLabels.isEmpty()) {
+                    System.out.println("⚠️ No holdout windows for " + symbolId + ", model not exported");
+                } else {
+                    Path modelPath = ModelRegistry.getInstance().modelPathFor(symbolId);
+                    Files.createDirectories(modelPath.getParent());
+                    ModelHolder.writeHoldout(ModelHolder.holdoutPathFor(modelPath), unseenFeatures, unseenLabels);
+                    ModelHolder.writeModel(modelPath, model);
+                    try {
+                        FlatForestCompiler.export(model, FlatForest.flatPathFor(modelPath));
+                    } catch (Exception e) {
+                        System.err.println("⚠️ Flat export failed for " + symbolId + ": " + e.getMessage());
+                    }
                 }
             }
 
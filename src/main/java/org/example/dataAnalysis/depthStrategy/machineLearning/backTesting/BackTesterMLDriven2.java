@@ -1,6 +1,6 @@
 package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
 
-import org.example.websocket.model.Tick;
+import org.example.config.FeatureConfig;
 import weka.classifiers.Classifier;
 
 import java.time.Instant;
@@ -8,8 +8,6 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
-import static org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.BackTesterUtility.*;
-
 public class BackTesterMLDriven2 {
 
     private static final List<Integer> SYMBOL_IDS = Arrays.asList(
@@ -22,10 +20,12 @@ public class BackTesterMLDriven2 {
     private static final int INITIAL_TRAINING_SIZE = 50;
     private static final int RETRAIN_INTERVAL = 20;
     private static final int LOOKAHEAD_TICKS = 100;
+    private static final int LOOKAHEAD_WINDOWS = LOOKAHEAD_TICKS / AGGREGATION_WINDOW;
     private static final double TARGET_MOVE_THRESHOLD = 0.005;
     private static final double MIN_CONFIDENCE_THRESHOLD = 0.6;
     private static final double TARGET_PROFIT_PERCENT = 0.008;
     private static final double STOP_LOSS_PERCENT = 0.004;
+    private static final int HOLDOUT_EVERY = 20;
 
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("Asia/Kolkata"));
@@ -43,19 +43,25 @@ public class BackTesterMLDriven2 {
         MLUtils mlUtils = new MLUtils(ModelSelector.ModelType.RANDOM_FOREST);
         List<double[]> featureList = new ArrayList<>();
         List<String> labelList = new ArrayList<>();
+        List<double[]> holdoutFeatures = new ArrayList<>();
+        List<String> holdoutLabels = new ArrayList<>();
+        int sampleCount = 0;
 
-        // First: collect data across all symbols
+        // First: collect data across all symbols; only the sampled vectors are kept, not the datasets
+        FeatureDataset.Spec spec = new FeatureDataset.Spec(AGGREGATION_WINDOW, LOOKAHEAD_WINDOWS, TARGET_MOVE_THRESHOLD,
+                FeatureDataset.LabelPrice.OPEN, FeatureConfig.isRollingFeatures());
         for (int symbolId : SYMBOL_IDS) {
-            List<Tick> rawTicks = loadTicks(BASE_PATH + symbolId + ".json");
-            for (int i = 0; i <= rawTicks.size() - AGGREGATION_WINDOW - LOOKAHEAD_TICKS; i += AGGREGATION_WINDOW) {
-                Tick tick = aggregateTicks(rawTicks.subList(i, i + AGGREGATION_WINDOW));
-                Tick futureTick = rawTicks.get(i + LOOKAHEAD_TICKS);
-
-                double[] features = mlUtils.extractFeatures(tick);
-                double move = (futureTick.getLastTradedPrice() - tick.getLastTradedPrice()) / tick.getLastTradedPrice();
-
-                String label = move > TARGET_MOVE_THRESHOLD ? "BUY" : move < -TARGET_MOVE_THRESHOLD ? "SELL" : "HOLD";
-
+            FeatureDataset data = FeatureDatasetCache.load(BASE_PATH, symbolId, spec);
+            for (int i = 0; i < data.labeledSize(); i++) {
+                double[] features = data.getFeatures(i);
+                String label = data.getLabel(i);
+
+                // Every HOLDOUT_EVERY-th sample is kept out of training to validate the live swap
+                if (++sampleCount % HOLDOUT_EVERY == 0) {
+                    holdoutFeatures.add(features);
+                    holdoutLabels.add(label);
+                    continue;
+                }
                 featureList.add(features);
                 labelList.add(label);
             }
@@ -63,11 +69,18 @@ public class BackTesterMLDriven2 {
 
         // Train global model
         Classifier model = mlUtils.trainModel(featureList, labelList);
-        weka.core.SerializationHelper.write(
-                "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.model",
-                model
-        );
+        ModelHolder.writeHoldout(ModelHolder.holdoutPathFor(java.nio.file.Paths.get(
+                "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.model")),
+                holdoutFeatures, holdoutLabels);
+        ModelHolder.writeModel(java.nio.file.Paths.get(
+                "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.model"), model);
         System.out.println("✅ Global model saved to: model_global.model");
+        try {
+            FlatForestCompiler.export(model, java.nio.file.Paths.get(
+                    "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.flat"));
+        } catch (Exception e) {
+            System.err.println("⚠️ Flat forest export failed, live inference stays on Weka: " + e.getMessage());
+        }
 
 
         int grandTotalTrades = 0, grandWins = 0, grandLosses = 0;
@@ -75,14 +88,9 @@ public class BackTesterMLDriven2 {
 
         // Now backtest per symbol
         for (int symbolId : SYMBOL_IDS) {
-            List<Tick> rawTicks = loadTicks(BASE_PATH + symbolId + ".json");
-            List<Tick> compressedTicks = new ArrayList<>();
-
-            for (int i = 0; i <= rawTicks.size() - AGGREGATION_WINDOW; i += AGGREGATION_WINDOW) {
-                compressedTicks.add(aggregateTicks(rawTicks.subList(i, i + AGGREGATION_WINDOW)));
-            }
+            // Reloaded one symbol at a time (a cache read when the dataset cache is on) rather than kept from above
+            FeatureDataset data = FeatureDatasetCache.load(BASE_PATH, symbolId, spec);
 
-            Tick entryTick = null;
             double entryPrice = 0;
             long entryTime = 0;
             String position = null;
@@ -90,9 +98,8 @@ public class BackTesterMLDriven2 {
             int wins = 0, losses = 0, trades = 0;
             double totalPnL = 0;
 
-            for (int i = 0; i < compressedTicks.size() - LOOKAHEAD_TICKS; i++) {
-                Tick tick = compressedTicks.get(i);
-                double[] features = mlUtils.extractFeatures(tick);
+            for (int i = 0; i < data.size() - LOOKAHEAD_TICKS; i++) {
+                double[] features = data.getFeatures(i);
 
                 MLUtils.PredictionResult predictionResult = mlUtils.predictWithConfidence(model, features);
                 if (predictionResult.confidence < MIN_CONFIDENCE_THRESHOLD) continue;
@@ -101,19 +108,17 @@ public class BackTesterMLDriven2 {
                 if (position == null) {
                     if (prediction.equals("BUY")) {
                         position = "LONG";
-                        entryPrice = tick.getLastTradedPrice();
-                        entryTime = tick.getLastTradedTime();
-                        entryTick = tick;
+                        entryPrice = data.getPrice(i);
+                        entryTime = data.getTime(i);
                     } else if (prediction.equals("SELL")) {
                         position = "SHORT";
-                        entryPrice = tick.getLastTradedPrice();
-                        entryTime = tick.getLastTradedTime();
-                        entryTick = tick;
+                        entryPrice = data.getPrice(i);
+                        entryTime = data.getTime(i);
                     }
                     continue;
                 }
 
-                double exitPrice = tick.getLastTradedPrice();
+                double exitPrice = data.getPrice(i);
                 double priceChange = (exitPrice - entryPrice) / entryPrice;
                 boolean shouldExit = false;
                 String exitReason = "";
@@ -150,9 +155,9 @@ public class BackTesterMLDriven2 {
 
                     System.out.printf("Trade: %s | Entry: %.2f @ %s | Exit: %.2f @ %s | PnL: %.2f | Reason: %s\n",
                             position, entryPrice, FORMATTER.format(Instant.ofEpochSecond(entryTime)),
-                            exitPrice, FORMATTER.format(Instant.ofEpochSecond(tick.getLastTradedTime())), pnl, exitReason);
+                            exitPrice, FORMATTER.format(Instant.ofEpochSecond(data.getTime(i))), pnl, exitReason);
 
-                    position = null; entryPrice = 0; entryTick = null; entryTime = 0;
+                    position = null; entryPrice = 0; entryTime = 0;
                 }
             }
 
@@ -1,6 +1,5 @@
 package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
 
-import org.example.websocket.model.Tick;
 import weka.classifiers.Classifier;
 import weka.core.SerializationHelper;
 
@@ -9,8 +8,6 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
-import static org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.BackTesterUtility.*;
-
 public class BackTesterMLDriven3 {
 //1406, 1624, 2475, 3499, 3787, 4668, 4717, 5097, 10666, 10794, 11630, 14977, 18143, 27066
     private static final List<Integer> SYMBOL_IDS = Arrays.asList(
@@ -19,6 +16,8 @@ public class BackTesterMLDriven3 {
     private static final String MODEL_PATH = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.model";
 
     private static final int AGGREGATION_WINDOW = 10;
+    private static final int MIN_WINDOWS = 100;
+    private static final int SCORE_BATCH = 512;
     private static final double MIN_CONFIDENCE_THRESHOLD = 0.6;
     private static final double TARGET_PROFIT_PERCENT = 0.008;
     private static final double STOP_LOSS_PERCENT = 0.004;
@@ -40,23 +39,18 @@ public class BackTesterMLDriven3 {
             return;
         }
 
-        MLUtils mlUtils = new MLUtils(ModelSelector.ModelType.RANDOM_FOREST);
+        ModelScorer scorer = new ModelScorer(model);
 
         for (int symbolId : SYMBOL_IDS) {
-            String filePath = BASE_PATH + symbolId + ".json";
 
-            List<Tick> rawTicks = loadTicks(filePath);
-            List<Tick> compressedTicks = new ArrayList<>();
-            for (int i = 0; i <= rawTicks.size() - AGGREGATION_WINDOW; i += AGGREGATION_WINDOW) {
-                compressedTicks.add(aggregateTicks(rawTicks.subList(i, i + AGGREGATION_WINDOW)));
-            }
+            FeatureDataset data = FeatureDatasetCache.load(BASE_PATH, symbolId, FeatureDataset.Spec.unlabeled(
+                    AGGREGATION_WINDOW, scorer.numFeatures() == MLUtils.EXTENDED_FEATURE_COUNT));
 
-            if (compressedTicks.size() < 100) {
+            if (data.size() < MIN_WINDOWS) {
                 System.out.println("Not enough compressed data for symbol " + symbolId + ". Skipping.");
                 continue;
             }
 
-            Tick entryTick = null;
             double entryPrice = 0;
             long entryTime = 0;
             String position = null;
@@ -64,69 +58,75 @@ public class BackTesterMLDriven3 {
             int trades = 0, wins = 0, losses = 0;
             double totalPnL = 0;
 
-            for (Tick tick : compressedTicks) {
-                double[] features = mlUtils.extractFeatures(tick);
-                MLUtils.PredictionResult result = mlUtils.predictWithConfidence(model, features);
-
-                if (result.confidence < MIN_CONFIDENCE_THRESHOLD) continue;
-
-                String prediction = result.label;
-
-                if (position == null) {
-                    if (prediction.equals("BUY")) {
-                        position = "LONG";
-                        entryPrice = tick.getLastTradedPrice();
-                        entryTime = tick.getLastTradedTime();
-                        entryTick = tick;
-                    } else if (prediction.equals("SELL")) {
-                        position = "SHORT";
-                        entryPrice = tick.getLastTradedPrice();
-                        entryTime = tick.getLastTradedTime();
-                        entryTick = tick;
+            // ✅ Score the symbol's windows a bounded batch at a time
+            double[][] features = new double[SCORE_BATCH][];
+            double[][] distributions = new double[SCORE_BATCH][scorer.numClasses()];
+            int[] best = new int[SCORE_BATCH];
+            for (int offset = 0; offset < data.size(); offset += SCORE_BATCH) {
+                int count = Math.min(SCORE_BATCH, data.size() - offset);
+                System.arraycopy(data.getFeatures(), offset, features, 0, count);
+                scorer.scoreBatch(features, count, distributions, best);
+
+                for (int b = 0; b < count; b++) {
+                    int i = offset + b;
+                    if (distributions[b][best[b]] < MIN_CONFIDENCE_THRESHOLD) continue;
+
+                    String prediction = scorer.label(best[b]);
+
+                    if (position == null) {
+                        if (prediction.equals("BUY")) {
+                            position = "LONG";
+                            entryPrice = data.getPrice(i);
+                            entryTime = data.getTime(i);
+                        } else if (prediction.equals("SELL")) {
+                            position = "SHORT";
+                            entryPrice = data.getPrice(i);
+                            entryTime = data.getTime(i);
+                        }
+                        continue;
                     }
-                    continue;
-                }
 
-                double exitPrice = tick.getLastTradedPrice();
-                double priceChange = (exitPrice - entryPrice) / entryPrice;
-                boolean shouldExit = false;
-                String exitReason = "";
-
-                if (position.equals("LONG")) {
-                    if (priceChange >= TARGET_PROFIT_PERCENT) {
-                        shouldExit = true;
-                        exitReason = "Target Achieved";
-                    } else if (priceChange <= -STOP_LOSS_PERCENT) {
-                        shouldExit = true;
-                        exitReason = "Stop Loss Triggered";
-                    } else if (prediction.equals("SELL")) {
-                        shouldExit = true;
-                        exitReason = "Opposite Signal Triggered";
+                    double exitPrice = data.getPrice(i);
+                    double priceChange = (exitPrice - entryPrice) / entryPrice;
+                    boolean shouldExit = false;
+                    String exitReason = "";
+
+                    if (position.equals("LONG")) {
+                        if (priceChange >= TARGET_PROFIT_PERCENT) {
+                            shouldExit = true;
+                            exitReason = "Target Achieved";
+                        } else if (priceChange <= -STOP_LOSS_PERCENT) {
+                            shouldExit = true;
+                            exitReason = "Stop Loss Triggered";
+                        } else if (prediction.equals("SELL")) {
+                            shouldExit = true;
+                            exitReason = "Opposite Signal Triggered";
+                        }
+                    } else if (position.equals("SHORT")) {
+                        if (-priceChange >= TARGET_PROFIT_PERCENT) {
+                            shouldExit = true;
+                            exitReason = "Target Achieved";
+                        } else if (-priceChange <= -STOP_LOSS_PERCENT) {
+                            shouldExit = true;
+                            exitReason = "Stop Loss Triggered";
+                        } else if (prediction.equals("BUY")) {
+                            shouldExit = true;
+                            exitReason = "Opposite Signal Triggered";
+                        }
                     }
-                } else if (position.equals("SHORT")) {
-                    if (-priceChange >= TARGET_PROFIT_PERCENT) {
-                        shouldExit = true;
-                        exitReason = "Target Achieved";
-                    } else if (-priceChange <= -STOP_LOSS_PERCENT) {
-                        shouldExit = true;
-                        exitReason = "Stop Loss Triggered";
-                    } else if (prediction.equals("BUY")) {
-                        shouldExit = true;
-                        exitReason = "Opposite Signal Triggered";
-                    }
-                }
 
-                if (shouldExit) {
-                    double pnl = (position.equals("LONG") ? (exitPrice - entryPrice) : (entryPrice - exitPrice)) * 100;
-                    trades++;
-                    if (pnl > 0) wins++; else losses++;
-                    totalPnL += pnl;
+                    if (shouldExit) {
+                        double pnl = (position.equals("LONG") ? (exitPrice - entryPrice) : (entryPrice - exitPrice)) * 100;
+                        trades++;
+                        if (pnl > 0) wins++; else losses++;
+                        totalPnL += pnl;
 
-                    System.out.printf("Trade: %s | Entry: %.2f @ %s | Exit: %.2f @ %s | PnL: %.2f | Reason: %s\n",
-                            position, entryPrice, FORMATTER.format(Instant.ofEpochSecond(entryTime)),
-                            exitPrice, FORMATTER.format(Instant.ofEpochSecond(tick.getLastTradedTime())), pnl, exitReason);
+                        System.out.printf("Trade: %s | Entry: %.2f @ %s | Exit: %.2f @ %s | PnL: %.2f | Reason: %s\n",
+                                position, entryPrice, FORMATTER.format(Instant.ofEpochSecond(entryTime)),
+                                exitPrice, FORMATTER.format(Instant.ofEpochSecond(data.getTime(i))), pnl, exitReason);
 
-                    position = null; entryPrice = 0; entryTick = null; entryTime = 0;
+                        position = null; entryPrice = 0; entryTime = 0;
+                    }
                 }
             }
 
@@ -1,88 +1,70 @@
 package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.example.websocket.model.DepthPacket;
+import org.example.dataAnalysis.TickWindowAggregator;
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.dataAnalysis.tickStore.TickStore;
+import org.example.websocket.model.DepthBook;
 import org.example.websocket.model.Tick;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class BackTesterUtility {
 
     public static List<Tick> loadTicks(String filePath) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        List<Tick> ticks = new ArrayList<>();
-        Files.lines(Paths.get(filePath)).forEach(line -> {
-            try {
-                ticks.add(mapper.readValue(line, Tick.class));
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
-        return ticks;
+        try (TickSource source = TickSource.ofJsonLines(Paths.get(filePath))) {
+            List<Tick> ticks = new ArrayList<>();
+            source.forEachRemaining(ticks::add);
+            return ticks;
+        }
     }
 
-    public static Tick aggregateTicks(List<Tick> ticks) {
-        return Tick.builder()
-                .lastTradedTime(ticks.get(ticks.size() - 1).getLastTradedTime())
-                .securityId(ticks.get(0).getSecurityId())
-                .lastTradedPrice(ticks.get(ticks.size() - 1).getLastTradedPrice())
-                .lastTradedQuantity(ticks.stream().mapToInt(Tick::getLastTradedQuantity).sum())
-                .averageTradedPrice((float) ticks.stream().mapToDouble(t -> t.getAverageTradedPrice() * t.getLastTradedQuantity()).sum()
-                        / ticks.stream().mapToInt(Tick::getLastTradedQuantity).sum())
-                .volumeTraded(ticks.stream().mapToLong(Tick::getVolumeTraded).max().orElse(0))
-                .totalBuyQuantity(ticks.stream().mapToInt(Tick::getTotalBuyQuantity).max().orElse(0))
-                .totalSellQuantity(ticks.stream().mapToInt(Tick::getTotalSellQuantity).max().orElse(0))
-                .open(ticks.get(0).getOpen())
-                .close(ticks.get(ticks.size() - 1).getClose())
-                .high((float) ticks.stream().mapToDouble(Tick::getHigh).max().orElse(0))
-                .low((float) ticks.stream().mapToDouble(Tick::getLow).min().orElse(Float.MAX_VALUE))
-                .changePercent(ticks.get(ticks.size() - 1).getChangePercent())
-                .changeAbsolute(ticks.get(ticks.size() - 1).getChangeAbsolute())
-                .fiftyTwoWeekHigh(ticks.get(ticks.size() - 1).getFiftyTwoWeekHigh())
-                .fiftyTwoWeekLow(ticks.get(ticks.size() - 1).getFiftyTwoWeekLow())
-                .oi(ticks.get(ticks.size() - 1).getOi())
-                .oiChange(ticks.get(ticks.size() - 1).getOiChange())
-                .mbpRowPacket(aggregateDepthPackets(ticks))
-                .build();
+    /**
+     * A symbol's ticks from the {@link TickStore} beside {@code basePath} when it holds the symbol, otherwise
+     * parsed from the JSON dump at {@code basePath + symbolId + ".json"}. The store keeps the dump's order
+     * but leaves out never-traded rows (lastTradedTime 0), which the JSON path returns. Backtests that only
+     * walk the ticks once should stream them with {@link TickSource#open} or {@link TickWindowSource} instead.
+     */
+    public static List<Tick> loadTicks(String basePath, int symbolId) throws IOException {
+        TickStore store = TickStore.beside(basePath);
+        if (store.hasSymbol(symbolId)) return store.loadTicks(symbolId);
+        return loadTicks(basePath + symbolId + ".json");
     }
 
-    private static List<DepthPacket> aggregateDepthPackets(List<Tick> ticks) {
-        Map<Integer, List<DepthPacket>> groupedByPacketNo = new HashMap<>();
-
+    /**
+     * Same aggregate the live bar engine produces incrementally; see {@link TickWindowAggregator}.
+     */
+    public static Tick aggregateTicks(List<Tick> ticks) {
+        TickWindowAggregator aggregator = new TickWindowAggregator();
         for (Tick tick : ticks) {
-            for (DepthPacket dp : tick.getMbpRowPacket()) {
-                groupedByPacketNo.computeIfAbsent(dp.getPacketNo(), k -> new ArrayList<>()).add(dp);
-            }
+            aggregator.add(tick);
         }
+        return aggregator.close();
+    }
 
-        return groupedByPacketNo.entrySet().stream().map(entry -> {
-            List<DepthPacket> packets = entry.getValue();
-            return DepthPacket.builder()
-                    .packetNo(entry.getKey())
-                    .buyQuantity(packets.stream().mapToInt(DepthPacket::getBuyQuantity).sum())
-                    .sellQuantity(packets.stream().mapToInt(DepthPacket::getSellQuantity).sum())
-                    .buyOrder((short) packets.stream().mapToInt(DepthPacket::getBuyOrder).max().orElse(0))
-                    .sellOrder((short) packets.stream().mapToInt(DepthPacket::getSellOrder).max().orElse(0))
-                    .buyPrice((float) packets.stream().mapToDouble(DepthPacket::getBuyPrice).average().orElse(0))
-                    .sellPrice((float) packets.stream().mapToDouble(DepthPacket::getSellPrice).average().orElse(0))
-                    .build();
-        }).sorted(Comparator.comparingInt(DepthPacket::getPacketNo)).collect(Collectors.toList());
+    /**
+     * Aggregates consecutive, non-overlapping windows of {@code windowSize} ticks, dropping an incomplete
+     * tail. These are the live strategy's tick bars, built by the same {@link BarEngine}.
+     */
+    public static List<Tick> aggregateWindows(List<Tick> ticks, int windowSize) {
+        List<Bar> bars = BarEngine.buildBars(ticks, BarSpec.ticks(windowSize));
+        List<Tick> aggregated = new ArrayList<>(bars.size());
+        for (Bar bar : bars) {
+            aggregated.add(bar.getAggregate());
+        }
+        return aggregated;
     }
 
     public static double calculateOBImbalance(Tick tick) {
-        double bidVolume = 0, askVolume = 0;
-        for (DepthPacket dp : tick.getMbpRowPacket()) {
-            bidVolume += dp.getBuyQuantity();
-            askVolume += dp.getSellQuantity();
-        }
+        DepthBook book = tick.getDepthBook();
+        double bidVolume = book.getTotalBidQuantity(), askVolume = book.getTotalAskQuantity();
         return (bidVolume - askVolume) / (bidVolume + askVolume + 1e-6); // to avoid divide by zero
     }
 
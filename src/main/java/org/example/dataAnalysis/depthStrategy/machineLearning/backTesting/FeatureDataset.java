@@ -0,0 +1,329 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import org.example.dataAnalysis.TickWindowAggregator;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.features.RollingFeatureEngine;
+import org.example.dataAnalysis.features.RollingFeatures;
+import org.example.websocket.model.Tick;
+import weka.core.Instances;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One symbol's backtest inputs, window by window: the aggregated tick's lastTradedTime and lastTradedPrice
+ * (all the trade simulation reads), its feature vector and, for a labeled {@link Spec}, the BUY/SELL/HOLD
+ * label from the price {@code lookahead} windows later. Windows too close to the end for a label have none.
+ * <p>
+ * Saved by {@link FeatureDatasetCache} as (little-endian):
+ * <pre>
+ *   header : int magic, int version, int featureVersion ({@link #FEATURE_VERSION}), 32-byte source SHA-256,
+ *            int securityId, int windowSize, int lookahead, double threshold, int labelPrice,
+ *            int rollingFeatures, int count, int featureCount
+ *   columns: long times[count], float prices[count], byte labels[count], double features[count * featureCount]
+ * </pre>
+ */
+public class FeatureDataset {
+
+    public static final int MAGIC = 0x53445446; // "FTDS"
+    public static final int VERSION = 1;
+
+    // Classes whose code shapes a dataset: windowing, bar cutting, aggregation, feature extraction and labeling
+    private static final List<Class<?>> FEATURE_CODE = featureCode();
+
+    // Fingerprint of the code that turns ticks into vectors and labels, so no cached dataset outlives it
+    public static final int FEATURE_VERSION = featureVersion();
+    public static final int HASH_BYTES = 32;
+
+    public static final byte UNLABELED = -1;
+    private static final String[] LABELS = {"BUY", "SELL", "HOLD"};
+    private static final byte BUY = 0, SELL = 1, HOLD = 2;
+
+    public enum LabelPrice {
+        OPEN,  // first tick of the later window, i.e. lookahead * windowSize raw ticks after this window's first
+        CLOSE  // last tick of the later window, its aggregated lastTradedPrice
+    }
+
+    /**
+     * What a dataset was built with; a cached dataset is only reused for the same spec.
+     */
+    public static class Spec {
+        private final int windowSize;
+        private final int lookahead;
+        private final double threshold;
+        private final LabelPrice labelPrice;
+        private final boolean rollingFeatures;
+
+        public Spec(int windowSize, int lookahead, double threshold, LabelPrice labelPrice, boolean rollingFeatures) {
+            if (windowSize < 1) throw new IllegalArgumentException("windowSize must be >= 1");
+            if (lookahead < 0) throw new IllegalArgumentException("lookahead must be >= 0");
+            this.windowSize = windowSize;
+            this.lookahead = lookahead;
+            this.threshold = threshold;
+            this.labelPrice = labelPrice;
+            this.rollingFeatures = rollingFeatures;
+        }
+
+        /**
+         * Features only, e.g. to score windows with an already trained model.
+         */
+        public static Spec unlabeled(int windowSize, boolean rollingFeatures) {
+            return new Spec(windowSize, 0, 0, LabelPrice.CLOSE, rollingFeatures);
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public int getLookahead() {
+            return lookahead;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public LabelPrice getLabelPrice() {
+            return labelPrice;
+        }
+
+        public boolean isRollingFeatures() {
+            return rollingFeatures;
+        }
+
+        public boolean isLabeled() {
+            return lookahead > 0;
+        }
+
+        /**
+         * Readable file name part, e.g. {@code w10_l100_t0.005_close_base}.
+         */
+        String key() {
+            String key = "w" + windowSize + "_" + (isLabeled()
+                    ? "l" + lookahead + "_t" + threshold + "_" + labelPrice.name().toLowerCase()
+                    : "unlabeled");
+            return key + (rollingFeatures ? "_rolling" : "_base");
+        }
+    }
+
+    private final int securityId;
+    private final Spec spec;
+    private final long[] times;
+    private final float[] prices;
+    private final byte[] labels;
+    private final double[][] features;
+
+    private FeatureDataset(int securityId, Spec spec, long[] times, float[] prices, byte[] labels, double[][] features) {
+        this.securityId = securityId;
+        this.spec = spec;
+        this.times = times;
+        this.prices = prices;
+        this.labels = labels;
+        this.features = features;
+    }
+
+    /**
+     * Aggregates and extracts features from a symbol's ticks in one streaming pass; the source is closed.
+     */
+    public static FeatureDataset build(TickSource ticks, int securityId, Spec spec) throws IOException {
+        MLUtils mlUtils = new MLUtils(ModelSelector.ModelType.RANDOM_FOREST);
+        int count = 0;
+        long[] times = new long[1024];
+        float[] prices = new float[1024];
+        float[] opens = new float[1024];
+        double[][] features = new double[1024][];
+        try (TickWindowSource windows = new TickWindowSource(ticks, spec.windowSize, spec.rollingFeatures, 0)) {
+            while (windows.advance()) {
+                if (count == times.length) {
+                    times = Arrays.copyOf(times, count * 2);
+                    prices = Arrays.copyOf(prices, count * 2);
+                    opens = Arrays.copyOf(opens, count * 2);
+                    features = Arrays.copyOf(features, count * 2);
+                }
+                Tick tick = windows.current();
+                times[count] = tick.getLastTradedTime();
+                prices[count] = tick.getLastTradedPrice();
+                opens[count] = windows.currentBar().getOpen();
+                features[count] = spec.rollingFeatures
+                        ? mlUtils.extractFeatures(tick, windows.currentRolling())
+                        : mlUtils.extractFeatures(tick);
+                count++;
+            }
+        }
+
+        byte[] labels = new byte[count];
+        Arrays.fill(labels, UNLABELED);
+        float[] future = spec.labelPrice == LabelPrice.OPEN ? opens : prices;
+        for (int i = 0; spec.isLabeled() && i + spec.lookahead < count; i++) {
+            double move = ((double) future[i + spec.lookahead] - prices[i]) / prices[i];
+            labels[i] = move > spec.threshold ? BUY : move < -spec.threshold ? SELL : HOLD;
+        }
+        return new FeatureDataset(securityId, spec, Arrays.copyOf(times, count), Arrays.copyOf(prices, count),
+                labels, Arrays.copyOf(features, count));
+    }
+
+    public int getSecurityId() {
+        return securityId;
+    }
+
+    public Spec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Number of windows.
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * Windows that have a label: all but the last {@code lookahead}.
+     */
+    public int labeledSize() {
+        return spec.isLabeled() ? Math.max(0, size() - spec.lookahead) : 0;
+    }
+
+    public long getTime(int window) {
+        return times[window];
+    }
+
+    public float getPrice(int window) {
+        return prices[window];
+    }
+
+    /**
+     * The window's feature vector; shared, not copied.
+     */
+    public double[] getFeatures(int window) {
+        return features[window];
+    }
+
+    public double[][] getFeatures() {
+        return features;
+    }
+
+    /**
+     * @return "BUY", "SELL", "HOLD", or null for a window without a label
+     */
+    public String getLabel(int window) {
+        byte label = labels[window];
+        return label == UNLABELED ? null : LABELS[label];
+    }
+
+    int featureCount() {
+        return features.length == 0 ? 0 : features[0].length;
+    }
+
+    void write(Path path, byte[] sourceHash) throws IOException {
+        int count = size(), featureCount = featureCount();
+        long size = headerSize() + (long) count * (Long.BYTES + Float.BYTES + 1 + (long) featureCount * Double.BYTES);
+        if (size > Integer.MAX_VALUE) throw new IOException("Dataset of " + count + " windows is too large to cache");
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(FEATURE_VERSION).put(sourceHash)
+                .putInt(securityId).putInt(spec.windowSize).putInt(spec.lookahead).putDouble(spec.threshold)
+                .putInt(spec.labelPrice.ordinal()).putInt(spec.rollingFeatures ? 1 : 0)
+                .putInt(count).putInt(featureCount);
+        for (long time : times) buffer.putLong(time);
+        for (float price : prices) buffer.putFloat(price);
+        buffer.put(labels);
+        for (double[] row : features) {
+            for (double value : row) buffer.putDouble(value);
+        }
+
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the saved dataset, or null if the file is of another format, feature version, source or spec
+     */
+    static FeatureDataset read(Path path, byte[] sourceHash, int securityId, Spec spec) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < headerSize()) return null;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != FEATURE_VERSION) return null;
+        byte[] hash = new byte[HASH_BYTES];
+        buffer.get(hash);
+        if (!Arrays.equals(hash, sourceHash) || buffer.getInt() != securityId) return null;
+        int windowSize = buffer.getInt(), lookahead = buffer.getInt();
+        double threshold = buffer.getDouble();
+        int labelPrice = buffer.getInt();
+        boolean rollingFeatures = buffer.getInt() != 0;
+        if (windowSize != spec.windowSize || lookahead != spec.lookahead || Double.compare(threshold, spec.threshold) != 0
+                || labelPrice != spec.labelPrice.ordinal() || rollingFeatures != spec.rollingFeatures) {
+            return null;
+        }
+
+        int count = buffer.getInt(), featureCount = buffer.getInt();
+        long expected = headerSize() + (long) count * (Long.BYTES + Float.BYTES + 1 + (long) featureCount * Double.BYTES);
+        if (buffer.capacity() != expected) return null;
+
+        long[] times = new long[count];
+        buffer.asLongBuffer().get(times);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        float[] prices = new float[count];
+        buffer.asFloatBuffer().get(prices);
+        buffer.position(buffer.position() + count * Float.BYTES);
+        byte[] labels = new byte[count];
+        buffer.get(labels);
+        double[][] features = new double[count][featureCount];
+        DoubleBuffer values = buffer.asDoubleBuffer();
+        for (double[] row : features) values.get(row);
+        return new FeatureDataset(securityId, spec, times, prices, labels, features);
+    }
+
+    private static List<Class<?>> featureCode() {
+        List<Class<?>> classes = new ArrayList<>(List.of(FeatureDataset.class, MLUtils.class, TickWindowSource.class,
+                TickWindowAggregator.class, RollingFeatureEngine.class, RollingFeatures.class));
+        classes.addAll(BarEngine.getBarCode());
+        return classes;
+    }
+
+    /**
+     * First four bytes of a SHA-256 over the feature names and the bytecode of {@link #FEATURE_CODE}, so any
+     * change to them, constants included, invalidates the cache without anyone remembering to bump a number.
+     * Where a class file cannot be read the names and counts still cover a change of layout.
+     */
+    private static int featureVersion() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        Instances header = MLUtils.EXTENDED_HEADER;
+        for (int i = 0; i < header.numAttributes(); i++) {
+            digest.update(header.attribute(i).name().getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update(ByteBuffer.allocate(3 * Integer.BYTES).putInt(MLUtils.BASE_FEATURE_COUNT)
+                .putInt(MLUtils.EXTENDED_FEATURE_COUNT).putInt(RollingFeatures.COUNT).array());
+        for (Class<?> type : FEATURE_CODE) {
+            String name = type.getName();
+            try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+                if (in != null) digest.update(in.readAllBytes());
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not read " + type.getName() + " for the feature version: " + e.getMessage());
+            }
+        }
+        return ByteBuffer.wrap(digest.digest()).getInt();
+    }
+
+    private static int headerSize() {
+        return 3 * Integer.BYTES + HASH_BYTES + 4 * Integer.BYTES + Double.BYTES + 4 * Integer.BYTES;
+    }
+}
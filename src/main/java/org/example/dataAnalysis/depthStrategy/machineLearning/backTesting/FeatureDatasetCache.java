@@ -0,0 +1,90 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import org.example.config.FeatureConfig;
+import org.example.dataAnalysis.tickStore.TickStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link FeatureDataset}s saved beside the tick data they came from, in a {@code featureCache} directory
+ * next to the JSON dumps, as {@code <securityId>_<spec key>.features}. A saved dataset is reused while the
+ * SHA-256 of the symbol's tick files (its tick store segments, or else its JSON dump) and the spec are
+ * unchanged, so a repeat run hashes the ticks instead of parsing, aggregating and featurising them.
+ * Disabled with {@link FeatureConfig#setDatasetCache}.
+ */
+public class FeatureDatasetCache {
+
+    public static final String DIRECTORY_NAME = "featureCache";
+    public static final String FILE_SUFFIX = ".features";
+
+    private FeatureDatasetCache() {
+    }
+
+    /**
+     * The symbol's dataset for {@code spec}, from the cache when current, otherwise built from
+     * {@link TickSource#open} and saved.
+     */
+    public static FeatureDataset load(String basePath, int symbolId, FeatureDataset.Spec spec) throws IOException {
+        if (!FeatureConfig.isDatasetCache()) return FeatureDataset.build(TickSource.open(basePath, symbolId), symbolId, spec);
+
+        byte[] sourceHash = hash(sourceFiles(basePath, symbolId));
+        Path path = pathFor(basePath, symbolId, spec);
+        if (Files.exists(path)) {
+            try {
+                FeatureDataset cached = FeatureDataset.read(path, sourceHash, symbolId, spec);
+                if (cached != null) return cached;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️ Unreadable feature cache " + path + ", rebuilding: " + e.getMessage());
+            }
+        }
+
+        FeatureDataset dataset = FeatureDataset.build(TickSource.open(basePath, symbolId), symbolId, spec);
+        try {
+            dataset.write(path, sourceHash);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not save feature cache " + path + ": " + e.getMessage());
+        }
+        return dataset;
+    }
+
+    public static Path pathFor(String basePath, int symbolId, FeatureDataset.Spec spec) {
+        Path parent = Paths.get(basePath).toAbsolutePath().getParent();
+        return parent.resolve(DIRECTORY_NAME).resolve(symbolId + "_" + spec.key() + FILE_SUFFIX);
+    }
+
+    // The files TickSource.open reads for the symbol, in reading order
+    private static List<Path> sourceFiles(String basePath, int symbolId) throws IOException {
+        TickStore store = TickStore.beside(basePath);
+        if (store.hasSymbol(symbolId)) return store.getSegments(symbolId);
+        List<Path> files = new ArrayList<>();
+        files.add(Paths.get(basePath + symbolId + ".json"));
+        return files;
+    }
+
+    private static byte[] hash(List<Path> files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[1024 * 1024];
+        for (Path file : files) {
+            digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = Files.newInputStream(file)) {
+                int n;
+                while ((n = in.read(buffer)) > 0) digest.update(buffer, 0, n);
+            }
+        }
+        return digest.digest();
+    }
+}
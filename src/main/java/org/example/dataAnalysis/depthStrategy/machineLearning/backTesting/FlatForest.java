@@ -0,0 +1,244 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A random forest flattened into parallel primitive arrays, built by {@link FlatForestCompiler} from a trained
+ * Weka RandomForest and scoring the same distributions. Nodes of a tree are laid out breadth-first with both
+ * children of a split next to each other, so a step down the tree is one compare and an add:
+ * {@code node = child[node] + (value < threshold[node] ? 0 : 1)}.
+ * <p>
+ * For a leaf, {@code feature} is -1 and {@code child} is the offset of its class distribution in
+ * {@code leafValues}. A leaf that saw no training data stores {@code -1 - offset} of the distribution Weka falls
+ * back to (its parent's). Missing (NaN) values take Weka's slow path, mixing both branches by {@code prop}.
+ * <p>
+ * File layout (little-endian):
+ * <pre>
+ *   header : int magic, short version, short numClasses, int numFeatures, int numTrees, int numNodes, int numLeafValues
+ *   labels : numClasses x (short length, UTF-8 bytes)
+ *   arrays : int roots[numTrees], int feature[numNodes], int child[numNodes],
+ *            double threshold[numNodes], double prop[2 * numNodes], double leafValues[numLeafValues]
+ * </pre>
+ */
+public final class FlatForest implements ModelPredictor {
+
+    public static final int MAGIC = 0x46524B54; // "TKRF"
+    public static final short VERSION = 1;
+    public static final String FILE_SUFFIX = ".flat";
+
+    private final String[] labels;
+    private final int numFeatures;
+    private final int[] roots;
+    private final int[] feature;
+    private final int[] child;
+    private final double[] threshold;
+    private final double[] prop;
+    private final double[] leafValues;
+
+    FlatForest(String[] labels, int numFeatures, int[] roots, int[] feature, int[] child,
+               double[] threshold, double[] prop, double[] leafValues) {
+        this.labels = labels;
+        this.numFeatures = numFeatures;
+        this.roots = roots;
+        this.feature = feature;
+        this.child = child;
+        this.threshold = threshold;
+        this.prop = prop;
+        this.leafValues = leafValues;
+    }
+
+    @Override
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    @Override
+    public int numClasses() {
+        return labels.length;
+    }
+
+    @Override
+    public String label(int classIndex) {
+        return labels[classIndex];
+    }
+
+    public int numTrees() {
+        return roots.length;
+    }
+
+    public int numNodes() {
+        return feature.length;
+    }
+
+    /**
+     * Heap held by the arrays, for cache accounting.
+     */
+    public long sizeBytes() {
+        return 4L * (roots.length + feature.length + child.length)
+                + 8L * (threshold.length + prop.length + leafValues.length);
+    }
+
+    int featureAt(int node) {
+        return feature[node];
+    }
+
+    double thresholdAt(int node) {
+        return threshold[node];
+    }
+
+    @Override
+    public int score(double[] features, double[] distribution) {
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + features.length);
+        }
+        int classes = labels.length;
+        Arrays.fill(distribution, 0, classes, 0);
+
+        for (int root : roots) {
+            int node = root;
+            int f;
+            boolean missing = false;
+            while ((f = feature[node]) >= 0) {
+                double value = features[f];
+                if (value != value) {
+                    missing = true;
+                    break;
+                }
+                node = child[node] + (value < threshold[node] ? 0 : 1);
+            }
+            if (missing) {
+                double[] treeDistribution = mixMissing(node, features);
+                for (int c = 0; c < classes; c++) distribution[c] += treeDistribution[c];
+            } else {
+                int offset = child[node];
+                if (offset < 0) offset = -1 - offset;
+                for (int c = 0; c < classes; c++) distribution[c] += leafValues[offset + c];
+            }
+        }
+
+        // Bagging's averaging: normalize unless everything is zero
+        double sum = 0;
+        for (int c = 0; c < classes; c++) sum += distribution[c];
+        if (!(sum - 0 < 1e-6 && 0 - sum < 1e-6)) {
+            for (int c = 0; c < classes; c++) distribution[c] /= sum;
+        }
+
+        int best = 0;
+        for (int c = 1; c < classes; c++) {
+            if (distribution[c] > distribution[best]) best = c;
+        }
+        return best;
+    }
+
+    /**
+     * Weka's evaluation from {@code node} down, returning null for a leaf without training data.
+     */
+    private double[] evaluate(int node, double[] features) {
+        int f = feature[node];
+        if (f < 0) {
+            int offset = child[node];
+            return offset < 0 ? null : Arrays.copyOfRange(leafValues, offset, offset + labels.length);
+        }
+        double value = features[f];
+        if (value != value) return mixMissing(node, features);
+        int next = child[node] + (value < threshold[node] ? 0 : 1);
+        double[] result = evaluate(next, features);
+        if (result != null) return result;
+        int offset = -1 - child[next];
+        return Arrays.copyOfRange(leafValues, offset, offset + labels.length);
+    }
+
+    private double[] mixMissing(int node, double[] features) {
+        double[] result = new double[labels.length];
+        for (int side = 0; side < 2; side++) {
+            double[] branch = evaluate(child[node] + side, features);
+            if (branch == null) continue;
+            double weight = prop[2 * node + side];
+            for (int c = 0; c < result.length; c++) result[c] += weight * branch[c];
+        }
+        return result;
+    }
+
+    public void save(Path path) throws IOException {
+        byte[][] labelBytes = new byte[labels.length][];
+        int size = 24;
+        for (int i = 0; i < labels.length; i++) {
+            labelBytes[i] = labels[i].getBytes(StandardCharsets.UTF_8);
+            size += Short.BYTES + labelBytes[i].length;
+        }
+        size += Integer.BYTES * (roots.length + 2 * feature.length)
+                + Double.BYTES * (threshold.length + prop.length + leafValues.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) labels.length)
+                .putInt(numFeatures).putInt(roots.length).putInt(feature.length).putInt(leafValues.length);
+        for (byte[] label : labelBytes) {
+            buffer.putShort((short) label.length).put(label);
+        }
+        buffer.asIntBuffer().put(roots).put(feature).put(child);
+        buffer.position(buffer.position() + Integer.BYTES * (roots.length + 2 * feature.length));
+        buffer.asDoubleBuffer().put(threshold).put(prop).put(leafValues);
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the file and bulk-copies the arrays out; a 100-tree forest loads in a few milliseconds.
+     */
+    public static FlatForest load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a flat forest file: " + path);
+            short version = buffer.getShort();
+            if (version != VERSION) throw new IOException("Unsupported flat forest version " + version + ": " + path);
+            int numClasses = buffer.getShort();
+            int numFeatures = buffer.getInt();
+            int numTrees = buffer.getInt();
+            int numNodes = buffer.getInt();
+            int numLeafValues = buffer.getInt();
+
+            String[] labels = new String[numClasses];
+            for (int i = 0; i < numClasses; i++) {
+                byte[] bytes = new byte[buffer.getShort()];
+                buffer.get(bytes);
+                labels[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int[] roots = new int[numTrees];
+            int[] feature = new int[numNodes];
+            int[] child = new int[numNodes];
+            buffer.asIntBuffer().get(roots).get(feature).get(child);
+            buffer.position(buffer.position() + Integer.BYTES * (numTrees + 2 * numNodes));
+
+            double[] threshold = new double[numNodes];
+            double[] prop = new double[2 * numNodes];
+            double[] leafValues = new double[numLeafValues];
+            buffer.asDoubleBuffer().get(threshold).get(prop).get(leafValues);
+
+            return new FlatForest(labels, numFeatures, roots, feature, child, threshold, prop, leafValues);
+        }
+    }
+
+    /**
+     * The flat file exported next to a Weka model file, e.g. model_global.model -> model_global.flat.
+     */
+    public static Path flatPathFor(Path modelPath) {
+        String name = modelPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return modelPath.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import weka.classifiers.Classifier;
+import weka.classifiers.meta.Bagging;
+import weka.classifiers.trees.RandomTree;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Converts a trained Weka RandomForest into a {@link FlatForest} and checks that both score identically.
+ * Weka keeps the trees in protected fields, so they are read reflectively; only numeric splits and a
+ * nominal class are supported, which is what {@link MLUtils#trainModel} produces.
+ * <p>
+ * Run {@code main [modelPath] [flatPath]} to export an existing model file; training code calls
+ * {@link #export(Classifier, Path)} right after writing the Weka model.
+ */
+public class FlatForestCompiler {
+
+    private static final String MODEL_PATH = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/model_global.model";
+    private static final int PARITY_SAMPLES = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        Path modelPath = Paths.get(args.length > 0 ? args[0] : MODEL_PATH);
+        Path flatPath = args.length > 1 ? Paths.get(args[1]) : FlatForest.flatPathFor(modelPath);
+
+        long start = System.nanoTime();
+        Classifier model = (Classifier) SerializationHelper.read(modelPath.toString());
+        long wekaLoadMs = (System.nanoTime() - start) / 1_000_000;
+
+        export(model, flatPath);
+
+        start = System.nanoTime();
+        FlatForest loaded = FlatForest.load(flatPath);
+        long flatLoadMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("⏱️ Load time: Weka " + wekaLoadMs + " ms, flat " + flatLoadMs + " ms");
+
+        int mismatches = verify(model, loaded, PARITY_SAMPLES, 42);
+        if (mismatches > 0) throw new IllegalStateException(mismatches + " parity mismatches after reload");
+    }
+
+    /**
+     * Compiles, verifies against Weka on {@value #PARITY_SAMPLES} probes, and writes the flat file.
+     * Nothing is written if any distribution differs.
+     */
+    public static FlatForest export(Classifier model, Path flatPath) throws Exception {
+        FlatForest forest = compile(model);
+        int mismatches = verify(model, forest, PARITY_SAMPLES, 42);
+        if (mismatches > 0) {
+            throw new IllegalStateException("Flat forest differs from Weka on " + mismatches + " of "
+                    + PARITY_SAMPLES + " probes; not exported");
+        }
+        forest.save(flatPath);
+        System.out.println("✅ Flat forest (" + forest.numTrees() + " trees, " + forest.numNodes()
+                + " nodes) saved to: " + flatPath);
+        return forest;
+    }
+
+    public static FlatForest compile(Classifier model) throws Exception {
+        if (!(model instanceof Bagging)) {
+            throw new IllegalArgumentException("Expected a RandomForest, got " + model.getClass().getName());
+        }
+        Classifier[] trees = (Classifier[]) field(model, "m_Classifiers");
+        int numTrees = (Integer) field(model, "m_NumIterations");
+        if (numTrees == 0 || trees == null) throw new IllegalArgumentException("Forest has not been trained");
+
+        Builder builder = null;
+        int[] roots = new int[numTrees];
+        for (int t = 0; t < numTrees; t++) {
+            if (!(trees[t] instanceof RandomTree tree)) {
+                throw new IllegalArgumentException("Expected RandomTree members, got " + trees[t].getClass().getName());
+            }
+            Instances info = (Instances) field(tree, "m_Info");
+            if (builder == null) builder = new Builder(info);
+            roots[t] = builder.addTree(tree, info);
+        }
+        return builder.build(roots);
+    }
+
+    /**
+     * Scores random probes with both models and counts vectors whose distributions are not bit-identical.
+     * Probe values are drawn from the forest's own split points (and just either side of them), so every
+     * branch gets exercised, with some NaNs to cover Weka's missing-value path.
+     */
+    public static int verify(Classifier model, FlatForest forest, int samples, long seed) throws Exception {
+        Instances header = MLUtils.headerFor(forest.numFeatures());
+        int numFeatures = forest.numFeatures();
+        double[][] splitPoints = splitPoints(forest, numFeatures);
+        Random random = new Random(seed);
+
+        double[] features = new double[numFeatures];
+        double[] flat = new double[forest.numClasses()];
+        int mismatches = 0;
+        for (int s = 0; s < samples; s++) {
+            for (int f = 0; f < numFeatures; f++) {
+                double[] points = splitPoints[f];
+                if (s % 50 == 0 && random.nextInt(numFeatures) == 0) {
+                    features[f] = Double.NaN;
+                } else if (points.length == 0) {
+                    features[f] = random.nextGaussian();
+                } else {
+                    double point = points[random.nextInt(points.length)];
+                    int side = random.nextInt(3);
+                    features[f] = side == 0 ? point : side == 1 ? Math.nextDown(point) : Math.nextUp(point);
+                }
+            }
+            Instance instance = new DenseInstance(1.0, Arrays.copyOf(features, numFeatures + 1));
+            instance.setDataset(header);
+            instance.setMissing(numFeatures);
+            double[] weka = model.distributionForInstance(instance);
+            forest.score(features, flat);
+            if (!Arrays.equals(weka, flat)) mismatches++;
+        }
+        System.out.println((mismatches == 0 ? "✅" : "❌") + " Flat forest parity: " + mismatches
+                + " mismatches in " + samples + " probes");
+        return mismatches;
+    }
+
+    /**
+     * Distinct split points per feature across the whole forest.
+     */
+    private static double[][] splitPoints(FlatForest forest, int numFeatures) {
+        List<List<Double>> points = new ArrayList<>();
+        for (int f = 0; f < numFeatures; f++) points.add(new ArrayList<>());
+        for (int node = 0; node < forest.numNodes(); node++) {
+            int f = forest.featureAt(node);
+            if (f >= 0) points.get(f).add(forest.thresholdAt(node));
+        }
+        double[][] result = new double[numFeatures][];
+        for (int f = 0; f < numFeatures; f++) {
+            result[f] = points.get(f).stream().mapToDouble(Double::doubleValue).distinct().toArray();
+        }
+        return result;
+    }
+
+    static Object field(Object target, String name) throws ReflectiveOperationException {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field.get(target);
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            }
+        }
+        throw new NoSuchFieldException(name + " in " + target.getClass().getName());
+    }
+
+    /**
+     * Appends trees breadth-first into growable primitive arrays.
+     */
+    private static final class Builder {
+        private final Instances header;
+        private final int numClasses;
+        private int[] feature = new int[1024];
+        private int[] child = new int[1024];
+        private double[] threshold = new double[1024];
+        private double[] prop = new double[2048];
+        private double[] leafValues = new double[1024];
+        private int nodes;
+        private int leafLength;
+
+        Builder(Instances header) {
+            this.header = header;
+            this.numClasses = header.numClasses();
+        }
+
+        int addTree(RandomTree tree, Instances info) throws Exception {
+            if (info.classAttribute().isNumeric()) throw new IllegalArgumentException("Regression forests are not supported");
+            if (info.numClasses() != numClasses) throw new IllegalArgumentException("Trees disagree on the class count");
+
+            int root = allocate(1);
+            Classifier zeroR = (Classifier) field(tree, "m_zeroR");
+            if (zeroR != null) {
+                // Tree fell back to the class prior; its answer does not depend on the instance
+                Instance any = new DenseInstance(info.numAttributes());
+                any.setDataset(info);
+                setLeaf(root, zeroR.distributionForInstance(any));
+                return root;
+            }
+
+            boolean allowUnclassified = tree.getAllowUnclassifiedInstances();
+            Deque<Object[]> queue = new ArrayDeque<>();
+            queue.add(new Object[]{field(tree, "m_Tree"), root, -1});
+            while (!queue.isEmpty()) {
+                Object[] entry = queue.poll();
+                Object node = entry[0];
+                int index = (Integer) entry[1];
+                int fallback = (Integer) entry[2];
+
+                int attribute = (Integer) field(node, "m_Attribute");
+                double[] classDistribution = (double[]) field(node, "m_ClassDistribution");
+                if (attribute < 0) {
+                    if (classDistribution != null) {
+                        setLeaf(index, normalized(classDistribution));
+                    } else if (allowUnclassified) {
+                        setLeaf(index, new double[numClasses]);
+                    } else {
+                        if (fallback < 0) throw new IllegalArgumentException("Empty leaf without a parent distribution");
+                        feature[index] = -1;
+                        child[index] = -1 - fallback;
+                    }
+                    continue;
+                }
+
+                Object[] successors = (Object[]) field(node, "m_Successors");
+                if (!info.attribute(attribute).isNumeric() || successors.length != 2) {
+                    throw new IllegalArgumentException("Only binary numeric splits are supported (attribute "
+                            + info.attribute(attribute).name() + ")");
+                }
+                double[] nodeProp = (double[]) field(node, "m_Prop");
+                int first = allocate(2);
+                feature[index] = attribute;
+                threshold[index] = (Double) field(node, "m_SplitPoint");
+                child[index] = first;
+                prop[2 * index] = nodeProp[0];
+                prop[2 * index + 1] = nodeProp[1];
+
+                int ownOffset = fallback;
+                if (classDistribution != null) {
+                    ownOffset = appendLeafValues(normalized(classDistribution));
+                }
+                queue.add(new Object[]{successors[0], first, ownOffset});
+                queue.add(new Object[]{successors[1], first + 1, ownOffset});
+            }
+            return root;
+        }
+
+        private double[] normalized(double[] classDistribution) {
+            double[] copy = classDistribution.clone();
+            Utils.normalize(copy);
+            return copy;
+        }
+
+        private void setLeaf(int index, double[] distribution) {
+            feature[index] = -1;
+            child[index] = appendLeafValues(distribution);
+        }
+
+        private int allocate(int count) {
+            int first = nodes;
+            nodes += count;
+            if (nodes > feature.length) {
+                int capacity = Math.max(nodes, feature.length * 2);
+                feature = Arrays.copyOf(feature, capacity);
+                child = Arrays.copyOf(child, capacity);
+                threshold = Arrays.copyOf(threshold, capacity);
+                prop = Arrays.copyOf(prop, 2 * capacity);
+            }
+            return first;
+        }
+
+        private int appendLeafValues(double[] distribution) {
+            if (distribution.length != numClasses) throw new IllegalArgumentException("Leaf has wrong class count");
+            if (leafLength + numClasses > leafValues.length) {
+                leafValues = Arrays.copyOf(leafValues, Math.max(leafLength + numClasses, leafValues.length * 2));
+            }
+            int offset = leafLength;
+            System.arraycopy(distribution, 0, leafValues, offset, numClasses);
+            leafLength += numClasses;
+            return offset;
+        }
+
+        FlatForest build(int[] roots) {
+            String[] labels = new String[numClasses];
+            for (int c = 0; c < numClasses; c++) labels[c] = header.classAttribute().value(c);
+            return new FlatForest(labels, header.numAttributes() - 1, roots,
+                    Arrays.copyOf(feature, nodes), Arrays.copyOf(child, nodes), Arrays.copyOf(threshold, nodes),
+                    Arrays.copyOf(prop, 2 * nodes), Arrays.copyOf(leafValues, leafLength));
+        }
+    }
+}
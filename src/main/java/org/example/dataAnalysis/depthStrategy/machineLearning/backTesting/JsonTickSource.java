@@ -0,0 +1,68 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.websocket.model.Tick;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Ticks parsed line by line from a JSONL file (gzip'd when the name ends in .gz). Every source shares one
+ * immutable, thread-safe {@link ObjectReader}; a line that does not parse is reported and skipped, as
+ * {@link BackTesterUtility#loadTicks(String)} always did.
+ */
+class JsonTickSource implements TickSource {
+
+    private static final ObjectReader TICK_READER = new ObjectMapper().readerFor(Tick.class);
+
+    private final Path path;
+    private final BufferedReader reader;
+    private Tick next;
+
+    JsonTickSource(Path path) throws IOException {
+        this.path = path;
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(".gz")) in = new GZIPInputStream(in, 64 * 1024);
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            String line;
+            while (next == null && (line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    next = TICK_READER.readValue(line);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            return next != null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read ticks from " + path, e);
+        }
+    }
+
+    @Override
+    public Tick next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Tick tick = next;
+        next = null;
+        return tick;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
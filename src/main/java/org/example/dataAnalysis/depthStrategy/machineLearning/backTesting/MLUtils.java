@@ -1,6 +1,7 @@
 package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
 
-import org.example.websocket.model.DepthPacket;
+import org.example.dataAnalysis.features.RollingFeatures;
+import org.example.websocket.model.DepthBook;
 import org.example.websocket.model.Tick;
 import weka.classifiers.Classifier;
 import weka.classifiers.trees.RandomForest;
@@ -12,6 +13,17 @@ public class MLUtils {
 
     private final ModelSelector.ModelType modelType;
 
+    public static final int BASE_FEATURE_COUNT = 7;
+    public static final int EXTENDED_FEATURE_COUNT = BASE_FEATURE_COUNT + RollingFeatures.COUNT;
+
+    // Inference headers shared by every prediction; never have instances added to them
+    static final Instances HEADER = createEmptyDataset(false);
+    static final Instances EXTENDED_HEADER = createEmptyDataset(true);
+
+    // Scorer of the model predictWithConfidence saw last, matched by identity; only that one model stays
+    // referenced, so retrained models are released as soon as callers drop them
+    private static volatile ModelScorer lastScorer;
+
     public MLUtils(ModelSelector.ModelType modelType) {
         this.modelType = modelType;
     }
@@ -25,9 +37,9 @@ public class MLUtils {
         double obi = (double)(totalBuyQty - totalSellQty) / (totalBuyQty + totalSellQty + 1e-6);
 
         // Spread and midpoint price
-        List<DepthPacket> depthList = tick.getMbpRowPacket();
-        double bestBuyPrice = depthList.get(0).getBuyPrice();
-        double bestSellPrice = depthList.get(0).getSellPrice();
+        DepthBook book = tick.getDepthBook();
+        double bestBuyPrice = book.getBidPrice(0);
+        double bestSellPrice = book.getAskPrice(0);
         double spread = bestSellPrice - bestBuyPrice;
         double midPrice = (bestBuyPrice + bestSellPrice) / 2.0;
 
@@ -35,19 +47,20 @@ public class MLUtils {
         double buyVolume = 0, sellVolume = 0;
         double weightedBuy = 0, weightedSell = 0;
         double convexity = 0;
-        int level = 1;
 
-        for (DepthPacket dp : depthList) {
-            buyVolume += dp.getBuyQuantity();
-            sellVolume += dp.getSellQuantity();
-            weightedBuy += dp.getBuyQuantity() / (double) level;
-            weightedSell += dp.getSellQuantity() / (double) level;
+        for (int i = 0; i < DepthBook.LEVELS; i++) {
+            int level = i + 1;
+            int buyQty = book.getBidQuantity(i);
+            int sellQty = book.getAskQuantity(i);
+            buyVolume += buyQty;
+            sellVolume += sellQty;
+            weightedBuy += buyQty / (double) level;
+            weightedSell += sellQty / (double) level;
 
             // convexity = shape of depth curve (optional: use top 3 levels)
             if (level <= 3) {
-                convexity += (dp.getSellQuantity() - dp.getBuyQuantity()) / (double) level;
+                convexity += (sellQty - buyQty) / (double) level;
             }
-            level++;
         }
 
         double skew = (buyVolume - sellVolume) / (buyVolume + sellVolume + 1e-6);
@@ -66,22 +79,20 @@ public class MLUtils {
         };
     }
 
+    /**
+     * Snapshot features of an aggregated tick followed by the symbol's {@link RollingFeatures} as of the same
+     * tick; the layout of models trained with rolling features enabled.
+     */
+    public double[] extractFeatures(Tick tick, double[] rolling) {
+        double[] features = Arrays.copyOf(extractFeatures(tick), EXTENDED_FEATURE_COUNT);
+        System.arraycopy(rolling, 0, features, BASE_FEATURE_COUNT, RollingFeatures.COUNT);
+        return features;
+    }
+
     // ----- Model Training -----
     public Classifier trainModel(List<double[]> features, List<String> labels) throws Exception {
-        ArrayList<Attribute> attributes = new ArrayList<>();
-        attributes.add(new Attribute("obi"));
-        attributes.add(new Attribute("spread"));
-        attributes.add(new Attribute("skew"));
-        attributes.add(new Attribute("pressure"));
-        attributes.add(new Attribute("depthRatio"));
-        attributes.add(new Attribute("convexity"));
-        attributes.add(new Attribute("midPriceDeviation"));
-
+        Instances dataset = new Instances(headerFor(features.get(0).length), features.size());
         List<String> classValues = Arrays.asList("BUY", "SELL", "HOLD");
-        attributes.add(new Attribute("label", classValues));
-
-        Instances dataset = new Instances("TickData", attributes, features.size());
-        dataset.setClassIndex(attributes.size() - 1);
 
         for (int i = 0; i < features.size(); i++) {
             double[] instanceValues = Arrays.copyOf(features.get(i), features.get(i).length + 1);
@@ -99,26 +110,45 @@ public class MLUtils {
 
     // ----- Prediction with Confidence -----
     public PredictionResult predictWithConfidence(Classifier model, double[] features) throws Exception {
-        Instances dummy = createEmptyDataset();
-        Instance instance = new DenseInstance(1.0, Arrays.copyOf(features, features.length + 1));
-        dummy.add(instance);
-        dummy.setClassIndex(dummy.numAttributes() - 1);
-
-        double[] distribution = model.distributionForInstance(dummy.firstInstance());
-        int bestIndex = 0;
-        for (int i = 1; i < distribution.length; i++) {
-            if (distribution[i] > distribution[bestIndex]) {
-                bestIndex = i;
-            }
+        return scorerFor(model).predict(features);
+    }
+
+    /**
+     * {@link ModelScorer} for a model, reused while the same model is passed in again; callers alternating
+     * between models should hold a scorer per model themselves (as on hot paths and for batch scoring).
+     */
+    public static ModelScorer scorerFor(Classifier model) {
+        ModelScorer scorer = lastScorer;
+        if (scorer == null || scorer.getModel() != model) {
+            scorer = new ModelScorer(model);
+            lastScorer = scorer;
         }
+        return scorer;
+    }
 
-        String predictedLabel = dummy.classAttribute().value(bestIndex);
-        double confidence = distribution[bestIndex];
+    /**
+     * Inference header for a feature vector length: {@link #BASE_FEATURE_COUNT} or {@link #EXTENDED_FEATURE_COUNT}.
+     */
+    public static Instances headerFor(int numFeatures) {
+        if (numFeatures == BASE_FEATURE_COUNT) return HEADER;
+        if (numFeatures == EXTENDED_FEATURE_COUNT) return EXTENDED_HEADER;
+        throw new IllegalArgumentException("No feature layout with " + numFeatures + " features");
+    }
 
-        return new PredictionResult(predictedLabel, confidence);
+    /**
+     * Number of features a trained RandomForest expects, read from its first tree's training header.
+     */
+    static int trainedFeatureCount(Classifier model) {
+        try {
+            Classifier[] trees = (Classifier[]) FlatForestCompiler.field(model, "m_Classifiers");
+            Instances info = (Instances) FlatForestCompiler.field(trees[0], "m_Info");
+            return info.numAttributes() - 1;
+        } catch (Exception e) {
+            return BASE_FEATURE_COUNT; // not a forest we can look into; assume the original layout
+        }
     }
 
-    private Instances createEmptyDataset() {
+    private static Instances createEmptyDataset(boolean rolling) {
         ArrayList<Attribute> attributes = new ArrayList<>();
         attributes.add(new Attribute("obi"));
         attributes.add(new Attribute("spread"));
@@ -127,9 +157,14 @@ public class MLUtils {
         attributes.add(new Attribute("depthRatio"));
         attributes.add(new Attribute("convexity"));
         attributes.add(new Attribute("midPriceDeviation"));
+        if (rolling) {
+            for (String name : RollingFeatures.NAMES) attributes.add(new Attribute(name));
+        }
         List<String> classValues = Arrays.asList("BUY", "SELL", "HOLD");
         attributes.add(new Attribute("label", classValues));
-        return new Instances("TickData", attributes, 0);
+        Instances header = new Instances("TickData", attributes, 0);
+        header.setClassIndex(header.numAttributes() - 1);
+        return header;
     }
 
     public static class PredictionResult {
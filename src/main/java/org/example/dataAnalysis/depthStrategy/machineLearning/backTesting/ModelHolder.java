@@ -0,0 +1,315 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import weka.classifiers.Classifier;
+import weka.core.SerializationHelper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the live version of a model file and swaps in retrained versions without stopping the tick path.
+ * Loading, deserialization and validation run on a background thread; readers only ever do a volatile read
+ * of the published {@link ActiveModel}, which is replaced in one atomic step once a candidate has passed
+ * the holdout written next to the model by training.
+ */
+public class ModelHolder {
+
+    public static final String MODELS_DIR = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/models/";
+    public static final String HOLDOUT_SUFFIX = ".holdout.csv";
+
+    static final double MIN_HOLDOUT_ACCURACY = 0.34;   // better than guessing among three classes
+    private static final double MAX_ACCURACY_REGRESSION = 0.05; // vs the active model on the same holdout
+
+    private static final ModelHolder GLOBAL = new ModelHolder("global", Paths.get(MODELS_DIR + "model_global.model"));
+
+    // One loader for every holder, so retraining never competes with the pipeline for more than a core
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "model-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final Path modelPath;
+    private final Path holdoutPath;
+    private final AtomicReference<ActiveModel> active = new AtomicReference<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean attempted;
+    private volatile long rejectedFileStamp;
+    private volatile String lastError;
+    private int nextVersion = 1; // only touched by the loader thread
+
+    public ModelHolder(String name, Path modelPath) {
+        this.name = name;
+        this.modelPath = modelPath;
+        this.holdoutPath = holdoutPathFor(modelPath);
+    }
+
+    public static ModelHolder getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * The published model, or null while the first load is still in flight (which this call starts).
+     * Never blocks.
+     */
+    public ActiveModel current() {
+        ActiveModel model = active.get();
+        if (model == null && !attempted) reloadAsync();
+        return model;
+    }
+
+    /**
+     * Starts a background load unless one is already running.
+     *
+     * @return false if a load was already in progress
+     */
+    public boolean reloadAsync() {
+        if (!loading.compareAndSet(false, true)) return false;
+        attempted = true;
+        LOADER.execute(() -> {
+            try {
+                reload();
+            } finally {
+                loading.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Reloads when the model files on disk are newer than the active version and were not already rejected.
+     */
+    public boolean reloadIfChanged() {
+        long stamp = fileStamp();
+        if (stamp == 0 || stamp == rejectedFileStamp) return false;
+        ActiveModel model = active.get();
+        if (model != null && model.fileModifiedMillis >= stamp) return false;
+        return reloadAsync();
+    }
+
+    private void reload() {
+        long stamp = fileStamp();
+        long start = System.nanoTime();
+        try {
+            Path source = preferredSource(modelPath);
+            ModelPredictor predictor = load(source);
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Holdout holdout = Holdout.read(holdoutPath);
+            double accuracy = validate(predictor, holdout);
+            if (accuracy < MIN_HOLDOUT_ACCURACY) {
+                throw new IllegalStateException(String.format("holdout accuracy %.3f below %.2f", accuracy, MIN_HOLDOUT_ACCURACY));
+            }
+            ActiveModel previous = active.get();
+            if (previous != null && holdout.size() > 0) {
+                double previousAccuracy = validate(previous.predictor, holdout);
+                if (accuracy < previousAccuracy - MAX_ACCURACY_REGRESSION) {
+                    throw new IllegalStateException(String.format("holdout accuracy %.3f is below the active model's %.3f",
+                            accuracy, previousAccuracy));
+                }
+            }
+
+            ActiveModel model = new ActiveModel(predictor, nextVersion++, source.toString(), System.currentTimeMillis(),
+                    stamp, loadMillis, holdout.size(), accuracy);
+            active.set(model);
+            lastError = null;
+            System.out.printf("✅ Model %s v%d loaded from %s in %d ms (holdout %d, accuracy %.3f)%n",
+                    name, model.version, source, loadMillis, holdout.size(), accuracy);
+        } catch (Exception e) {
+            rejectedFileStamp = stamp;
+            lastError = e.getMessage();
+            System.err.println("❌ Model " + name + " not swapped in, keeping "
+                    + (active.get() != null ? "v" + active.get().version : "no model") + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The flat export when it is at least as new as the Weka model, otherwise the Weka model.
+     */
+    static Path preferredSource(Path modelPath) throws IOException {
+        Path flatPath = FlatForest.flatPathFor(modelPath);
+        if (Files.exists(flatPath) && (!Files.exists(modelPath)
+                || Files.getLastModifiedTime(flatPath).compareTo(Files.getLastModifiedTime(modelPath)) >= 0)) {
+            return flatPath;
+        }
+        return modelPath;
+    }
+
+    static ModelPredictor load(Path source) throws Exception {
+        if (source.getFileName().toString().endsWith(FlatForest.FILE_SUFFIX)) {
+            return FlatForest.load(source);
+        }
+        return new ModelScorer((Classifier) SerializationHelper.read(source.toString()));
+    }
+
+    /**
+     * Checks every holdout prediction is a proper distribution over the expected labels.
+     *
+     * @return accuracy on the holdout, or NaN without one
+     */
+    static double validate(ModelPredictor predictor, Holdout holdout) throws Exception {
+        int classes = predictor.numClasses();
+        if (classes != MLUtils.HEADER.numClasses()) {
+            throw new IllegalStateException("model has " + classes + " classes, expected " + MLUtils.HEADER.numClasses());
+        }
+        for (int c = 0; c < classes; c++) {
+            if (!predictor.label(c).equals(MLUtils.HEADER.classAttribute().value(c))) {
+                throw new IllegalStateException("unexpected class label " + predictor.label(c));
+            }
+        }
+        if (holdout.size() == 0) return Double.NaN;
+        if (holdout.features.get(0).length != predictor.numFeatures()) {
+            throw new IllegalStateException("holdout has " + holdout.features.get(0).length + " features, model expects "
+                    + predictor.numFeatures());
+        }
+
+        double[] distribution = new double[classes];
+        int correct = 0;
+        for (int i = 0; i < holdout.size(); i++) {
+            int best = predictor.score(holdout.features.get(i), distribution);
+            double sum = 0;
+            for (double p : distribution) {
+                if (!(p >= 0 && p <= 1)) throw new IllegalStateException("invalid probability " + p);
+                sum += p;
+            }
+            if (Math.abs(sum - 1) > 1e-6) throw new IllegalStateException("distribution sums to " + sum);
+            if (predictor.label(best).equals(holdout.labels.get(i))) correct++;
+        }
+        return correct / (double) holdout.size();
+    }
+
+    private long fileStamp() {
+        return fileStamp(modelPath);
+    }
+
+    /**
+     * Newest modification time of a model file and its flat export; 0 if neither exists.
+     */
+    static long fileStamp(Path modelPath) {
+        Path flatPath = FlatForest.flatPathFor(modelPath);
+        try {
+            long stamp = 0;
+            if (Files.exists(modelPath)) stamp = Files.getLastModifiedTime(modelPath).toMillis();
+            if (Files.exists(flatPath)) stamp = Math.max(stamp, Files.getLastModifiedTime(flatPath).toMillis());
+            return stamp;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public ModelInfo getInfo() {
+        ActiveModel model = active.get();
+        if (model == null) {
+            return new ModelInfo(name, 0, null, 0, 0, 0, 0, Double.NaN, loading.get(), lastError);
+        }
+        return new ModelInfo(name, model.version, model.source, model.loadedAtMillis, model.fileModifiedMillis,
+                model.loadMillis, model.holdoutSize, model.holdoutAccuracy, loading.get(), lastError);
+    }
+
+    public static Path holdoutPathFor(Path modelPath) {
+        String fileName = modelPath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return modelPath.resolveSibling((dot > 0 ? fileName.substring(0, dot) : fileName) + HOLDOUT_SUFFIX);
+    }
+
+    /**
+     * Serializes a trained model beside its final path and moves it into place in one step, so a poll that
+     * races the write sees either the previous file or the complete new one.
+     */
+    public static void writeModel(Path path, Classifier model) throws Exception {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        SerializationHelper.write(tmp.toString(), model);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes feature vectors the model was not trained on, one "f1,...,fn,label" line each.
+     */
+    public static void writeHoldout(Path path, List<double[]> features, List<String> labels) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp)) {
+            for (int i = 0; i < features.size(); i++) {
+                StringBuilder line = new StringBuilder();
+                for (double value : features.get(i)) line.append(value).append(',');
+                writer.write(line.append(labels.get(i)).toString());
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * An immutable published model version.
+     */
+    public static final class ActiveModel {
+        private final ModelPredictor predictor;
+        private final int version;
+        private final String source;
+        private final long loadedAtMillis;
+        private final long fileModifiedMillis;
+        private final long loadMillis;
+        private final int holdoutSize;
+        private final double holdoutAccuracy;
+
+        private ActiveModel(ModelPredictor predictor, int version, String source, long loadedAtMillis,
+                            long fileModifiedMillis, long loadMillis, int holdoutSize, double holdoutAccuracy) {
+            this.predictor = predictor;
+            this.version = version;
+            this.source = source;
+            this.loadedAtMillis = loadedAtMillis;
+            this.fileModifiedMillis = fileModifiedMillis;
+            this.loadMillis = loadMillis;
+            this.holdoutSize = holdoutSize;
+            this.holdoutAccuracy = holdoutAccuracy;
+        }
+
+        public ModelPredictor getPredictor() {
+            return predictor;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+    }
+
+    static final class Holdout {
+        final List<double[]> features = new ArrayList<>();
+        final List<String> labels = new ArrayList<>();
+
+        int size() {
+            return labels.size();
+        }
+
+        static Holdout read(Path path) throws IOException {
+            Holdout holdout = new Holdout();
+            if (!Files.exists(path)) {
+                System.out.println("⚠️ No holdout at " + path + ", checking labels only");
+                return holdout;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(path)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    String[] parts = line.split(",");
+                    double[] values = new double[parts.length - 1];
+                    for (int i = 0; i < values.length; i++) values[i] = Double.parseDouble(parts[i]);
+                    holdout.features.add(values);
+                    holdout.labels.add(parts[parts.length - 1]);
+                }
+            }
+            return holdout;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelInfo {
+    private String name;
+    private int version;          // 0 until a model has been published
+    private String source;        // file the active model was read from
+    private long loadedAtMillis;
+    private long fileModifiedMillis;
+    private long loadMillis;
+    private int holdoutSize;
+    private double holdoutAccuracy;
+    private boolean loading;
+    private String lastError;
+}
@@ -0,0 +1,32 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+/**
+ * Scores {@link MLUtils#extractFeatures} vectors. Implementations are safe to share across threads.
+ */
+public interface ModelPredictor {
+
+    /**
+     * Length of the feature vectors the model was trained on.
+     */
+    int numFeatures();
+
+    int numClasses();
+
+    String label(int classIndex);
+
+    /**
+     * Class distribution for one feature vector, written into {@code distribution} (length {@link #numClasses()}).
+     *
+     * @return index of the most likely class
+     */
+    int score(double[] features, double[] distribution) throws Exception;
+
+    /**
+     * Most likely label and its probability; allocates only the result.
+     */
+    default MLUtils.PredictionResult predict(double[] features) throws Exception {
+        double[] distribution = new double[numClasses()];
+        int best = score(features, distribution);
+        return new MLUtils.PredictionResult(label(best), distribution[best]);
+    }
+}
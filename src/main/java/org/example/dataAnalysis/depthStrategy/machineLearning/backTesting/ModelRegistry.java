@@ -0,0 +1,233 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import org.example.config.ModelConfig;
+import weka.classifiers.Classifier;
+import weka.core.SerializationHelper;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-symbol models ({@code models/model_<securityId>.flat} or {@code .model}) served from an LRU cache that
+ * is bounded by heap bytes rather than entry count, with the global model as the fallback. Every cached model
+ * is a {@link FlatForest}, whose arrays are measured exactly; a symbol with only a Weka {@code .model} is
+ * compiled on load, since a deserialized forest's heap bears no fixed relation to its file size.
+ * A lookup never touches disk: a miss answers with the global model and queues a background load, so the
+ * symbol's own model takes over from its next evaluation. Symbols without a model file are remembered for
+ * {@link ModelConfig#getMissingRecheckMillis()} so the directory is not probed on every bar. A model is only
+ * cached once it passes a non-empty holdout written beside it.
+ */
+public class ModelRegistry {
+
+    private static final ModelRegistry INSTANCE = new ModelRegistry(ModelHolder.getGlobal(), Paths.get(ModelHolder.MODELS_DIR));
+
+    private static final int LOAD_PARITY_SAMPLES = 1_000;
+
+    private final ModelHolder global;
+    private final Path directory;
+
+    // Access-ordered, eldest first; guarded by this
+    private final LinkedHashMap<Integer, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private final Map<Integer, Long> missingUntil = new ConcurrentHashMap<>();
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "model-registry-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+
+    private static final class Entry {
+        final ModelPredictor predictor;
+        final long sizeBytes;
+        final long fileStamp;
+
+        Entry(ModelPredictor predictor, long sizeBytes, long fileStamp) {
+            this.predictor = predictor;
+            this.sizeBytes = sizeBytes;
+            this.fileStamp = fileStamp;
+        }
+    }
+
+    public ModelRegistry(ModelHolder global, Path directory) {
+        this.global = global;
+        this.directory = directory;
+    }
+
+    public static ModelRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public Path modelPathFor(int securityId) {
+        return directory.resolve("model_" + securityId + ".model");
+    }
+
+    /**
+     * The symbol's own model if cached, else the global model (null while neither is loaded).
+     */
+    public ModelPredictor predictorFor(int securityId) {
+        if (ModelConfig.isPerSymbolModels()) {
+            Entry entry;
+            synchronized (this) {
+                entry = cache.get(securityId);
+            }
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.predictor;
+            }
+            misses.incrementAndGet();
+            requestLoad(securityId);
+        }
+        ModelHolder.ActiveModel model = global.current();
+        return model != null ? model.getPredictor() : null;
+    }
+
+    /**
+     * Warms the cache for symbols about to matter (e.g. open positions) and marks cached ones as recently used.
+     */
+    public void prefetch(Collection<Integer> securityIds) {
+        if (!ModelConfig.isPerSymbolModels()) return;
+        for (int securityId : securityIds) {
+            boolean cached;
+            synchronized (this) {
+                cached = cache.get(securityId) != null;
+            }
+            if (!cached && requestLoad(securityId)) prefetches.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues a reload for cached symbols whose files changed on disk; the old model serves until it lands.
+     */
+    public void reloadChanged() {
+        List<Integer> stale = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, Entry> e : cache.entrySet()) {
+                if (ModelHolder.fileStamp(modelPathFor(e.getKey())) != e.getValue().fileStamp) stale.add(e.getKey());
+            }
+        }
+        for (int securityId : stale) requestLoad(securityId);
+    }
+
+    private boolean requestLoad(int securityId) {
+        Long until = missingUntil.get(securityId);
+        if (until != null && until > System.currentTimeMillis()) return false;
+        if (!queued.add(securityId)) return false;
+        loader.execute(() -> {
+            try {
+                load(securityId);
+            } finally {
+                queued.remove(securityId);
+            }
+        });
+        return true;
+    }
+
+    private void load(int securityId) {
+        Path modelPath = modelPathFor(securityId);
+        long stamp = ModelHolder.fileStamp(modelPath);
+        if (stamp == 0) {
+            // Files gone: a model cached from them is retired rather than served until restart
+            if (remove(securityId)) System.out.println("🗑️ Model for " + securityId + " removed from disk, evicted");
+            missingUntil.put(securityId, System.currentTimeMillis() + ModelConfig.getMissingRecheckMillis());
+            return;
+        }
+        try {
+            Path source = ModelHolder.preferredSource(modelPath);
+            FlatForest predictor = loadFlat(source);
+            // Unlike the global model, a symbol's model is never served on a label check alone
+            ModelHolder.Holdout holdout = ModelHolder.Holdout.read(ModelHolder.holdoutPathFor(modelPath));
+            if (holdout.size() == 0) throw new IllegalStateException("no holdout beside " + modelPath.getFileName());
+            double accuracy = ModelHolder.validate(predictor, holdout);
+            if (!(accuracy >= ModelHolder.MIN_HOLDOUT_ACCURACY)) {
+                throw new IllegalStateException(String.format("holdout accuracy %.3f below %.2f",
+                        accuracy, ModelHolder.MIN_HOLDOUT_ACCURACY));
+            }
+            long size = predictor.sizeBytes();
+            if (size > ModelConfig.getRegistryMaxBytes()) {
+                throw new IllegalStateException("model needs " + size + " bytes, over the whole cache budget");
+            }
+            put(securityId, new Entry(predictor, size, stamp));
+            loads.incrementAndGet();
+            missingUntil.remove(securityId);
+            System.out.println("✅ Model for " + securityId + " cached from " + source.getFileName() + " (" + size / 1024 + " KB)");
+        } catch (Exception e) {
+            loadFailures.incrementAndGet();
+            missingUntil.put(securityId, System.currentTimeMillis() + ModelConfig.getMissingRecheckMillis());
+            System.err.println("❌ Model for " + securityId + " not loaded, using the global model: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The symbol's model as a flat forest, compiling a Weka-only model on the way in and checking it agrees
+     * with Weka; the Weka object graph is dropped afterwards, so only measured arrays are ever cached.
+     */
+    private static FlatForest loadFlat(Path source) throws Exception {
+        if (source.getFileName().toString().endsWith(FlatForest.FILE_SUFFIX)) return FlatForest.load(source);
+        Classifier model = (Classifier) SerializationHelper.read(source.toString());
+        FlatForest forest = FlatForestCompiler.compile(model);
+        int mismatches = FlatForestCompiler.verify(model, forest, LOAD_PARITY_SAMPLES, 42);
+        if (mismatches > 0) {
+            throw new IllegalStateException("compiled forest differs from Weka on " + mismatches + " of "
+                    + LOAD_PARITY_SAMPLES + " probes");
+        }
+        return forest;
+    }
+
+    private synchronized void put(int securityId, Entry entry) {
+        Entry previous = cache.put(securityId, entry);
+        if (previous != null) cachedBytes -= previous.sizeBytes;
+        cachedBytes += entry.sizeBytes;
+
+        long maxBytes = ModelConfig.getRegistryMaxBytes();
+        Iterator<Map.Entry<Integer, Entry>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Integer, Entry> candidate = eldest.next();
+            if (candidate.getKey() == securityId) continue; // just loaded, keep it
+            cachedBytes -= candidate.getValue().sizeBytes;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private synchronized boolean remove(int securityId) {
+        Entry entry = cache.remove(securityId);
+        if (entry == null) return false;
+        cachedBytes -= entry.sizeBytes;
+        evictions.incrementAndGet();
+        return true;
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        cachedBytes = 0;
+        missingUntil.clear();
+    }
+
+    public ModelRegistryStats getStats() {
+        synchronized (this) {
+            return new ModelRegistryStats(hits.get(), misses.get(), loads.get(), loadFailures.get(), evictions.get(),
+                    prefetches.get(), cache.size(), cachedBytes, ModelConfig.getRegistryMaxBytes(),
+                    new ArrayList<>(cache.keySet()));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelRegistryStats {
+    private long hits;
+    private long misses;          // lookups answered by the global model
+    private long loads;
+    private long loadFailures;
+    private long evictions;
+    private long prefetches;
+    private int cachedModels;
+    private long cachedBytes;
+    private long maxBytes;
+    private List<Integer> cachedSymbols; // least recently used first
+}
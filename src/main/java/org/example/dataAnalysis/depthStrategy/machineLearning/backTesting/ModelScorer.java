@@ -0,0 +1,99 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import weka.classifiers.Classifier;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * Scores {@link MLUtils#extractFeatures} vectors with one model without rebuilding the Weka header or
+ * instance per call. The header is shared, and each thread owns one pre-allocated instance that is
+ * overwritten in place for every vector it scores, batches included, so the only allocation left is the
+ * distribution Weka returns per tree walk.
+ * Safe to share across threads as long as the model's distributionForInstance is (RandomForest's is).
+ */
+public class ModelScorer implements ModelPredictor {
+
+    private final Classifier model;
+    private final Instances header;
+    private final int numFeatures;
+    private final ThreadLocal<ReusableInstance> instance;
+
+    public ModelScorer(Classifier model) {
+        this(model, MLUtils.headerFor(MLUtils.trainedFeatureCount(model)));
+    }
+
+    public ModelScorer(Classifier model, Instances header) {
+        this.model = model;
+        this.header = header;
+        this.numFeatures = header.numAttributes() - 1;
+        this.instance = ThreadLocal.withInitial(() -> new ReusableInstance(header));
+    }
+
+    public Classifier getModel() {
+        return model;
+    }
+
+    @Override
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    @Override
+    public int numClasses() {
+        return header.numClasses();
+    }
+
+    @Override
+    public String label(int classIndex) {
+        return header.classAttribute().value(classIndex);
+    }
+
+    @Override
+    public int score(double[] features, double[] distribution) throws Exception {
+        return scoreInto(instance.get(), features, distribution);
+    }
+
+    /**
+     * Scores the first {@code count} feature vectors, e.g. every symbol whose window closed this cycle,
+     * writing each distribution into the matching row of {@code distributions} and the argmax into
+     * {@code bestIndex} (may be null).
+     */
+    public void scoreBatch(double[][] features, int count, double[][] distributions, int[] bestIndex) throws Exception {
+        ReusableInstance reusable = instance.get();
+        for (int i = 0; i < count; i++) {
+            int best = scoreInto(reusable, features[i], distributions[i]);
+            if (bestIndex != null) bestIndex[i] = best;
+        }
+    }
+
+    private int scoreInto(ReusableInstance instance, double[] features, double[] distribution) throws Exception {
+        if (features.length != numFeatures) {
+            throw new IllegalArgumentException("Expected " + numFeatures + " features, got " + features.length);
+        }
+        instance.load(features);
+        double[] result = model.distributionForInstance(instance);
+        System.arraycopy(result, 0, distribution, 0, result.length);
+        int best = 0;
+        for (int i = 1; i < result.length; i++) {
+            if (result[i] > result[best]) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * DenseInstance whose values are overwritten in place; setValue would copy the value array every call.
+     */
+    private static final class ReusableInstance extends DenseInstance {
+
+        ReusableInstance(Instances header) {
+            super(header.numAttributes());
+            setDataset(header);
+        }
+
+        void load(double[] features) {
+            System.arraycopy(features, 0, m_AttValues, 0, features.length);
+            m_AttValues[m_AttValues.length - 1] = Utils.missingValue();
+        }
+    }
+}
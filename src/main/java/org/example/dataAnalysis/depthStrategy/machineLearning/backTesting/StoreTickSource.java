@@ -0,0 +1,48 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import org.example.dataAnalysis.tickStore.TickCursor;
+import org.example.websocket.model.Tick;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Ticks read row by row from a symbol's memory-mapped {@link org.example.dataAnalysis.tickStore.TickStore}
+ * segments. Each {@link #next()} is a fresh {@link Tick}, since callers keep them (e.g. as trade entries).
+ */
+class StoreTickSource implements TickSource {
+
+    private final TickCursor cursor;
+    private boolean ready;
+    private boolean exhausted;
+
+    StoreTickSource(TickCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!ready && !exhausted) {
+            try {
+                ready = cursor.next();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read tick store segment", e);
+            }
+            exhausted = !ready;
+        }
+        return ready;
+    }
+
+    @Override
+    public Tick next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        return cursor.segment().toTick(cursor.row());
+    }
+
+    @Override
+    public void close() {
+        // Segments are mappings with no handle to release
+    }
+}
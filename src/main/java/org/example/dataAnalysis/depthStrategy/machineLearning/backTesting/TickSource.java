@@ -0,0 +1,56 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import org.example.dataAnalysis.tickStore.TickStore;
+import org.example.websocket.model.Tick;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A symbol's ticks, pulled one at a time from disk instead of loaded into a list, so a backtest holds only
+ * what it is looking at. Read failures surface from {@link #hasNext()}/{@link #next()} as
+ * {@link UncheckedIOException}. Close it (or the {@link #stream()} built on it) when done.
+ */
+public interface TickSource extends Iterator<Tick>, Closeable {
+
+    /**
+     * The remaining ticks as an ordered, sequential stream that closes this source when it is closed.
+     */
+    default Stream<Tick> stream() {
+        Spliterator<Tick> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * The {@link TickStore} beside {@code basePath} when it holds the symbol, otherwise the JSON dump at
+     * {@code basePath + symbolId + ".json"}; the same ticks in the same order as
+     * {@link BackTesterUtility#loadTicks(String, int)}. The store omits never-traded (lastTradedTime 0) rows.
+     */
+    static TickSource open(String basePath, int symbolId) throws IOException {
+        TickStore store = TickStore.beside(basePath);
+        if (store.hasSymbol(symbolId)) return ofStore(store, symbolId);
+        return ofJsonLines(Paths.get(basePath + symbolId + ".json"));
+    }
+
+    static TickSource ofJsonLines(Path path) throws IOException {
+        return new JsonTickSource(path);
+    }
+
+    static TickSource ofStore(TickStore store, int securityId) throws IOException {
+        return new StoreTickSource(store.cursor(securityId));
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.backTesting;
+
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.dataAnalysis.features.RollingFeatureEngine;
+import org.example.dataAnalysis.features.RollingFeatures;
+import org.example.websocket.model.Tick;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Windows of {@code windowSize} ticks built on the fly from a {@link TickSource}, by the same {@link BarEngine}
+ * as {@link BackTesterUtility#aggregateWindows} and optionally with the {@link RollingFeatureEngine#replay}
+ * snapshot of each. Only the current window and up to {@code lookahead} windows after it are held, so a
+ * backtest's memory follows its label horizon rather than the file size.
+ * <pre>
+ *   try (TickWindowSource windows = new TickWindowSource(TickSource.open(base, id), 10, false, 100)) {
+ *       while (windows.advance() && windows.ahead(100) != null) {
+ *           Tick tick = windows.current();
+ *           float future = windows.ahead(100).getAggregate().getLastTradedPrice();
+ *       }
+ *   }
+ * </pre>
+ */
+public class TickWindowSource implements Closeable {
+
+    private final TickSource ticks;
+    private final BarEngine bars;
+    private final RollingFeatureEngine rolling;
+
+    // Ring of buffered windows; head is the current one once advance() has been called
+    private final Bar[] windowBars;
+    private final double[][] windowRolling;
+    private int head;
+    private int size;
+    private boolean started;
+
+    /**
+     * @param rollingFeatures also capture each window's rolling feature snapshot
+     * @param lookahead       the furthest {@link #ahead} will be asked to look
+     */
+    public TickWindowSource(TickSource ticks, int windowSize, boolean rollingFeatures, int lookahead) {
+        if (lookahead < 0) throw new IllegalArgumentException("lookahead must be >= 0");
+        BarSpec spec = BarSpec.ticks(windowSize);
+        this.ticks = ticks;
+        this.bars = new BarEngine(List.of(spec));
+        this.rolling = rollingFeatures ? new RollingFeatureEngine(bars) : null;
+        this.windowBars = new Bar[lookahead + 1];
+        this.windowRolling = rollingFeatures ? new double[lookahead + 1][] : null;
+        bars.subscribe(spec, this::buffer);
+    }
+
+    private void buffer(Bar bar) {
+        int slot = (head + size) % windowBars.length;
+        windowBars[slot] = bar;
+        if (rolling != null) {
+            double[] values = new double[RollingFeatures.COUNT];
+            rolling.getFeatures(bar.getSecurityId(), values, 0);
+            windowRolling[slot] = values;
+        }
+        size++;
+    }
+
+    // Feeds ticks until count windows are buffered or the source runs out; a tick closes at most one window
+    private boolean fill(int count) {
+        while (size < count && ticks.hasNext()) {
+            Tick tick = ticks.next();
+            if (rolling != null) rolling.onTick(tick);
+            bars.onTick(tick);
+        }
+        return size >= count;
+    }
+
+    /**
+     * Moves to the next complete window; an unfinished trailing window is never returned.
+     *
+     * @return false once the ticks are exhausted
+     */
+    public boolean advance() {
+        if (started && size > 0) {
+            windowBars[head] = null;
+            if (windowRolling != null) windowRolling[head] = null;
+            head = (head + 1) % windowBars.length;
+            size--;
+        }
+        started = true;
+        return fill(1);
+    }
+
+    /**
+     * The window {@code k} after the current one (before the first {@link #advance()}, after the first
+     * window), reading ahead as needed.
+     *
+     * @return null if the ticks run out first
+     */
+    public Bar ahead(int k) {
+        if (k < 0 || k >= windowBars.length) {
+            throw new IllegalArgumentException("Can look at most " + (windowBars.length - 1) + " windows ahead, asked " + k);
+        }
+        return fill(k + 1) ? windowBars[(head + k) % windowBars.length] : null;
+    }
+
+    public Bar currentBar() {
+        if (!started || size == 0) throw new IllegalStateException("No current window");
+        return windowBars[head];
+    }
+
+    /**
+     * The current window aggregated into one tick, as {@link BackTesterUtility#aggregateTicks} builds it.
+     */
+    public Tick current() {
+        return currentBar().getAggregate();
+    }
+
+    /**
+     * Rolling features at the close of the current window, or null when not captured.
+     */
+    public double[] currentRolling() {
+        currentBar();
+        return windowRolling == null ? null : windowRolling[head];
+    }
+
+    @Override
+    public void close() throws IOException {
+        ticks.close();
+    }
+}
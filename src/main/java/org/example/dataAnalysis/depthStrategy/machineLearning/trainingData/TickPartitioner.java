@@ -0,0 +1,244 @@
+package org.example.dataAnalysis.depthStrategy.machineLearning.trainingData;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dataAnalysis.tickStore.TickStore;
+import org.example.dataAnalysis.tickStore.TickStoreWriter;
+import org.example.websocket.model.Tick;
+import org.example.websocket.recording.JsonLineReader;
+import org.example.websocket.recording.TickLineKeys;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Splits tick files (gzip'd or plain JSONL) into per-symbol dumps and per-symbol, per-day {@link TickStore}
+ * segments in a single pass. The reading thread only pulls securityId and lastTradedTime out of each line
+ * for routing and filtering; the line's bytes are handed to one of a pool of writer threads, which owns its
+ * symbols' output files outright. The dumps get the raw bytes unchanged. The tick store is columnar, so
+ * there each line is parsed into a {@link Tick} and held until its symbol's trading day is complete; memory
+ * therefore follows one day per symbol rather than the input, and nothing is written to disk in between.
+ */
+public class TickPartitioner {
+
+    public static final String DUMP_PREFIX = "compressedTickDump_";
+
+    private static final int IST_OFFSET_SECONDS = 19_800; // Asia/Kolkata has had a fixed +05:30 offset since 1945
+    private static final int BATCH_LINES = 1024;
+    private static final int BATCH_BYTES = 256 * 1024;
+
+    private final Path outputDirectory;
+    private int writerCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private long fromEpochDay = Long.MIN_VALUE;
+    private long toEpochDay = Long.MAX_VALUE;
+    private final Set<Long> excludedEpochDays = new HashSet<>();
+    private boolean writeTickStore = true;
+
+    public TickPartitioner(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Keeps only ticks whose IST trading day is within {@code from..to}, both inclusive; either may be null.
+     */
+    public TickPartitioner dateRange(LocalDate from, LocalDate to) {
+        fromEpochDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        toEpochDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+        return this;
+    }
+
+    public TickPartitioner excludeDates(Set<LocalDate> dates) {
+        for (LocalDate date : dates) excludedEpochDays.add(date.toEpochDay());
+        return this;
+    }
+
+    public TickPartitioner writers(int count) {
+        if (count < 1) throw new IllegalArgumentException("writers must be >= 1");
+        writerCount = count;
+        return this;
+    }
+
+    public TickPartitioner writeTickStore(boolean enabled) {
+        writeTickStore = enabled;
+        return this;
+    }
+
+    /**
+     * Routes every line of {@code inputs}, in order, to {@code <outputDirectory>/compressedTickDump_<id>.json}
+     * (truncated when the symbol is first seen) and to the tick store beside it.
+     *
+     * @return ticks written
+     */
+    public long partition(List<Path> inputs) throws IOException {
+        Files.createDirectories(outputDirectory);
+        PartitionWriter[] writers = new PartitionWriter[writerCount];
+        TickStore store = new TickStore(outputDirectory.resolve(TickStore.DIRECTORY_NAME));
+        for (int i = 0; i < writerCount; i++) {
+            writers[i] = new PartitionWriter(store);
+            writers[i].thread = new Thread(writers[i]::run, "tick-partition-" + i);
+            writers[i].thread.start();
+        }
+
+        Batch[] pending = new Batch[writerCount];
+        for (int i = 0; i < writerCount; i++) pending[i] = new Batch();
+        TickLineKeys keys = new TickLineKeys();
+        long routed = 0, skipped = 0;
+        try {
+            for (Path input : inputs) {
+                if (!Files.exists(input) || Files.size(input) == 0) continue;
+                try (InputStream in = open(input)) {
+                    JsonLineReader lines = new JsonLineReader(in);
+                    while (lines.next()) {
+                        if (lines.length() == 0) continue;
+                        if (!keys.read(lines.line(), 0, lines.length())) {
+                            skipped++;
+                            continue;
+                        }
+                        long epochDay = Math.floorDiv(keys.getLastTradedTime() + IST_OFFSET_SECONDS, 86_400L);
+                        if (epochDay < fromEpochDay || epochDay > toEpochDay || excludedEpochDays.contains(epochDay)) {
+                            continue;
+                        }
+                        int w = Math.floorMod(keys.getSecurityId(), writerCount);
+                        Batch batch = pending[w];
+                        batch.add(keys.getSecurityId(), lines.line(), lines.length());
+                        if (batch.isFull()) {
+                            writers[w].submit(batch);
+                            pending[w] = new Batch();
+                        }
+                        routed++;
+                    }
+                } catch (EOFException e) {
+                    System.err.println("⚠️ Truncated block at the end of " + input + ", partitioned what was readable");
+                }
+            }
+            for (int i = 0; i < writerCount; i++) {
+                if (pending[i].lines > 0) writers[i].submit(pending[i]);
+            }
+        } finally {
+            for (PartitionWriter writer : writers) writer.submit(Batch.END);
+            for (PartitionWriter writer : writers) writer.join();
+        }
+        for (PartitionWriter writer : writers) {
+            if (writer.failure != null) throw new IOException("Tick partition writer failed: " + writer.failure.getMessage(), writer.failure);
+        }
+
+        int symbols = 0;
+        for (PartitionWriter writer : writers) symbols += writer.symbols;
+        System.out.println("✅ Partitioned " + routed + " ticks of " + symbols + " symbols into " + outputDirectory
+                + (skipped > 0 ? " (" + skipped + " unreadable lines skipped)" : ""));
+        return routed;
+    }
+
+    private static InputStream open(Path input) throws IOException {
+        InputStream in = Files.newInputStream(input);
+        return input.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    // Lines for one writer, packed into one byte array
+    private static final class Batch {
+        static final Batch END = new Batch();
+
+        byte[] data = new byte[BATCH_BYTES];
+        int[] ends = new int[BATCH_LINES];
+        int[] securityIds = new int[BATCH_LINES];
+        int lines;
+        int size;
+
+        void add(int securityId, byte[] line, int length) {
+            if (size + length > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, size + length));
+            System.arraycopy(line, 0, data, size, length);
+            size += length;
+            ends[lines] = size;
+            securityIds[lines++] = securityId;
+        }
+
+        boolean isFull() {
+            return lines == BATCH_LINES || size >= BATCH_BYTES;
+        }
+    }
+
+    private final class PartitionWriter {
+        final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(16); // the reader blocks when a writer falls behind
+        final Map<Integer, OutputStream> dumps = new HashMap<>();
+        final ObjectMapper mapper = new ObjectMapper();
+        final TickStoreWriter storeWriter;
+        Thread thread;
+        volatile Exception failure;
+        int symbols;
+
+        PartitionWriter(TickStore store) {
+            storeWriter = writeTickStore ? new TickStoreWriter(store) : null;
+        }
+
+        void submit(Batch batch) {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void join() {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void run() {
+            try {
+                Batch batch;
+                while ((batch = queue.take()) != Batch.END) {
+                    if (failure == null) write(batch); // after a failure keep draining so the reader never blocks
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                for (OutputStream out : dumps.values()) out.close();
+                if (storeWriter != null && failure == null) storeWriter.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+
+        private void write(Batch batch) {
+            try {
+                int start = 0;
+                for (int i = 0; i < batch.lines; i++) {
+                    int securityId = batch.securityIds[i];
+                    OutputStream out = dumps.get(securityId);
+                    if (out == null) {
+                        out = new BufferedOutputStream(Files.newOutputStream(
+                                outputDirectory.resolve(DUMP_PREFIX + securityId + ".json")), 64 * 1024);
+                        dumps.put(securityId, out);
+                        symbols++;
+                    }
+                    int length = batch.ends[i] - start;
+                    out.write(batch.data, start, length);
+                    out.write('\n');
+                    if (storeWriter != null) storeWriter.append(mapper.readValue(batch.data, start, length, Tick.class));
+                    start = batch.ends[i];
+                }
+            } catch (IOException e) {
+                failure = e;
+                System.err.println("❌ Tick partition writer failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,14 +1,8 @@
 package org.example.dataAnalysis.depthStrategy.machineLearning.trainingData;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-
 import java.io.*;
 import java.nio.file.*;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
 
 public class TickSplitter {
@@ -19,8 +13,8 @@ public class TickSplitter {
     private static final String TRAINING_OUTPUT_DIR = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/";
     private static final String TESTING_OUTPUT_DIR = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/testingData/";
 
-    private static final LocalDate TARGET_DATE = LocalDate.of(2025, 4, 30);
-    private static final ZoneId ZONE_ID = ZoneId.of("Asia/Kolkata");
+    // Held out of the training split
+    static final LocalDate TARGET_DATE = LocalDate.of(2025, 4, 30);
 
     public static void main(String[] args) {
         //splitTickFileBySymbolId(TRAINING_INPUT_FILE, TRAINING_OUTPUT_DIR); // for training data
@@ -37,55 +31,12 @@ public class TickSplitter {
     }
 
     private static void performTickSplit(String inputFile, String outputDirectory) {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectWriter writer = mapper.writer();
-        Map<Integer, BufferedWriter> writers = new HashMap<>();
-        Set<Integer> initializedFiles = new HashSet<>();
-
-        try (BufferedReader reader = Files.newBufferedReader(Paths.get(inputFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-
-                JsonNode node = mapper.readTree(line);
-                long lastTradedTimeEpoch = node.get("lastTradedTime").asLong();
-                LocalDate tickDate = Instant.ofEpochSecond(lastTradedTimeEpoch).atZone(ZONE_ID).toLocalDate();
-
-                if (tickDate.equals(TARGET_DATE)) {
-                    continue; // Skip 2025-04-30 ticks
-                }
-
-                int securityId = node.get("securityId").asInt();
-                String outputFileName = outputDirectory + "compressedTickDump_" + securityId + ".json";
-                Path outputPath = Paths.get(outputFileName);
-
-                if (!initializedFiles.contains(securityId)) {
-                    Files.write(outputPath, new byte[0], StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-                    initializedFiles.add(securityId);
-                }
-
-                BufferedWriter bw = writers.computeIfAbsent(securityId, id -> {
-                    try {
-                        return Files.newBufferedWriter(outputPath, StandardOpenOption.APPEND);
-                    } catch (IOException e) {
-                        throw new RuntimeException("Failed to open file for writing: " + outputFileName, e);
-                    }
-                });
-
-                bw.write(writer.writeValueAsString(node));
-                bw.newLine();
-            }
-
+        try {
+            new TickPartitioner(Paths.get(outputDirectory))
+                    .excludeDates(Set.of(TARGET_DATE))
+                    .partition(List.of(Paths.get(inputFile)));
         } catch (IOException e) {
             e.printStackTrace();
-        } finally {
-            for (BufferedWriter bw : writers.values()) {
-                try {
-                    bw.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
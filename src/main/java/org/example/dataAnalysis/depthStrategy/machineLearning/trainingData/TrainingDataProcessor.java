@@ -1,64 +1,84 @@
 package org.example.dataAnalysis.depthStrategy.machineLearning.trainingData;
 
 import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.BackTesterMLDriven2;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelHolder;
+import org.example.websocket.recording.TickJournal;
 
 import java.io.*;
 import java.nio.file.*;
-import java.util.zip.GZIPInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 public class TrainingDataProcessor {
 
     private static final String COMPRESSED_FILE = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/marketdata.jsonl.gz";
-    private static final String OUTPUT_FILE = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/all_ticks.json";
-    private static final String TRAINING_INPUT_FILE = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/all_ticks.json";
     private static final String TRAINING_OUTPUT_DIR = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/";
 
-    public static void clearMarketDataFile() {
-        Path path = Paths.get(COMPRESSED_FILE);
+    /**
+     * Compressed tick files ready for training: the legacy single file if it still has data, then every
+     * closed journal segment. The active segment is rolled first so nothing journaled so far is left out.
+     */
+    public static List<Path> collectMarketDataFiles() {
+        List<Path> files = new ArrayList<>();
         try {
-            Files.newBufferedWriter(path, StandardOpenOption.TRUNCATE_EXISTING).close();
-            System.out.println("✅ Cleared file contents: " + COMPRESSED_FILE);
+            Path legacy = Paths.get(COMPRESSED_FILE);
+            if (Files.exists(legacy) && Files.size(legacy) > 0) files.add(legacy);
+            TickJournal journal = TickJournal.getInstance();
+            journal.roll();
+            files.addAll(journal.getClosedSegments());
         } catch (IOException e) {
-            System.err.println("❌ Failed to clear file contents: " + e.getMessage());
+            System.err.println("❌ Failed to collect journal segments: " + e.getMessage());
         }
+        return files;
     }
 
-    public static void convertToAllTicksJson() {
-        Path inputPath = Paths.get(COMPRESSED_FILE);
-        Path outputPath = Paths.get(OUTPUT_FILE);
-
-        try (GZIPInputStream gzipIn = new GZIPInputStream(Files.newInputStream(inputPath));
-             BufferedReader reader = new BufferedReader(new InputStreamReader(gzipIn));
-             BufferedWriter writer = Files.newBufferedWriter(outputPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+    /**
+     * Total compressed tick data waiting to be trained on.
+     */
+    public static long getMarketDataBytes() throws IOException {
+        Path legacy = Paths.get(COMPRESSED_FILE);
+        long bytes = Files.exists(legacy) ? Files.size(legacy) : 0;
+        return bytes + TickJournal.getInstance().getJournalBytes();
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                writer.write(line);
-                writer.newLine();
+    public static void clearMarketDataFiles(List<Path> files) {
+        for (Path path : files) {
+            try {
+                if (path.equals(Paths.get(COMPRESSED_FILE))) {
+                    Files.newBufferedWriter(path, StandardOpenOption.TRUNCATE_EXISTING).close();
+                } else {
+                    Files.deleteIfExists(path);
+                }
+                System.out.println("✅ Cleared trained tick data: " + path);
+            } catch (IOException e) {
+                System.err.println("❌ Failed to clear " + path + ": " + e.getMessage());
             }
-
-            System.out.println("✅ Converted compressed file to: " + OUTPUT_FILE);
-
-        } catch (IOException e) {
-            System.err.println("❌ Failed to convert file: " + e.getMessage());
         }
     }
 
-    public static void splitTicks() {
-        try {
-            TickSplitter.splitTickFileBySymbolId(TRAINING_INPUT_FILE, TRAINING_OUTPUT_DIR);
-            System.out.println("✅ Successfully split ticks by symbol ID.");
-        } catch (Exception e) {
-            System.err.println("❌ Failed to split ticks: " + e.getMessage());
-        }
+    /**
+     * Splits the collected files straight into the per-symbol dumps and tick store the backtesters read.
+     */
+    public static void partitionTicks(List<Path> inputs) throws IOException {
+        new TickPartitioner(Paths.get(TRAINING_OUTPUT_DIR))
+                .excludeDates(Set.of(TickSplitter.TARGET_DATE))
+                .partition(inputs);
     }
 
     public static void triggerRetraining()
     {
-        convertToAllTicksJson();
-        splitTicks();
+        List<Path> marketData = collectMarketDataFiles();
+        try {
+            partitionTicks(marketData);
+        } catch (IOException | RuntimeException e) {
+            // The collected files are the only copy of these ticks; keep them for the next attempt
+            System.err.println("❌ Failed to partition ticks, skipping retraining and keeping the tick data: " + e.getMessage());
+            return;
+        }
         BackTesterMLDriven2.runBacktest();
-        clearMarketDataFile();
+        ModelHolder.getGlobal().reloadIfChanged();
+        clearMarketDataFiles(marketData);
 
     }
 }
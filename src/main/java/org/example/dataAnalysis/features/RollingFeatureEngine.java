@@ -0,0 +1,123 @@
+package org.example.dataAnalysis.features;
+
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.websocket.model.Tick;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-symbol {@link RollingFeatures}, fed every FULL tick just before the {@link BarEngine} sees it.
+ * Strategies evaluate a bar some time after it closes, so for the specs registered with
+ * {@link #captureOn(BarSpec)} the engine snapshots each symbol's features at the closing tick; that is the
+ * vector a model trained with {@link #replay} saw for the same bar.
+ * <p>
+ * Conflated ingest merges ticks before they get here, so live vectors only match an offline replay of
+ * the unconflated capture when conflation is off.
+ */
+public class RollingFeatureEngine {
+
+    private static final RollingFeatureEngine INSTANCE = new RollingFeatureEngine(BarEngine.getInstance());
+
+    private final BarEngine barEngine;
+    private final Map<Integer, RollingFeatures> symbols = new ConcurrentHashMap<>();
+    // spec key -> securityId -> features at the close of the symbol's latest bar of that spec
+    private final Map<String, Map<Integer, BarSnapshot>> barSnapshots = new ConcurrentHashMap<>();
+
+    private static final class BarSnapshot {
+        final Bar bar;
+        final double[] values;
+
+        BarSnapshot(Bar bar, double[] values) {
+            this.bar = bar;
+            this.values = values;
+        }
+    }
+
+    public RollingFeatureEngine(BarEngine barEngine) {
+        this.barEngine = barEngine;
+    }
+
+    public static RollingFeatureEngine getInstance() {
+        return INSTANCE;
+    }
+
+    public void onTick(Tick tick) {
+        RollingFeatures features = symbols.get(tick.getSecurityId());
+        if (features == null) {
+            features = symbols.computeIfAbsent(tick.getSecurityId(), id -> new RollingFeatures());
+        }
+        synchronized (features) {
+            features.update(tick);
+        }
+    }
+
+    /**
+     * Copies the symbol's current features into {@code out} from {@code offset}.
+     *
+     * @return false if the symbol has not been seen
+     */
+    public boolean getFeatures(int securityId, double[] out, int offset) {
+        RollingFeatures features = symbols.get(securityId);
+        if (features == null) return false;
+        synchronized (features) {
+            features.write(out, offset);
+        }
+        return true;
+    }
+
+    /**
+     * Starts keeping a snapshot at the close of every bar of {@code spec}.
+     */
+    public void captureOn(BarSpec spec) {
+        if (barSnapshots.putIfAbsent(spec.getKey(), new ConcurrentHashMap<>()) != null) return;
+        Map<Integer, BarSnapshot> snapshots = barSnapshots.get(spec.getKey());
+        barEngine.subscribe(spec, bar -> {
+            double[] values = new double[RollingFeatures.COUNT];
+            if (getFeatures(bar.getSecurityId(), values, 0)) {
+                snapshots.put(bar.getSecurityId(), new BarSnapshot(bar, values));
+            }
+        });
+    }
+
+    /**
+     * Features as of the closing tick of {@code bar}, or null if that bar's spec is not captured or a newer
+     * bar of the symbol has closed since.
+     */
+    public double[] getBarFeatures(Bar bar) {
+        Map<Integer, BarSnapshot> snapshots = barSnapshots.get(bar.getSpec());
+        if (snapshots == null) return null;
+        BarSnapshot snapshot = snapshots.get(bar.getSecurityId());
+        return snapshot != null && snapshot.bar == bar ? snapshot.values : null;
+    }
+
+    public void clear() {
+        symbols.clear();
+        for (Map<Integer, BarSnapshot> snapshots : barSnapshots.values()) snapshots.clear();
+    }
+
+    /**
+     * Offline equivalent of the live path for one symbol's ticks: runs them through fresh feature and bar
+     * engines in order and returns the feature snapshot at the close of each bar of {@code spec}, aligned
+     * with {@link BarEngine#buildBars}.
+     */
+    public static List<double[]> replay(List<Tick> ticks, BarSpec spec) {
+        BarEngine bars = new BarEngine(List.of(spec));
+        RollingFeatureEngine engine = new RollingFeatureEngine(bars);
+        List<double[]> snapshots = new ArrayList<>();
+        bars.subscribe(spec, bar -> {
+            double[] values = new double[RollingFeatures.COUNT];
+            engine.getFeatures(bar.getSecurityId(), values, 0);
+            snapshots.add(values);
+        });
+        for (Tick tick : ticks) {
+            engine.onTick(tick);
+            bars.onTick(tick);
+        }
+        return snapshots;
+    }
+}
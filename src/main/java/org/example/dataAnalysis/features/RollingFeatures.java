@@ -0,0 +1,138 @@
+package org.example.dataAnalysis.features;
+
+import org.example.websocket.model.DepthBook;
+import org.example.websocket.model.Tick;
+
+/**
+ * History-dependent microstructure features of one symbol, updated in O(1) per tick from primitive state.
+ * Only tick fields feed the state (no wall clock) and every transcendental goes through {@link StrictMath},
+ * so replaying the same ticks offline yields bit-identical vectors to the live ones.
+ * Not thread-safe; {@link RollingFeatureEngine} serializes access per symbol.
+ */
+public class RollingFeatures {
+
+    public static final int OBI_EWMA = 0;          // EWMA of top-5 depth imbalance
+    public static final int OFI = 1;               // EWMA of best-level order-flow imbalance over EWMA best-level depth
+    public static final int MICROPRICE_DRIFT = 2;  // EWMA of the relative change in microprice
+    public static final int REALIZED_VOL = 3;      // RMS of log mid returns over the last VOL_WINDOW ticks
+    public static final int TRADE_INTENSITY = 4;   // exponentially decayed trades per second
+    public static final int COUNT = 5;
+    public static final String[] NAMES = {"obiEwma", "ofi", "micropriceDrift", "realizedVol", "tradeIntensity"};
+
+    private static final double ALPHA = 2.0 / (20 + 1); // 20-tick EWMA span
+    private static final int VOL_WINDOW = 50;
+    private static final double INTENSITY_TAU_SECONDS = 30;
+
+    private long ticks;
+
+    private double obiEwma;
+
+    private boolean hasTop;
+    private double prevBidPrice, prevAskPrice;
+    private int prevBidQuantity, prevAskQuantity;
+    private double ofiEwma, topDepthEwma;
+
+    private double prevMicroprice;
+    private double micropriceDriftEwma;
+
+    private double prevMid;
+    private final double[] squaredReturns = new double[VOL_WINDOW];
+    private int volCursor, volCount;
+    private double sumSquaredReturns;
+
+    private long prevVolume = -1;
+    private long prevTime;
+    private double tradeIntensity;
+
+    public void update(Tick tick) {
+        ticks++;
+        updateTradeIntensity(tick);
+
+        DepthBook book = tick.getDepthBook();
+        if (book == null) return;
+
+        double bidTotal = book.getTotalBidQuantity(), askTotal = book.getTotalAskQuantity();
+        double obi = (bidTotal - askTotal) / (bidTotal + askTotal + 1e-6);
+        obiEwma = ticks == 1 ? obi : obiEwma + ALPHA * (obi - obiEwma);
+
+        double bidPrice = book.getBidPrice(0), askPrice = book.getAskPrice(0);
+        int bidQuantity = book.getBidQuantity(0), askQuantity = book.getAskQuantity(0);
+        if (bidPrice <= 0 || askPrice <= 0) return; // one-sided book, nothing to compare against
+
+        if (hasTop) {
+            // Cont, Kukanov & Stoikov: bid-side inflow minus ask-side inflow between snapshots
+            double ofi = (bidPrice >= prevBidPrice ? bidQuantity : 0) - (bidPrice <= prevBidPrice ? prevBidQuantity : 0)
+                    - (askPrice <= prevAskPrice ? askQuantity : 0) + (askPrice >= prevAskPrice ? prevAskQuantity : 0);
+            ofiEwma += ALPHA * (ofi - ofiEwma);
+            topDepthEwma += ALPHA * ((bidQuantity + askQuantity) / 2.0 - topDepthEwma);
+        } else {
+            topDepthEwma = (bidQuantity + askQuantity) / 2.0;
+        }
+
+        double microprice = bidQuantity + askQuantity > 0
+                ? (askPrice * bidQuantity + bidPrice * askQuantity) / (bidQuantity + askQuantity)
+                : (bidPrice + askPrice) / 2.0;
+        if (hasTop) {
+            micropriceDriftEwma += ALPHA * ((microprice - prevMicroprice) / prevMicroprice - micropriceDriftEwma);
+        }
+
+        double mid = (bidPrice + askPrice) / 2.0;
+        if (hasTop) {
+            double r = StrictMath.log(mid / prevMid);
+            addSquaredReturn(r * r);
+        }
+
+        hasTop = true;
+        prevBidPrice = bidPrice;
+        prevAskPrice = askPrice;
+        prevBidQuantity = bidQuantity;
+        prevAskQuantity = askQuantity;
+        prevMicroprice = microprice;
+        prevMid = mid;
+    }
+
+    private void updateTradeIntensity(Tick tick) {
+        long time = tick.getLastTradedTime();
+        long volume = tick.getVolumeTraded();
+        if (prevVolume >= 0) {
+            long elapsed = time - prevTime;
+            if (elapsed > 0) tradeIntensity *= StrictMath.exp(-elapsed / INTENSITY_TAU_SECONDS);
+            if (volume > prevVolume) tradeIntensity += 1.0 / INTENSITY_TAU_SECONDS;
+        }
+        if (prevVolume < 0 || time > prevTime) prevTime = time;
+        prevVolume = volume;
+    }
+
+    private void addSquaredReturn(double squared) {
+        if (volCount == VOL_WINDOW) {
+            sumSquaredReturns -= squaredReturns[volCursor];
+        } else {
+            volCount++;
+        }
+        squaredReturns[volCursor] = squared;
+        sumSquaredReturns += squared;
+        volCursor = (volCursor + 1) % VOL_WINDOW;
+
+        // Re-add from scratch once per lap so subtraction error cannot accumulate (amortized O(1))
+        if (volCursor == 0) {
+            double sum = 0;
+            for (int i = 0; i < volCount; i++) sum += squaredReturns[i];
+            sumSquaredReturns = sum;
+        }
+    }
+
+    /**
+     * Writes the {@link #COUNT} features starting at {@code out[offset]} in the index order above.
+     */
+    public void write(double[] out, int offset) {
+        out[offset + OBI_EWMA] = obiEwma;
+        out[offset + OFI] = ofiEwma / (topDepthEwma + 1e-6);
+        out[offset + MICROPRICE_DRIFT] = micropriceDriftEwma;
+        out[offset + REALIZED_VOL] = volCount == 0 ? 0 : StrictMath.sqrt(Math.max(0, sumSquaredReturns) / volCount);
+        out[offset + TRADE_INTENSITY] = tradeIntensity;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.dataAnalysis.strategy;
+
+import org.example.dataAnalysis.depthStrategy.StrategyOne.Signal;
+
+/**
+ * Merges the signals of the strategies that had an opinion this round (in registration order) into one.
+ */
+public enum ArbitrationRule {
+    /** First strategy, in registration order, that did not say HOLD decides. */
+    PRIORITY {
+        @Override
+        Signal merge(Signal[] signals, int count) {
+            for (int i = 0; i < count; i++) {
+                if (signals[i] != Signal.HOLD) return signals[i];
+            }
+            return Signal.HOLD;
+        }
+    },
+    /** BUY or SELL needs more than half of the votes; HOLD votes count against both. */
+    MAJORITY {
+        @Override
+        Signal merge(Signal[] signals, int count) {
+            int buy = 0, sell = 0;
+            for (int i = 0; i < count; i++) {
+                if (signals[i] == Signal.BUY) buy++;
+                else if (signals[i] == Signal.SELL) sell++;
+            }
+            if (buy * 2 > count) return Signal.BUY;
+            if (sell * 2 > count) return Signal.SELL;
+            return Signal.HOLD;
+        }
+    },
+    /** Every voting strategy has to agree. */
+    UNANIMOUS {
+        @Override
+        Signal merge(Signal[] signals, int count) {
+            if (count == 0) return Signal.HOLD;
+            for (int i = 1; i < count; i++) {
+                if (signals[i] != signals[0]) return Signal.HOLD;
+            }
+            return signals[0];
+        }
+    };
+
+    /**
+     * @param signals non-null votes in registration order, only the first {@code count} are used
+     */
+    abstract Signal merge(Signal[] signals, int count);
+}
@@ -0,0 +1,140 @@
+package org.example.dataAnalysis.strategy;
+
+import org.example.config.StrategyConfig;
+import org.example.websocket.model.DepthBook;
+import org.example.websocket.model.Tick;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides, each time a symbol has something new to evaluate (a strategy bar closed, or any FULL tick while a
+ * tick-driven strategy is registered, see {@link StrategyEngine#hasPendingWork}), whether to evaluate it or
+ * skip it, instead of a fixed cooldown. A symbol is evaluated when the book has moved enough since its last
+ * evaluation (depth imbalance, best bid/ask, traded volume), but never more often than the minimum interval,
+ * and at least once per maximum interval while bars keep closing. Triggered and suppressed counts are
+ * therefore evaluations run and skipped. Thresholds live in {@link StrategyConfig}; a threshold of 0 turns
+ * that trigger off.
+ * <p>
+ * A symbol's ticks all arrive on one pipeline worker, so per-symbol state needs no locking.
+ */
+public class EvaluationScheduler {
+
+    private static final EvaluationScheduler INSTANCE = new EvaluationScheduler();
+
+    private final Map<Integer, SymbolState> symbols = new ConcurrentHashMap<>();
+    private final Map<EvaluationTrigger, AtomicLong> triggered = new EnumMap<>(EvaluationTrigger.class);
+    private final AtomicLong suppressedMinInterval = new AtomicLong();
+    private final AtomicLong suppressedNoChange = new AtomicLong();
+
+    // Book state as of the symbol's last evaluation
+    private static final class SymbolState {
+        long lastEvaluatedMillis;
+        double imbalance;
+        double bestBid;
+        double bestAsk;
+        long volumeTraded;
+    }
+
+    public EvaluationScheduler() {
+        for (EvaluationTrigger trigger : EvaluationTrigger.values()) triggered.put(trigger, new AtomicLong());
+    }
+
+    public static EvaluationScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the reason to evaluate now, or null to skip this opportunity
+     */
+    public EvaluationTrigger shouldEvaluate(Tick tick, long nowMillis) {
+        SymbolState state = symbols.get(tick.getSecurityId());
+        if (state == null) {
+            state = new SymbolState();
+            symbols.put(tick.getSecurityId(), state);
+            return evaluate(state, tick, nowMillis, EvaluationTrigger.FIRST_TICK);
+        }
+
+        long elapsed = nowMillis - state.lastEvaluatedMillis;
+        if (elapsed < StrategyConfig.getMinEvaluationIntervalMillis()) {
+            suppressedMinInterval.incrementAndGet();
+            return null;
+        }
+        if (elapsed >= StrategyConfig.getMaxEvaluationIntervalMillis()) {
+            return evaluate(state, tick, nowMillis, EvaluationTrigger.MAX_INTERVAL);
+        }
+
+        DepthBook book = tick.getDepthBook();
+        if (book != null) {
+            double imbalanceDelta = StrategyConfig.getImbalanceDeltaThreshold();
+            if (imbalanceDelta > 0 && Math.abs(imbalance(book) - state.imbalance) >= imbalanceDelta) {
+                return evaluate(state, tick, nowMillis, EvaluationTrigger.IMBALANCE);
+            }
+            double priceMove = StrategyConfig.getPriceMoveThreshold();
+            if (priceMove > 0 && (relativeMove(book.getBidPrice(0), state.bestBid) >= priceMove
+                    || relativeMove(book.getAskPrice(0), state.bestAsk) >= priceMove)) {
+                return evaluate(state, tick, nowMillis, EvaluationTrigger.PRICE_MOVE);
+            }
+        }
+        long volume = StrategyConfig.getVolumeThreshold();
+        if (volume > 0 && tick.getVolumeTraded() - state.volumeTraded >= volume) {
+            return evaluate(state, tick, nowMillis, EvaluationTrigger.VOLUME);
+        }
+
+        suppressedNoChange.incrementAndGet();
+        return null;
+    }
+
+    private EvaluationTrigger evaluate(SymbolState state, Tick tick, long nowMillis, EvaluationTrigger trigger) {
+        state.lastEvaluatedMillis = nowMillis;
+        DepthBook book = tick.getDepthBook();
+        if (book != null) {
+            state.imbalance = imbalance(book);
+            state.bestBid = book.getBidPrice(0);
+            state.bestAsk = book.getAskPrice(0);
+        }
+        state.volumeTraded = tick.getVolumeTraded();
+        triggered.get(trigger).incrementAndGet();
+        return trigger;
+    }
+
+    private static double imbalance(DepthBook book) {
+        double bid = book.getTotalBidQuantity(), ask = book.getTotalAskQuantity();
+        return (bid - ask) / (bid + ask + 1e-6);
+    }
+
+    private static double relativeMove(double price, double reference) {
+        if (reference <= 0) return price > 0 ? Double.POSITIVE_INFINITY : 0;
+        return Math.abs(price - reference) / reference;
+    }
+
+    public void clear() {
+        symbols.clear();
+    }
+
+    /**
+     * Evaluations let through per trigger and opportunities skipped, since the last reset.
+     */
+    public Map<String, Object> getStats(boolean reset) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long total = 0;
+        Map<String, Long> byTrigger = new LinkedHashMap<>();
+        for (Map.Entry<EvaluationTrigger, AtomicLong> e : triggered.entrySet()) {
+            long count = reset ? e.getValue().getAndSet(0) : e.getValue().get();
+            byTrigger.put(e.getKey().name(), count);
+            total += count;
+        }
+        long minInterval = reset ? suppressedMinInterval.getAndSet(0) : suppressedMinInterval.get();
+        long noChange = reset ? suppressedNoChange.getAndSet(0) : suppressedNoChange.get();
+        stats.put("triggered", total);
+        stats.put("suppressed", minInterval + noChange);
+        stats.put("triggeredBy", byTrigger);
+        stats.put("suppressedMinInterval", minInterval);
+        stats.put("suppressedNoChange", noChange);
+        stats.put("symbols", symbols.size());
+        return stats;
+    }
+}
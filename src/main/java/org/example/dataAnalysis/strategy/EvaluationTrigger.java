@@ -0,0 +1,12 @@
+package org.example.dataAnalysis.strategy;
+
+/**
+ * Why the {@link EvaluationScheduler} let a tick through to strategy evaluation.
+ */
+public enum EvaluationTrigger {
+    FIRST_TICK,
+    IMBALANCE,
+    PRICE_MOVE,
+    VOLUME,
+    MAX_INTERVAL
+}
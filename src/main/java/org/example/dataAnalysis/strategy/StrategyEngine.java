@@ -0,0 +1,269 @@
+package org.example.dataAnalysis.strategy;
+
+import org.example.config.StrategyConfig;
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.dataAnalysis.depthStrategy.StrategyOne.Signal;
+import org.example.monitoring.LatencyHistogram;
+import org.example.websocket.model.Tick;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs every registered {@link TradingStrategy} for a symbol and merges their signals with the configured
+ * {@link ArbitrationRule}. With more than one strategy the others run on a shared worker pool while the
+ * calling pipeline worker evaluates the first itself, so one slow model does not serialize the rest.
+ * Bar-driven strategies see the bar of their spec that closed since the symbol's previous evaluation; the
+ * pipeline only asks for an evaluation when {@link #hasPendingWork} says there is something new, and a
+ * bar it decides not to evaluate is dropped with {@link #skipPending} and counted, never silently replaced.
+ */
+public class StrategyEngine {
+
+    private static final StrategyEngine INSTANCE = new StrategyEngine(BarEngine.getInstance());
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final BarEngine barEngine;
+    private volatile ExecutorService pool;
+
+    // securityId -> spec key -> latest completed bar not yet evaluated
+    private final Map<Integer, Map<String, Bar>> pendingBars = new ConcurrentHashMap<>();
+    private final AtomicLong barsSkipped = new AtomicLong();    // dropped by skipPending
+    private final AtomicLong barsSuperseded = new AtomicLong(); // replaced by a newer bar before evaluation
+
+    private static final class Registration {
+        final TradingStrategy strategy;
+        final BarSpec barSpec;
+        final LatencyHistogram evalNanos = new LatencyHistogram();
+        final AtomicLong buy = new AtomicLong();
+        final AtomicLong sell = new AtomicLong();
+        final AtomicLong hold = new AtomicLong();
+        final AtomicLong noOpinion = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+
+        Registration(TradingStrategy strategy) {
+            this.strategy = strategy;
+            this.barSpec = strategy.getBarSpec();
+        }
+    }
+
+    public StrategyEngine(BarEngine barEngine) {
+        this.barEngine = barEngine;
+        barEngine.subscribe(null, this::onBar);
+    }
+
+    public static StrategyEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Initializes and adds a strategy; registration order is the priority order used by arbitration.
+     */
+    public synchronized void register(TradingStrategy strategy) throws Exception {
+        for (Registration r : registrations) {
+            if (r.strategy.getName().equals(strategy.getName())) {
+                throw new IllegalArgumentException("Strategy already registered: " + strategy.getName());
+            }
+        }
+        BarSpec spec = strategy.getBarSpec();
+        if (spec != null && !barEngine.getSpecs().contains(spec)) {
+            throw new IllegalArgumentException("Bar spec " + spec.getKey() + " is not produced by the bar engine");
+        }
+        strategy.init();
+        registrations.add(new Registration(strategy));
+        System.out.println("🧩 Strategy registered: " + strategy.getName()
+                + (spec != null ? " on " + spec.getKey() + " bars" : " on ticks"));
+    }
+
+    public synchronized boolean unregister(String name) {
+        return registrations.removeIf(r -> r.strategy.getName().equals(name));
+    }
+
+    public List<String> getStrategyNames() {
+        List<String> names = new ArrayList<>();
+        for (Registration r : registrations) names.add(r.strategy.getName());
+        return names;
+    }
+
+    private void onBar(Bar bar) {
+        for (Registration r : registrations) {
+            if (r.barSpec != null && r.barSpec.getKey().equals(bar.getSpec())) {
+                Bar previous = pendingBars.computeIfAbsent(bar.getSecurityId(), id -> new ConcurrentHashMap<>())
+                        .put(bar.getSpec(), bar);
+                if (previous != null) barsSuperseded.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether an evaluation now would run anything: a bar closed for the symbol since its last evaluation,
+     * or a tick-driven strategy is registered.
+     */
+    public boolean hasPendingWork(int securityId) {
+        Map<String, Bar> pending = pendingBars.get(securityId);
+        if (pending != null && !pending.isEmpty()) return true;
+        for (Registration r : registrations) {
+            if (r.barSpec == null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops the symbol's unevaluated bars, for an evaluation opportunity the caller decided to pass on.
+     */
+    public void skipPending(int securityId) {
+        Map<String, Bar> pending = pendingBars.get(securityId);
+        if (pending == null) return;
+        for (String key : pending.keySet()) {
+            if (pending.remove(key) != null) barsSkipped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evaluates all strategies for the tick's symbol and returns the arbitrated signal. Strategies with
+     * nothing new to look at, that fail, or that exceed the evaluation timeout sit the round out.
+     */
+    public Signal evaluate(Tick tick) {
+        if (tick == null) return Signal.HOLD;
+        List<Registration> active = new ArrayList<>(registrations.size());
+        List<Bar> bars = new ArrayList<>(registrations.size());
+        Map<String, Bar> pending = pendingBars.get(tick.getSecurityId());
+        Map<String, Bar> taken = null;
+        for (Registration r : registrations) {
+            Bar bar = null;
+            if (r.barSpec != null) {
+                if (pending == null) continue;
+                if (taken == null) taken = new HashMap<>();
+                String key = r.barSpec.getKey();
+                bar = taken.containsKey(key) ? taken.get(key) : pending.remove(key);
+                taken.put(key, bar);
+                if (bar == null) continue;
+            }
+            active.add(r);
+            bars.add(bar);
+        }
+        if (active.isEmpty()) return Signal.HOLD;
+
+        Signal[] signals = new Signal[active.size()];
+        if (active.size() == 1) {
+            signals[0] = run(active.get(0), tick, bars.get(0));
+        } else {
+            List<Future<Signal>> futures = new ArrayList<>(active.size() - 1);
+            ExecutorService executor = pool();
+            for (int i = 1; i < active.size(); i++) {
+                Registration r = active.get(i);
+                Bar bar = bars.get(i);
+                futures.add(executor.submit(() -> run(r, tick, bar)));
+            }
+            signals[0] = run(active.get(0), tick, bars.get(0));
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(StrategyConfig.getEvaluationTimeoutMillis());
+            for (int i = 1; i < active.size(); i++) {
+                Future<Signal> future = futures.get(i - 1);
+                try {
+                    signals[i] = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    active.get(i).timeouts.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                } catch (ExecutionException e) {
+                    active.get(i).errors.incrementAndGet();
+                }
+            }
+        }
+
+        int votes = 0;
+        for (Signal signal : signals) {
+            if (signal != null) signals[votes++] = signal;
+        }
+        return StrategyConfig.getArbitration().merge(signals, votes);
+    }
+
+    private Signal run(Registration r, Tick tick, Bar bar) {
+        long start = System.nanoTime();
+        Signal signal;
+        try {
+            signal = bar != null ? r.strategy.onBar(bar) : r.strategy.onTick(tick);
+        } catch (InterruptedException e) {
+            // cancelled after the evaluation timeout, already counted there
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            r.errors.incrementAndGet();
+            System.err.println("❌ Strategy " + r.strategy.getName() + " failed for " + tick.getSecurityId()
+                    + ": " + e.getMessage());
+            return null;
+        } finally {
+            r.evalNanos.record(System.nanoTime() - start);
+        }
+        if (signal == null) r.noOpinion.incrementAndGet();
+        else if (signal == Signal.BUY) r.buy.incrementAndGet();
+        else if (signal == Signal.SELL) r.sell.incrementAndGet();
+        else r.hold.incrementAndGet();
+        return signal;
+    }
+
+    private ExecutorService pool() {
+        ExecutorService executor = pool;
+        if (executor == null) {
+            synchronized (this) {
+                executor = pool;
+                if (executor == null) {
+                    AtomicInteger threadIndex = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(StrategyConfig.getPoolSize(), runnable -> {
+                        Thread thread = new Thread(runnable, "strategy-worker-" + threadIndex.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    pool = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Per-strategy counters since the last reset; reset=true starts a new interval.
+     */
+    public List<StrategyStats> getStats(boolean reset) {
+        List<StrategyStats> stats = new ArrayList<>();
+        for (Registration r : registrations) {
+            LatencyHistogram.Snapshot snapshot = r.evalNanos.snapshot(reset);
+            stats.add(new StrategyStats(
+                    r.strategy.getName(),
+                    r.barSpec != null ? r.barSpec.getKey() : null,
+                    snapshot.getTotalCount(),
+                    counter(r.buy, reset), counter(r.sell, reset), counter(r.hold, reset),
+                    counter(r.noOpinion, reset), counter(r.errors, reset), counter(r.timeouts, reset),
+                    snapshot.getMean() / 1000.0,
+                    snapshot.getValueAtPercentile(99) / 1000.0,
+                    snapshot.getMax() / 1000.0));
+        }
+        return stats;
+    }
+
+    /**
+     * Closed bars that never reached a strategy since the last reset: skipped on request or superseded.
+     */
+    public Map<String, Long> getBarStats(boolean reset) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("barsSkipped", counter(barsSkipped, reset));
+        stats.put("barsSuperseded", counter(barsSuperseded, reset));
+        return stats;
+    }
+
+    private static long counter(AtomicLong value, boolean reset) {
+        return reset ? value.getAndSet(0) : value.get();
+    }
+}
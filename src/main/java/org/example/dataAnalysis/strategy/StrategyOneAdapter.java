@@ -0,0 +1,33 @@
+package org.example.dataAnalysis.strategy;
+
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.dataAnalysis.depthStrategy.StrategyOne;
+import org.example.dataAnalysis.depthStrategy.StrategyOne.Signal;
+
+/**
+ * Order-book imbalance rule ({@link StrategyOne}) evaluated on aggregated tick bars.
+ */
+public class StrategyOneAdapter implements TradingStrategy {
+
+    private final BarSpec barSpec;
+
+    public StrategyOneAdapter(BarSpec barSpec) {
+        this.barSpec = barSpec;
+    }
+
+    @Override
+    public String getName() {
+        return "StrategyOne";
+    }
+
+    @Override
+    public BarSpec getBarSpec() {
+        return barSpec;
+    }
+
+    @Override
+    public Signal onBar(Bar bar) {
+        return StrategyOne.evaluateSignal(bar.getAggregate());
+    }
+}
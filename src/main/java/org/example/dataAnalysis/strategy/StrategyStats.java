@@ -0,0 +1,23 @@
+package org.example.dataAnalysis.strategy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StrategyStats {
+    private String strategy;
+    private String barSpec;
+    private long evaluations;
+    private long buySignals;
+    private long sellSignals;
+    private long holdSignals;
+    private long noOpinion;
+    private long errors;
+    private long timeouts;
+    private double meanUs;
+    private double p99Us;
+    private double maxUs;
+}
@@ -0,0 +1,43 @@
+package org.example.dataAnalysis.strategy;
+
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.dataAnalysis.depthStrategy.StrategyOne.Signal;
+import org.example.dataAnalysis.depthStrategy.StrategyTwo;
+import org.example.dataAnalysis.depthStrategy.machineLearning.backTesting.ModelHolder;
+import org.example.dataAnalysis.features.RollingFeatureEngine;
+
+/**
+ * Global ML model ({@link StrategyTwo}) evaluated on aggregated tick bars.
+ */
+public class StrategyTwoAdapter implements TradingStrategy {
+
+    private final BarSpec barSpec;
+    private final StrategyTwo strategyTwo = new StrategyTwo();
+
+    public StrategyTwoAdapter(BarSpec barSpec) {
+        this.barSpec = barSpec;
+        RollingFeatureEngine.getInstance().captureOn(barSpec);
+    }
+
+    @Override
+    public String getName() {
+        return "StrategyTwo";
+    }
+
+    // Start reading the model now rather than on the first bar
+    @Override
+    public void init() {
+        ModelHolder.getGlobal().reloadIfChanged();
+    }
+
+    @Override
+    public BarSpec getBarSpec() {
+        return barSpec;
+    }
+
+    @Override
+    public Signal onBar(Bar bar) throws Exception {
+        return strategyTwo.evaluateSignal(bar.getAggregate(), RollingFeatureEngine.getInstance().getBarFeatures(bar));
+    }
+}
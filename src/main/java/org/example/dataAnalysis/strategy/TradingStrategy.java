@@ -0,0 +1,44 @@
+package org.example.dataAnalysis.strategy;
+
+import org.example.dataAnalysis.bars.Bar;
+import org.example.dataAnalysis.bars.BarSpec;
+import org.example.dataAnalysis.depthStrategy.StrategyOne.Signal;
+import org.example.websocket.model.Tick;
+
+/**
+ * A strategy plugged into the {@link StrategyEngine}. Implementations may be called for different symbols
+ * from several threads at once, so they must be thread-safe; a symbol is evaluated one round at a time.
+ * Returning null means "no opinion" and keeps the strategy out of arbitration for that round.
+ */
+public interface TradingStrategy {
+
+    String getName();
+
+    /**
+     * Called once when the strategy is registered, e.g. to load a model.
+     */
+    default void init() throws Exception {
+    }
+
+    /**
+     * Bars this strategy consumes through {@link #onBar(Bar)}; null for a tick-driven strategy.
+     */
+    default BarSpec getBarSpec() {
+        return null;
+    }
+
+    /**
+     * Called with the tick being evaluated when {@link #getBarSpec()} is null.
+     */
+    default Signal onTick(Tick tick) throws Exception {
+        return null;
+    }
+
+    /**
+     * Called with the symbol's latest completed bar of {@link #getBarSpec()}, when one closed since the
+     * previous evaluation of that symbol.
+     */
+    default Signal onBar(Bar bar) throws Exception {
+        return null;
+    }
+}
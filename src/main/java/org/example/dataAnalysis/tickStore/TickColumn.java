@@ -0,0 +1,53 @@
+package org.example.dataAnalysis.tickStore;
+
+import org.example.websocket.model.DepthBook;
+
+/**
+ * The columns of a tick store segment, in file order. Each column holds one fixed-width value per tick, or
+ * {@link DepthBook#LEVELS} consecutive sub-columns for the depth fields. Wider columns come first so every
+ * column starts aligned to its own width.
+ */
+public enum TickColumn {
+    LAST_TRADED_TIME(Long.BYTES, 1),
+    LAST_UPDATED_TIME(Long.BYTES, 1),
+    VOLUME_TRADED(Long.BYTES, 1),
+    OI(Long.BYTES, 1),
+    OI_CHANGE(Long.BYTES, 1),
+    LAST_TRADED_PRICE(Float.BYTES, 1),
+    AVERAGE_TRADED_PRICE(Float.BYTES, 1),
+    LAST_TRADED_QUANTITY(Integer.BYTES, 1),
+    TOTAL_BUY_QUANTITY(Integer.BYTES, 1),
+    TOTAL_SELL_QUANTITY(Integer.BYTES, 1),
+    OPEN(Float.BYTES, 1),
+    CLOSE(Float.BYTES, 1),
+    HIGH(Float.BYTES, 1),
+    LOW(Float.BYTES, 1),
+    CHANGE_PERCENT(Float.BYTES, 1),
+    CHANGE_ABSOLUTE(Float.BYTES, 1),
+    FIFTY_TWO_WEEK_HIGH(Float.BYTES, 1),
+    FIFTY_TWO_WEEK_LOW(Float.BYTES, 1),
+    BID_PRICE(Float.BYTES, DepthBook.LEVELS),
+    ASK_PRICE(Float.BYTES, DepthBook.LEVELS),
+    BID_QUANTITY(Integer.BYTES, DepthBook.LEVELS),
+    ASK_QUANTITY(Integer.BYTES, DepthBook.LEVELS),
+    BID_ORDERS(Short.BYTES, DepthBook.LEVELS),
+    ASK_ORDERS(Short.BYTES, DepthBook.LEVELS),
+    TRADABLE(Byte.BYTES, 1),
+    MODE(Byte.BYTES, 1),
+    HAS_DEPTH(Byte.BYTES, 1);
+
+    final int width;
+    final int levels;
+
+    TickColumn(int width, int levels) {
+        this.width = width;
+        this.levels = levels;
+    }
+
+    /**
+     * Bytes per tick across all of this column's sub-columns.
+     */
+    int bytesPerTick() {
+        return width * levels;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.dataAnalysis.tickStore;
+
+import org.example.websocket.model.Tick;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Forward scan over a symbol's segments within a time range. The cursor is a flyweight: after
+ * {@link #next()} the current tick is read column by column through {@link #segment()} and {@link #row()}
+ * (or copied into a reused {@link Tick} with {@link #read(Tick)}), so a scan creates no per-tick objects.
+ * <pre>
+ *   TickCursor cursor = store.cursor(securityId, from, to);
+ *   while (cursor.next()) {
+ *       sum += cursor.segment().lastTradedPrice(cursor.row());
+ *   }
+ * </pre>
+ */
+public class TickCursor {
+
+    private final List<Path> segments;
+    private final long fromSeconds;
+    private final long toSeconds;
+    private int segmentIndex;
+    private TickSegment segment;
+    private int row;
+    private int end;
+
+    TickCursor(List<Path> segments, long fromSeconds, long toSeconds) {
+        this.segments = segments;
+        this.fromSeconds = fromSeconds;
+        this.toSeconds = toSeconds;
+    }
+
+    /**
+     * Advances to the next tick in range.
+     *
+     * @return false once every segment is exhausted
+     */
+    public boolean next() throws IOException {
+        if (segment != null && ++row < end) return true;
+        while (segmentIndex < segments.size()) {
+            segment = TickSegment.open(segments.get(segmentIndex++));
+            if (segment.getCount() == 0 || segment.getLastTradedTime() < fromSeconds
+                    || segment.getFirstTradedTime() >= toSeconds) {
+                continue;
+            }
+            row = segment.lowerBound(fromSeconds);
+            end = segment.lowerBound(toSeconds);
+            if (row < end) return true;
+        }
+        segment = null;
+        return false;
+    }
+
+    public TickSegment segment() {
+        return segment;
+    }
+
+    public int row() {
+        return row;
+    }
+
+    public long lastTradedTime() {
+        return segment.lastTradedTime(row);
+    }
+
+    public float lastTradedPrice() {
+        return segment.lastTradedPrice(row);
+    }
+
+    public void read(Tick into) {
+        segment.read(row, into);
+    }
+}
@@ -0,0 +1,233 @@
+package org.example.dataAnalysis.tickStore;
+
+import org.example.websocket.model.DepthBook;
+import org.example.websocket.model.Tick;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.example.dataAnalysis.tickStore.TickColumn.*;
+import static org.example.dataAnalysis.tickStore.TickStoreFormat.*;
+
+/**
+ * Read-only, memory-mapped view of one segment. Values are read straight out of the mapping by row index,
+ * so scanning a column touches only that column's pages and allocates nothing.
+ */
+public class TickSegment {
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int securityId;
+    private final int count;
+    private final LocalDate day;
+    private final int indexCount;
+    private final long firstTradedTime;
+    private final long lastTradedTime;
+    // Start of each column, and of each depth level within a depth column
+    private final int[] columnStart = new int[TickColumn.values().length];
+
+    private TickSegment(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not a tick store segment: " + path);
+        short version = buffer.getShort(4);
+        if (version != VERSION) throw new IOException("Unsupported tick store version " + version + ": " + path);
+        if (buffer.getShort(6) != DepthBook.LEVELS) throw new IOException("Depth levels differ from this build: " + path);
+        securityId = buffer.getInt(8);
+        count = buffer.getInt(12);
+        day = LocalDate.ofEpochDay(buffer.getInt(16));
+        indexCount = buffer.getInt(24);
+        firstTradedTime = buffer.getLong(32);
+        lastTradedTime = buffer.getLong(40);
+        if (buffer.capacity() < fileSize(count)) throw new IOException("Truncated tick store segment: " + path);
+
+        long offset = dataStart(count);
+        for (TickColumn column : TickColumn.values()) {
+            columnStart[column.ordinal()] = (int) offset;
+            offset += (long) column.bytesPerTick() * count;
+        }
+    }
+
+    public static TickSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Tick store segment over 2 GB: " + path);
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            return new TickSegment(path, mapped);
+        }
+    }
+
+    /**
+     * First row whose lastTradedTime is at or after {@code epochSeconds}; {@link #getCount()} if none.
+     * The sparse index narrows the search to one stride, then a binary search finds the row.
+     */
+    public int lowerBound(long epochSeconds) {
+        if (count == 0 || epochSeconds <= firstTradedTime) return 0;
+        if (epochSeconds > lastTradedTime) return count;
+
+        int lo = 0, hi = indexCount - 1;
+        while (lo < hi) { // last index entry whose time is below epochSeconds
+            int mid = (lo + hi + 1) >>> 1;
+            if (buffer.getLong(HEADER_SIZE + mid * Long.BYTES) < epochSeconds) lo = mid; else hi = mid - 1;
+        }
+        int from = lo * INDEX_STRIDE, to = Math.min(count, from + INDEX_STRIDE);
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (lastTradedTime(mid) < epochSeconds) from = mid + 1; else to = mid;
+        }
+        return from;
+    }
+
+    private int at(TickColumn column, int row) {
+        return columnStart[column.ordinal()] + row * column.width;
+    }
+
+    private int at(TickColumn column, int row, int level) {
+        return columnStart[column.ordinal()] + (level * count + row) * column.width;
+    }
+
+    public long lastTradedTime(int row) {
+        return buffer.getLong(at(LAST_TRADED_TIME, row));
+    }
+
+    public long lastUpdatedTime(int row) {
+        return buffer.getLong(at(LAST_UPDATED_TIME, row));
+    }
+
+    public long volumeTraded(int row) {
+        return buffer.getLong(at(VOLUME_TRADED, row));
+    }
+
+    public float lastTradedPrice(int row) {
+        return buffer.getFloat(at(LAST_TRADED_PRICE, row));
+    }
+
+    public int lastTradedQuantity(int row) {
+        return buffer.getInt(at(LAST_TRADED_QUANTITY, row));
+    }
+
+    public int totalBuyQuantity(int row) {
+        return buffer.getInt(at(TOTAL_BUY_QUANTITY, row));
+    }
+
+    public int totalSellQuantity(int row) {
+        return buffer.getInt(at(TOTAL_SELL_QUANTITY, row));
+    }
+
+    public float open(int row) {
+        return buffer.getFloat(at(OPEN, row));
+    }
+
+    public float high(int row) {
+        return buffer.getFloat(at(HIGH, row));
+    }
+
+    public float low(int row) {
+        return buffer.getFloat(at(LOW, row));
+    }
+
+    public float close(int row) {
+        return buffer.getFloat(at(CLOSE, row));
+    }
+
+    public boolean hasDepth(int row) {
+        return buffer.get(at(HAS_DEPTH, row)) != 0;
+    }
+
+    public float bidPrice(int row, int level) {
+        return buffer.getFloat(at(BID_PRICE, row, level));
+    }
+
+    public float askPrice(int row, int level) {
+        return buffer.getFloat(at(ASK_PRICE, row, level));
+    }
+
+    public int bidQuantity(int row, int level) {
+        return buffer.getInt(at(BID_QUANTITY, row, level));
+    }
+
+    public int askQuantity(int row, int level) {
+        return buffer.getInt(at(ASK_QUANTITY, row, level));
+    }
+
+    /**
+     * Copies a row into an existing tick, reusing its depth book when it has one, so a scan can run on a
+     * single flyweight tick. A row without depth leaves the tick's depth book null.
+     */
+    public void read(int row, Tick into) {
+        into.setSecurityId(securityId);
+        into.setLastTradedTime(lastTradedTime(row));
+        into.setLastUpdatedTime(lastUpdatedTime(row));
+        into.setVolumeTraded(volumeTraded(row));
+        into.setOi(buffer.getLong(at(OI, row)));
+        into.setOiChange(buffer.getLong(at(OI_CHANGE, row)));
+        into.setLastTradedPrice(lastTradedPrice(row));
+        into.setAverageTradedPrice(buffer.getFloat(at(AVERAGE_TRADED_PRICE, row)));
+        into.setLastTradedQuantity(lastTradedQuantity(row));
+        into.setTotalBuyQuantity(totalBuyQuantity(row));
+        into.setTotalSellQuantity(totalSellQuantity(row));
+        into.setOpen(open(row));
+        into.setClose(close(row));
+        into.setHigh(high(row));
+        into.setLow(low(row));
+        into.setChangePercent(buffer.getFloat(at(CHANGE_PERCENT, row)));
+        into.setChangeAbsolute(buffer.getFloat(at(CHANGE_ABSOLUTE, row)));
+        into.setFiftyTwoWeekHigh(buffer.getFloat(at(FIFTY_TWO_WEEK_HIGH, row)));
+        into.setFiftyTwoWeekLow(buffer.getFloat(at(FIFTY_TWO_WEEK_LOW, row)));
+        into.setTradable(buffer.get(at(TRADABLE, row)));
+        into.setMode(buffer.get(at(MODE, row)));
+
+        if (!hasDepth(row)) {
+            into.setDepthBook(null);
+            return;
+        }
+        DepthBook book = into.getDepthBook();
+        if (book == null) {
+            book = new DepthBook();
+            into.setDepthBook(book);
+        }
+        for (int level = 0; level < DepthBook.LEVELS; level++) {
+            book.setLevel(level, bidQuantity(row, level), askQuantity(row, level),
+                    buffer.getShort(at(BID_ORDERS, row, level)), buffer.getShort(at(ASK_ORDERS, row, level)),
+                    bidPrice(row, level), askPrice(row, level));
+        }
+    }
+
+    /**
+     * A new tick for a row; for callers that keep ticks, such as the list-based backtesters.
+     */
+    public Tick toTick(int row) {
+        Tick tick = new Tick();
+        read(row, tick);
+        return tick;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getSecurityId() {
+        return securityId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getFirstTradedTime() {
+        return firstTradedTime;
+    }
+
+    public long getLastTradedTime() {
+        return lastTradedTime;
+    }
+}
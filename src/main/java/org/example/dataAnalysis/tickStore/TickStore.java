@@ -0,0 +1,103 @@
+package org.example.dataAnalysis.tickStore;
+
+import org.example.websocket.model.Tick;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.dataAnalysis.tickStore.TickStoreFormat.FILE_SUFFIX;
+
+/**
+ * Binary, per-symbol, per-day tick history under one root directory; see {@link TickStoreFormat}.
+ * Written by {@link TickStoreWriter}, read through {@link TickCursor} or, for list-based callers,
+ * {@link #loadTicks(int)}.
+ */
+public class TickStore {
+
+    public static final String DIRECTORY_NAME = "tickStore";
+
+    private final Path root;
+
+    public TickStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * The store kept beside a directory of JSON tick dumps, given a path prefix inside that directory
+     * such as {@code .../trainingData/compressedTickDump_}.
+     */
+    public static TickStore beside(String jsonBasePath) {
+        Path parent = Paths.get(jsonBasePath).toAbsolutePath().getParent();
+        return new TickStore(parent.resolve(DIRECTORY_NAME));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path segmentPath(int securityId, LocalDate day) {
+        return root.resolve(Integer.toString(securityId)).resolve(day + FILE_SUFFIX);
+    }
+
+    /**
+     * A symbol's segment files, oldest day first.
+     */
+    public List<Path> getSegments(int securityId) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path directory = root.resolve(Integer.toString(securityId));
+        if (!Files.isDirectory(directory)) return files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    public boolean hasSymbol(int securityId) throws IOException {
+        return !getSegments(securityId).isEmpty();
+    }
+
+    public List<Integer> getSymbols() throws IOException {
+        List<Integer> symbols = new ArrayList<>();
+        if (!Files.isDirectory(root)) return symbols;
+        try (Stream<Path> listing = Files.list(root)) {
+            listing.map(p -> p.getFileName().toString())
+                    .filter(name -> name.chars().allMatch(Character::isDigit))
+                    .map(Integer::valueOf)
+                    .sorted()
+                    .forEach(symbols::add);
+        }
+        return symbols;
+    }
+
+    public TickCursor cursor(int securityId) throws IOException {
+        return new TickCursor(getSegments(securityId), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Ticks with {@code fromSeconds <= lastTradedTime < toSeconds}.
+     */
+    public TickCursor cursor(int securityId, long fromSeconds, long toSeconds) throws IOException {
+        return new TickCursor(getSegments(securityId), fromSeconds, toSeconds);
+    }
+
+    /**
+     * Every stored tick of a symbol as objects, in feed order: the symbol's JSON dump without its
+     * never-traded (lastTradedTime 0) rows.
+     */
+    public List<Tick> loadTicks(int securityId) throws IOException {
+        List<Tick> ticks = new ArrayList<>();
+        for (Path path : getSegments(securityId)) {
+            TickSegment segment = TickSegment.open(path);
+            for (int row = 0; row < segment.getCount(); row++) ticks.add(segment.toTick(row));
+        }
+        return ticks;
+    }
+}
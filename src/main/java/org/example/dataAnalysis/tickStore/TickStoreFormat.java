@@ -0,0 +1,49 @@
+package org.example.dataAnalysis.tickStore;
+
+import java.time.ZoneId;
+
+/**
+ * On-disk layout of a tick store segment: all ticks of one symbol for one trading day (little-endian).
+ * <pre>
+ *   header : int magic, short version, short depthLevels, int securityId, int count, int epochDay,
+ *            int indexStride, int indexCount, int reserved, long firstTradedTime, long lastTradedTime,
+ *            padding to {@link #HEADER_SIZE}
+ *   index  : long lastTradedTime of every indexStride-th tick
+ *   columns: for each {@link TickColumn} in order, count values (times levels for depth columns,
+ *            level 0 first)
+ * </pre>
+ * Ticks are in feed order and times are epoch seconds, as on the feed; firstTradedTime and lastTradedTime
+ * are the segment's earliest and latest. Time range lookups binary-search the lastTradedTime column, which
+ * the feed delivers nondecreasing within a session; a stray out-of-order tick is kept where it arrived and
+ * found by position, not by time. Segments live at {@code <root>/<securityId>/<yyyy-MM-dd>.ticks}, where the
+ * day is the trading day {@link TickStoreWriter} assigned (pre-open ticks stay with the previous session).
+ */
+public final class TickStoreFormat {
+
+    public static final int MAGIC = 0x54534B54; // "TKST"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int INDEX_STRIDE = 256;
+    public static final String FILE_SUFFIX = ".ticks";
+    public static final ZoneId ZONE_ID = ZoneId.of("Asia/Kolkata");
+
+    private TickStoreFormat() {
+    }
+
+    static int indexCount(int count) {
+        return (count + INDEX_STRIDE - 1) / INDEX_STRIDE;
+    }
+
+    /**
+     * Offset of the first column; header and index are whole longs, so columns start 8-byte aligned.
+     */
+    static long dataStart(int count) {
+        return HEADER_SIZE + (long) Long.BYTES * indexCount(count);
+    }
+
+    static long fileSize(int count) {
+        long size = dataStart(count);
+        for (TickColumn column : TickColumn.values()) size += (long) column.bytesPerTick() * count;
+        return size;
+    }
+}
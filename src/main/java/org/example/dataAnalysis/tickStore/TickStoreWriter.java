@@ -0,0 +1,223 @@
+package org.example.dataAnalysis.tickStore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.websocket.model.DepthBook;
+import org.example.websocket.model.Tick;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.example.dataAnalysis.tickStore.TickStoreFormat.*;
+
+/**
+ * Groups ticks by symbol and trading day and writes each group as one segment as soon as the symbol's next
+ * day begins, the rest on {@link #close()}; only each symbol's current day is held in memory. The ticks
+ * written for a symbol become its whole stored history, replacing every existing segment of that symbol
+ * (days no longer covered are deleted on close), the same way re-splitting truncates and rewrites the
+ * per-symbol JSON dumps.
+ * <p>
+ * Ticks keep the order they were appended in, so reading a symbol's segments oldest first gives back its
+ * JSON dump line for line, less the rows dropped below. The feed carries no receive time, so a symbol's day
+ * moves on with the first tick traded on a later IST day: pre-open ticks still carrying the previous
+ * session's lastTradedTime stay at the end of that session's segment, and a tick whose day is behind the
+ * current one joins the current segment rather than reopening an earlier one. Ticks without a
+ * lastTradedTime (0, i.e. never traded) have no day and are not stored; see {@link #getTicksDropped()}.
+ */
+public class TickStoreWriter implements Closeable {
+
+    private final TickStore store;
+    private final Map<Integer, SymbolDay> pending = new HashMap<>();
+    private int segmentsWritten;
+    private long ticksDropped;
+
+    // A symbol's day being filled, and the segments already written for it
+    private static final class SymbolDay {
+        LocalDate day;
+        List<Tick> ticks = new ArrayList<>();
+        final List<Path> written = new ArrayList<>();
+
+        SymbolDay(LocalDate day) {
+            this.day = day;
+        }
+    }
+
+    public TickStoreWriter(TickStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @throws IOException if writing the segment of the symbol's previous day fails
+     */
+    public void append(Tick tick) throws IOException {
+        if (tick.getLastTradedTime() <= 0) {
+            ticksDropped++;
+            return;
+        }
+        LocalDate day = Instant.ofEpochSecond(tick.getLastTradedTime()).atZone(ZONE_ID).toLocalDate();
+        SymbolDay symbol = pending.get(tick.getSecurityId());
+        if (symbol == null) {
+            symbol = new SymbolDay(day);
+            pending.put(tick.getSecurityId(), symbol);
+        } else if (day.isAfter(symbol.day)) {
+            flush(tick.getSecurityId(), symbol); // days never go back, so the previous one is complete
+            symbol.day = day;
+        }
+        symbol.ticks.add(tick);
+    }
+
+    private void flush(int securityId, SymbolDay symbol) throws IOException {
+        Path path = store.segmentPath(securityId, symbol.day);
+        writeSegment(path, securityId, symbol.day, symbol.ticks);
+        symbol.written.add(path);
+        symbol.ticks = new ArrayList<>();
+        segmentsWritten++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Map.Entry<Integer, SymbolDay> entry : pending.entrySet()) {
+            SymbolDay symbol = entry.getValue();
+            if (!symbol.ticks.isEmpty()) flush(entry.getKey(), symbol);
+            // Days the new data no longer covers go only after the new segments are in place
+            for (Path stale : store.getSegments(entry.getKey())) {
+                if (!symbol.written.contains(stale)) Files.delete(stale);
+            }
+        }
+        pending.clear();
+    }
+
+    public int getSegmentsWritten() {
+        return segmentsWritten;
+    }
+
+    /**
+     * Ticks not stored because they had no lastTradedTime.
+     */
+    public long getTicksDropped() {
+        return ticksDropped;
+    }
+
+    static void writeSegment(Path path, int securityId, LocalDate day, List<Tick> ticks) throws IOException {
+        int count = ticks.size();
+        long firstTradedTime = Long.MAX_VALUE, lastTradedTime = Long.MIN_VALUE;
+        for (Tick tick : ticks) {
+            firstTradedTime = Math.min(firstTradedTime, tick.getLastTradedTime());
+            lastTradedTime = Math.max(lastTradedTime, tick.getLastTradedTime());
+        }
+        long size = fileSize(count);
+        if (size > Integer.MAX_VALUE) throw new IOException("Segment for " + securityId + " on " + day + " exceeds 2 GB");
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        int indexCount = indexCount(count);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) DepthBook.LEVELS)
+                .putInt(securityId).putInt(count).putInt((int) day.toEpochDay())
+                .putInt(INDEX_STRIDE).putInt(indexCount).putInt(0)
+                .putLong(count == 0 ? 0 : firstTradedTime)
+                .putLong(count == 0 ? 0 : lastTradedTime);
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < indexCount; i++) buffer.putLong(ticks.get(i * INDEX_STRIDE).getLastTradedTime());
+
+        for (TickColumn column : TickColumn.values()) {
+            for (int level = 0; level < column.levels; level++) {
+                for (Tick tick : ticks) put(buffer, column, level, tick);
+            }
+        }
+
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void put(ByteBuffer buffer, TickColumn column, int level, Tick tick) {
+        DepthBook book = tick.getDepthBook();
+        switch (column) {
+            case LAST_TRADED_TIME -> buffer.putLong(tick.getLastTradedTime());
+            case LAST_UPDATED_TIME -> buffer.putLong(tick.getLastUpdatedTime());
+            case VOLUME_TRADED -> buffer.putLong(tick.getVolumeTraded());
+            case OI -> buffer.putLong(tick.getOi());
+            case OI_CHANGE -> buffer.putLong(tick.getOiChange());
+            case LAST_TRADED_PRICE -> buffer.putFloat(tick.getLastTradedPrice());
+            case AVERAGE_TRADED_PRICE -> buffer.putFloat(tick.getAverageTradedPrice());
+            case LAST_TRADED_QUANTITY -> buffer.putInt(tick.getLastTradedQuantity());
+            case TOTAL_BUY_QUANTITY -> buffer.putInt(tick.getTotalBuyQuantity());
+            case TOTAL_SELL_QUANTITY -> buffer.putInt(tick.getTotalSellQuantity());
+            case OPEN -> buffer.putFloat(tick.getOpen());
+            case CLOSE -> buffer.putFloat(tick.getClose());
+            case HIGH -> buffer.putFloat(tick.getHigh());
+            case LOW -> buffer.putFloat(tick.getLow());
+            case CHANGE_PERCENT -> buffer.putFloat(tick.getChangePercent());
+            case CHANGE_ABSOLUTE -> buffer.putFloat(tick.getChangeAbsolute());
+            case FIFTY_TWO_WEEK_HIGH -> buffer.putFloat(tick.getFiftyTwoWeekHigh());
+            case FIFTY_TWO_WEEK_LOW -> buffer.putFloat(tick.getFiftyTwoWeekLow());
+            case BID_PRICE -> buffer.putFloat(book == null ? 0 : book.getBidPrice(level));
+            case ASK_PRICE -> buffer.putFloat(book == null ? 0 : book.getAskPrice(level));
+            case BID_QUANTITY -> buffer.putInt(book == null ? 0 : book.getBidQuantity(level));
+            case ASK_QUANTITY -> buffer.putInt(book == null ? 0 : book.getAskQuantity(level));
+            case BID_ORDERS -> buffer.putShort(book == null ? 0 : book.getBidOrders(level));
+            case ASK_ORDERS -> buffer.putShort(book == null ? 0 : book.getAskOrders(level));
+            case TRADABLE -> buffer.put(tick.getTradable());
+            case MODE -> buffer.put(tick.getMode());
+            case HAS_DEPTH -> buffer.put((byte) (book == null ? 0 : 1));
+        }
+    }
+
+    /**
+     * Imports a JSON-lines tick dump (one {@link Tick} per line) into the store.
+     *
+     * @return number of ticks imported
+     */
+    public static int importJsonLines(Path jsonFile, TickStore store) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        int imported = 0;
+        try (BufferedReader reader = Files.newBufferedReader(jsonFile);
+             TickStoreWriter writer = new TickStoreWriter(store)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                writer.append(mapper.readValue(line, Tick.class));
+                imported++;
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Imports every compressedTickDump_*.json in the given directories (default: the training and testing
+     * data directories) into the tickStore directory beside them.
+     */
+    public static void main(String[] args) throws IOException {
+        String[] directories = args.length > 0 ? args : new String[] {
+                "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData",
+                "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/testingData"};
+        for (String directory : directories) {
+            Path dir = Paths.get(directory);
+            if (!Files.isDirectory(dir)) continue;
+            TickStore store = new TickStore(dir.resolve(TickStore.DIRECTORY_NAME));
+            List<Path> dumps = new ArrayList<>();
+            try (Stream<Path> listing = Files.list(dir)) {
+                listing.filter(p -> p.getFileName().toString().matches("compressedTickDump_\\d+\\.json"))
+                        .sorted()
+                        .forEach(dumps::add);
+            }
+            for (Path dump : dumps) {
+                int ticks = importJsonLines(dump, store);
+                System.out.println("✅ Imported " + ticks + " ticks from " + dump.getFileName() + " into " + store.getRoot());
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.logger;
 
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.bars.BarWebSocketHandler;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -13,5 +15,7 @@ public class WebSocketConfig implements WebSocketConfigurer {
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(new LogWebSocketHandler(), "/logs-stream")
                 .setAllowedOrigins("*"); // Adjust CORS as needed
+        registry.addHandler(new BarWebSocketHandler(BarEngine.getInstance()), "/bars-stream")
+                .setAllowedOrigins("*");
     }
 }
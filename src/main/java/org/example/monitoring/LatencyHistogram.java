@@ -0,0 +1,108 @@
+package org.example.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear nanosecond histogram in the spirit of HdrHistogram: exact below 128ns, then 64 sub-buckets
+ * per power of two (under 1.6% relative error), up to ~18 minutes. Recording is a couple of atomic
+ * adds on pre-allocated counters, safe from any thread, and never allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF_COUNT = SUB_COUNT / 2;
+    private static final long MAX_TRACKABLE = (1L << 40) - 1;
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long value = Math.min(nanos, MAX_TRACKABLE);
+        counts.incrementAndGet(indexOf(value));
+        long currentMax;
+        while (nanos > (currentMax = max.get()) && !max.compareAndSet(currentMax, nanos)) {
+            // retry
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        int sub = (int) (value >>> shift);
+        return SUB_COUNT + (shift - 1) * HALF_COUNT + (sub - HALF_COUNT);
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < SUB_COUNT) return index;
+        int k = index - SUB_COUNT;
+        int shift = k / HALF_COUNT + 1;
+        long sub = k % HALF_COUNT + HALF_COUNT;
+        return sub << shift;
+    }
+
+    static long highestValueAt(int index) {
+        return lowestValueAt(index + 1) - 1;
+    }
+
+    /**
+     * Copies the counts out; with {@code reset} each count is moved into the snapshot atomically,
+     * so concurrent recordings land in either this interval or the next, never in neither.
+     */
+    public Snapshot snapshot(boolean reset) {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+            total += copy[i];
+        }
+        long maxValue = reset ? max.getAndSet(0) : max.get();
+        return new Snapshot(copy, total, maxValue);
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long totalCount;
+        private final long max;
+
+        private Snapshot(long[] counts, long totalCount, long max) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.max = max;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Upper edge of the bucket holding the given percentile (0–100), capped at the recorded max.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestValueAt(i), max);
+            }
+            return max;
+        }
+
+        public double getMean() {
+            if (totalCount == 0) return 0;
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) sum += counts[i] * (double) ((lowestValueAt(i) + highestValueAt(i)) / 2);
+            }
+            return sum / totalCount;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.monitoring;
+
+import org.example.monitoring.LatencyHistogram.Snapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide per-stage latency histograms. Stages that span several calls (an order placed while
+ * handling a tick) pick up the tick's receive time from {@link #beginTick(long)} on the same thread.
+ */
+public class LatencyRecorder {
+
+    private static final LatencyRecorder INSTANCE = new LatencyRecorder();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[LatencyStage.values().length];
+    private final ThreadLocal<long[]> currentTick = ThreadLocal.withInitial(() -> new long[1]);
+    private volatile long intervalStartMillis = System.currentTimeMillis();
+
+    private LatencyRecorder() {
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+    }
+
+    public static LatencyRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records {@code endNanos - startNanos}; a zero start means the timestamp was never captured
+     * (e.g. simulated ticks) and the sample is skipped.
+     */
+    public void record(LatencyStage stage, long startNanos, long endNanos) {
+        if (startNanos == 0) return;
+        histograms[stage.ordinal()].record(endNanos - startNanos);
+    }
+
+    /**
+     * Marks the tick being handled on this thread so downstream stages can measure from its receive time.
+     */
+    public void beginTick(long receivedNanos) {
+        currentTick.get()[0] = receivedNanos;
+    }
+
+    public void endTick() {
+        currentTick.get()[0] = 0;
+    }
+
+    /**
+     * Receive time of the tick being handled on this thread, or 0 outside tick handling.
+     */
+    public long currentTickNanos() {
+        return currentTick.get()[0];
+    }
+
+    /**
+     * p50/p99/p99.9/max per stage in microseconds since the last reset.
+     */
+    public Map<String, Object> report(boolean reset) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("intervalMs", now - intervalStartMillis);
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (LatencyStage stage : LatencyStage.values()) {
+            Snapshot snapshot = histograms[stage.ordinal()].snapshot(reset);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", snapshot.getTotalCount());
+            row.put("meanUs", micros(snapshot.getMean()));
+            row.put("p50Us", micros(snapshot.getValueAtPercentile(50)));
+            row.put("p99Us", micros(snapshot.getValueAtPercentile(99)));
+            row.put("p999Us", micros(snapshot.getValueAtPercentile(99.9)));
+            row.put("maxUs", micros(snapshot.getMax()));
+            stages.put(stage.name(), row);
+        }
+        report.put("stages", stages);
+        if (reset) intervalStartMillis = now;
+        return report;
+    }
+
+    private static double micros(double nanos) {
+        return Math.round(nanos / 10.0) / 100.0;
+    }
+}
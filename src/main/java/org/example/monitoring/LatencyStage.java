@@ -0,0 +1,17 @@
+package org.example.monitoring;
+
+/**
+ * Measured segments of the tick-to-trade path. Per-stage entries time one step;
+ * the TICK_TO_* entries run from the moment the frame was received.
+ */
+public enum LatencyStage {
+    PARSE,             // frame received → frame decoded
+    QUEUE_WAIT,        // frame decoded → picked up by a strategy worker
+    HISTORY_UPDATE,    // DepthPacketHistoryManager.addTick
+    STRATEGY,          // StrategyManager.strategySelector
+    TRADE_ANALYSIS,    // TradeAnalysis.evaluateTradeAction
+    ORDER_ROUNDTRIP,   // placeNormalOrder request sent → broker response
+    TICK_TO_DECISION,  // frame received → evaluateTradeAction returned
+    TICK_TO_ORDER,     // frame received → placeNormalOrder request sent
+    TICK_TO_TRADE      // frame received → broker acknowledged the order
+}
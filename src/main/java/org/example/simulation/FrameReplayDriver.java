@@ -0,0 +1,121 @@
+package org.example.simulation;
+
+import org.example.monitoring.LatencyRecorder;
+import org.example.monitoring.LatencyStage;
+import org.example.websocket.WebSocketParser;
+import org.example.websocket.listeners.OnMessageListener;
+import org.example.websocket.model.Tick;
+import org.example.websocket.recording.FrameCaptureReader;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feeds recorded raw frames back through {@link WebSocketParser}, as if they had arrived on the live socket.
+ * A speed of 1.0 keeps the recorded inter-arrival gaps, N divides them by N, and 0 (or less) replays
+ * as fast as the consumer can take them. Gaps are measured on wall-clock receive time, so a directory holding
+ * several recording sessions paces across segment boundaries too (the time between sessions is replayed).
+ */
+public class FrameReplayDriver implements Runnable {
+
+    private final Path capture;
+    private final double speed;
+    private final OnMessageListener listener;
+    private final WebSocketParser parser = new WebSocketParser();
+
+    private volatile boolean running = true;
+    private volatile long framesReplayed;
+    private volatile long ticksReplayed;
+    private volatile long elapsedNanos;
+    private volatile boolean finished;
+
+    public FrameReplayDriver(Path capture, double speed, OnMessageListener listener) {
+        this.capture = capture;
+        this.speed = speed;
+        this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+        long frames = 0, ticks = 0;
+        long startNanos = System.nanoTime();
+        try {
+            FrameCaptureReader reader = FrameCaptureReader.open(capture);
+            System.out.println("⏯️ Replaying " + reader.segmentCount() + " capture segment(s) from " + capture
+                    + (speed > 0 ? " at " + speed + "x" : " at max speed"));
+            long firstRecorded = 0;
+
+            while (running && reader.next()) {
+                if (speed > 0) {
+                    if (frames == 0) {
+                        firstRecorded = reader.receiveEpochNanos();
+                    } else {
+                        long due = startNanos + (long) ((reader.receiveEpochNanos() - firstRecorded) / speed);
+                        long wait;
+                        while (running && (wait = due - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                }
+
+                long receivedNanos = System.nanoTime();
+                ArrayList<Tick> parsed = parser.parse(reader.frame());
+                long parsedNanos = System.nanoTime();
+                LatencyRecorder.getInstance().record(LatencyStage.PARSE, receivedNanos, parsedNanos);
+                for (int i = 0, n = parsed.size(); i < n; i++) {
+                    parsed.get(i).setReceivedNanos(receivedNanos);
+                    parsed.get(i).setParsedNanos(parsedNanos);
+                }
+                if (!parsed.isEmpty()) {
+                    listener.onMessage(parsed);
+                }
+                frames++;
+                ticks += parsed.size();
+                framesReplayed = frames;
+                ticksReplayed = ticks;
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Replay failed: " + e.getMessage());
+        } finally {
+            elapsedNanos = System.nanoTime() - startNanos;
+            finished = true;
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("⏹️ Replay done: %d frames, %d ticks in %.3fs (%.0f frames/s, %.0f ticks/s)%n",
+                    frames, ticks, seconds, frames / seconds, ticks / seconds);
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public long getFramesReplayed() {
+        return framesReplayed;
+    }
+
+    public long getTicksReplayed() {
+        return ticksReplayed;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public long getElapsedNanos() {
+        return finished ? elapsedNanos : 0;
+    }
+
+    /**
+     * Parser-only throughput run: {@code FrameReplayDriver <capture file or dir> [speed]}.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: FrameReplayDriver <capture file or dir> [speed, 0 = max]");
+            return;
+        }
+        double speed = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+        new FrameReplayDriver(Paths.get(args[0]), speed, ticks -> { }).run();
+    }
+}
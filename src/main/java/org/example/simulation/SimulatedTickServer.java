@@ -1,6 +1,6 @@
 package org.example.simulation;
 
-import org.example.websocket.model.DepthPacket;
+import org.example.websocket.model.DepthBook;
 import org.example.websocket.model.Tick;
 
 import java.util.*;
@@ -36,20 +36,20 @@ public class SimulatedTickServer {
         float ltp = 100 + random.nextFloat() * 20;
         float step = 0.1f;
 
-        List<DepthPacket> depth = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            depth.add(new DepthPacket(i, random.nextInt(200), random.nextInt(200), (short) 1, (short) 1,
-                    ltp - (i + 1) * step, ltp + (i + 1) * step));
+        DepthBook depth = new DepthBook();
+        for (int i = 0; i < DepthBook.LEVELS; i++) {
+            depth.setLevel(i, random.nextInt(200), random.nextInt(200), (short) 1, (short) 1,
+                    ltp - (i + 1) * step, ltp + (i + 1) * step);
         }
 
         return Tick.builder()
                 .securityId(symbolId)
                 .lastTradedPrice(ltp)
-                .lastUpdatedTime(System.currentTimeMillis())
-                .lastTradedTime(System.currentTimeMillis())
+                .lastUpdatedTime(System.currentTimeMillis() / 1000) // epoch seconds, like the live feed
+                .lastTradedTime(System.currentTimeMillis() / 1000)
                 .lastTradedQuantity(random.nextInt(50))
                 .volumeTraded(random.nextInt(10000))
-                .mbpRowPacket(depth)
+                .depthBook(depth)
                 .build();
     }
 }
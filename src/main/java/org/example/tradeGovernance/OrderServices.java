@@ -1,6 +1,8 @@
 package org.example.tradeGovernance;
 
 import org.example.Main;
+import org.example.monitoring.LatencyRecorder;
+import org.example.monitoring.LatencyStage;
 import org.example.tradeGovernance.model.*;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
@@ -75,6 +77,11 @@ public class OrderServices {
             System.out.println("📤 Placing Normal Order → " + request.getSecurityId() + " | Type: " + request.getOrderType());
             HttpEntity<NormalOrderRequest> entity = buildEntity(request);
 
+            LatencyRecorder latency = LatencyRecorder.getInstance();
+            long tickNanos = latency.currentTickNanos();
+            long sentNanos = System.nanoTime();
+            latency.record(LatencyStage.TICK_TO_ORDER, tickNanos, sentNanos);
+
             ResponseEntity<NormalOrderResponse> response = restTemplate.exchange(
                     NORMAL_ORDER_URL,
                     HttpMethod.POST,
@@ -82,6 +89,10 @@ public class OrderServices {
                     NormalOrderResponse.class
             );
 
+            long ackNanos = System.nanoTime();
+            latency.record(LatencyStage.ORDER_ROUNDTRIP, sentNanos, ackNanos);
+            latency.record(LatencyStage.TICK_TO_TRADE, tickNanos, ackNanos);
+
             NormalOrderResponse body = response.getBody();
             if (response.getStatusCode().is2xxSuccessful() && body != null) {
                 System.out.println("✅ Normal Order Placed: " + body.getMessage());
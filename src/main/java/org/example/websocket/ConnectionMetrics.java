@@ -0,0 +1,66 @@
+package org.example.websocket;
+
+import org.example.websocket.model.ConnectionStats;
+
+/**
+ * Per-connection feed counters. Written only by the connection's I/O thread, read by the stats endpoint.
+ * Rates are measured over roughly one-second windows.
+ */
+public class ConnectionMetrics {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private volatile long frames;
+    private volatile long ticks;
+    private volatile long bytes;
+    private volatile long lastExchangeLagMs;
+    private volatile long maxExchangeLagMs;
+    private volatile long lastFrameMillis;
+
+    private long windowStartNanos = System.nanoTime();
+    private long windowFrames;
+    private long windowTicks;
+    private long windowHandleNanos;
+    private volatile double framesPerSecond;
+    private volatile double ticksPerSecond;
+    private volatile double avgHandleMicros;
+
+    /**
+     * @param newestExchangeSeconds latest exchange timestamp (epoch seconds) in the frame, 0 if it had none
+     */
+    void onFrame(int frameBytes, int frameTicks, long newestExchangeSeconds, long receiveNanos, long doneNanos) {
+        long nowMillis = System.currentTimeMillis();
+        frames++;
+        ticks += frameTicks;
+        bytes += frameBytes;
+        lastFrameMillis = nowMillis;
+        if (newestExchangeSeconds > 0) {
+            long lag = Math.max(0, nowMillis - newestExchangeSeconds * 1000);
+            lastExchangeLagMs = lag;
+            if (lag > maxExchangeLagMs) maxExchangeLagMs = lag;
+        }
+
+        windowFrames++;
+        windowTicks += frameTicks;
+        windowHandleNanos += doneNanos - receiveNanos;
+        long elapsed = doneNanos - windowStartNanos;
+        if (elapsed >= WINDOW_NANOS) {
+            framesPerSecond = windowFrames * 1e9 / elapsed;
+            ticksPerSecond = windowTicks * 1e9 / elapsed;
+            avgHandleMicros = windowHandleNanos / 1e3 / windowFrames;
+            windowStartNanos = doneNanos;
+            windowFrames = 0;
+            windowTicks = 0;
+            windowHandleNanos = 0;
+        }
+    }
+
+    ConnectionStats snapshot(int connectionId, boolean open, int subscriptions) {
+        long last = lastFrameMillis;
+        long age = last == 0 ? -1 : System.currentTimeMillis() - last;
+        boolean quiet = age < 0 || age > 2 * WINDOW_NANOS / 1_000_000; // rates only refresh when frames arrive
+        return new ConnectionStats(connectionId, open, subscriptions, frames, ticks, bytes,
+                quiet ? 0 : framesPerSecond, quiet ? 0 : ticksPerSecond, lastExchangeLagMs, maxExchangeLagMs,
+                avgHandleMicros, age);
+    }
+}
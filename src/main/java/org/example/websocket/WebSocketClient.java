@@ -2,20 +2,23 @@ package org.example.websocket;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.monitoring.LatencyRecorder;
+import org.example.monitoring.LatencyStage;
 import org.example.websocket.listeners.OnCloseListener;
 import org.example.websocket.listeners.OnErrorListener;
 import org.example.websocket.listeners.OnMessageListener;
 import org.example.websocket.listeners.OnOpenListener;
-import org.example.websocket.model.DepthPacket;
+import org.example.websocket.listeners.OnTickViewListener;
+import org.example.websocket.model.ConnectionStats;
 import org.example.websocket.model.PreferenceDto;
 import org.example.websocket.model.Tick;
+import org.example.websocket.model.TickView;
+import org.example.websocket.recording.FrameRecorder;
 
 import javax.websocket.*;
 import java.io.IOException;
 import java.net.URI;
-import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +27,8 @@ public class WebSocketClient {
 
     private Session session;
     private final String accessToken;
+    private final int connectionId;
+    private final ConnectionMetrics metrics = new ConnectionMetrics();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // Listener interfaces
@@ -31,10 +36,21 @@ public class WebSocketClient {
     private OnCloseListener onCloseListener;
     private OnErrorListener onErrorListener;
     private OnMessageListener onMessageListener;
+    private OnTickViewListener onTickViewListener;
     private WebSocketParser webSocketParser = new WebSocketParser();
+    private final TickView tickView = new TickView();
+    private FrameRecorder frameRecorder;
 
     public WebSocketClient(String accessToken) {
+        this(accessToken, 0);
+    }
+
+    /**
+     * @param connectionId index of this session when the feed is spread over several connections
+     */
+    public WebSocketClient(String accessToken, int connectionId) {
         this.accessToken = accessToken;
+        this.connectionId = connectionId;
     }
 
     // Establish connection to the WebSocket server using JWT token
@@ -75,19 +91,36 @@ public class WebSocketClient {
     // Triggered when a binary message is received from WebSocket
     @OnMessage
     public void onMessage(ByteBuffer buffer) throws Exception {
+        long receiveNanos = System.nanoTime();
+        int frameBytes = buffer.remaining();
+        if (frameRecorder != null) {
+            frameRecorder.record(buffer, receiveNanos); // raw bytes, before anything is decoded
+        }
+
+        // Flyweight mode: decode in place, no Tick objects unless the listener asks for them
+        if (onTickViewListener != null) {
+            int count = webSocketParser.parse(buffer, tickView, onTickViewListener);
+            metrics.onFrame(frameBytes, count, 0, receiveNanos, System.nanoTime());
+            return;
+        }
 
-        List<Tick> ticks = webSocketParser.parse(buffer); // Parse binary stream into Tick DTOs
+        ArrayList<Tick> ticks = webSocketParser.parse(buffer); // Parse binary stream into Tick DTOs
+        long parsedNanos = System.nanoTime();
+        LatencyRecorder.getInstance().record(LatencyStage.PARSE, receiveNanos, parsedNanos);
+        long newestExchangeTime = 0;
+        for (int i = 0, n = ticks.size(); i < n; i++) {
+            Tick tick = ticks.get(i);
+            tick.setReceivedNanos(receiveNanos);
+            tick.setParsedNanos(parsedNanos);
+            newestExchangeTime = Math.max(newestExchangeTime,
+                    Math.max(tick.getLastTradedTime(), tick.getLastUpdatedTime()));
+        }
         if (onMessageListener != null && !ticks.isEmpty()) {
-            onMessageListener.onMessage(new ArrayList<>(ticks));
+            onMessageListener.onMessage(ticks);
         }
+        metrics.onFrame(frameBytes, ticks.size(), newestExchangeTime, receiveNanos, System.nanoTime());
     }
 
-    /**
-     * Parses the incoming binary message buffer into Tick DTOs.
-     * Handles LTP, QUOTE, FULL packet types and their Index variants.
-     */
-
-
     /**
      * Send subscription preferences to WebSocket.
      * Call this after connection is established.
@@ -103,6 +136,18 @@ public class WebSocketClient {
         }
     }
 
+    public int getConnectionId() {
+        return connectionId;
+    }
+
+    public boolean isOpen() {
+        return session != null && session.isOpen();
+    }
+
+    public ConnectionStats getStats(int subscriptions) {
+        return metrics.snapshot(connectionId, isOpen(), subscriptions);
+    }
+
     // Close the WebSocket connection manually
     public void closeConnection() {
         if (session != null && session.isOpen()) {
@@ -130,4 +175,18 @@ public class WebSocketClient {
     public void setOnMessageListener(OnMessageListener listener) {
         this.onMessageListener = listener;
     }
+
+    /**
+     * Captures every binary frame as received; pass null to stop. The caller owns closing the recorder.
+     */
+    public void setFrameRecorder(FrameRecorder recorder) {
+        this.frameRecorder = recorder;
+    }
+
+    /**
+     * Switches the client to flyweight decoding. Takes precedence over the {@link OnMessageListener}.
+     */
+    public void setOnTickViewListener(OnTickViewListener listener) {
+        this.onTickViewListener = listener;
+    }
 }
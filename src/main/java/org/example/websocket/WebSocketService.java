@@ -1,138 +1,258 @@
 package org.example.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import org.example.Main;
+import org.example.config.IngestConfig;
 import org.example.config.MarketModeConfig;
 import org.example.dataAnalysis.StrategyManager;
+import org.example.dataAnalysis.bars.BarEngine;
+import org.example.dataAnalysis.features.RollingFeatureEngine;
+import org.example.dataAnalysis.strategy.EvaluationScheduler;
+import org.example.dataAnalysis.strategy.StrategyEngine;
 import org.example.dataAnalysis.depthStrategy.StrategyOne;
+import org.example.monitoring.LatencyRecorder;
+import org.example.monitoring.LatencyStage;
+import org.example.simulation.FrameReplayDriver;
 import org.example.simulation.SimulatedTickServer;
 import org.example.tradeGovernance.OrderServices;
 import org.example.tradeGovernance.TradeAnalysis;
 import org.example.websocket.dataPreparation.DepthPacketHistoryManager;
-import org.example.websocket.dataPreparation.SubscriptionPreferenceBuilder;
-import org.example.websocket.model.PreferenceDto;
+import org.example.websocket.dataPreparation.SubscriptionManager;
+import org.example.websocket.model.ConnectionStats;
 import org.example.websocket.model.Tick;
+import org.example.websocket.pipeline.TickDispatcher;
+import org.example.websocket.pipeline.WorkerStats;
+import org.example.websocket.recording.FrameRecorder;
+import org.example.websocket.recording.TickJournal;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.zip.GZIPOutputStream;
 
 @Service
 public class WebSocketService {
 
-    private final Map<Integer, Long> lastEvaluated = new ConcurrentHashMap<>();
-    private static final long EVALUATION_COOLDOWN_MS = 2000;
+    private final EvaluationScheduler evaluationScheduler = EvaluationScheduler.getInstance();
+    private final StrategyEngine strategyEngine = StrategyManager.getEngine();
 
     // 🔁 Track active connections
     private volatile Thread simulatedThread = null;
-    private volatile WebSocketClient liveClient = null;
+    private volatile List<WebSocketClient> liveClients = Collections.emptyList();
+    private volatile FrameRecorder frameRecorder = null;
+    private volatile FrameReplayDriver replayDriver = null;
+    private volatile Thread replayThread = null;
+
+    // 🧵 Feed threads only publish here; strategy work runs on the dispatcher's workers
+    private volatile TickDispatcher dispatcher = null;
 
     public synchronized void startWebSocket() {
         stopWebSocket(); // 🔁 Stop any existing connection first
 
+        TickDispatcher tickDispatcher = startDispatcher();
+
         if (MarketModeConfig.isSimulationMode()) {
             System.out.println("🧪 Starting in Simulation Mode");
 
-            SimulatedTickServer streamer = new SimulatedTickServer(tick ->
-            {
-                try {
-                    processTick(tick, DepthPacketHistoryManager.getInstance());
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            SimulatedTickServer streamer = new SimulatedTickServer(tickDispatcher::publish);
 
             simulatedThread = new Thread(streamer::startStreaming);
             simulatedThread.start();
 
         } else {
             System.out.println("🌐 Starting in Live Market Mode");
-            startLiveMarketWebSocket();
+            startLiveMarketWebSocket(tickDispatcher);
+        }
+    }
+
+    /**
+     * Replays a raw frame capture (file or directory of segments) through the parser and the normal
+     * tick pipeline. See {@link FrameReplayDriver} for the meaning of {@code speed}.
+     */
+    public synchronized void startReplay(String capturePath, double speed) {
+        stopWebSocket();
+
+        TickDispatcher tickDispatcher = startDispatcher();
+        System.out.println("⏯️ Starting in Replay Mode");
+        replayDriver = new FrameReplayDriver(Paths.get(capturePath), speed, tickDispatcher::publishAll);
+        replayThread = new Thread(replayDriver, "frame-replay");
+        replayThread.start();
+    }
+
+    public Map<String, Object> getReplayStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        FrameReplayDriver driver = replayDriver;
+        status.put("active", driver != null && !driver.isFinished());
+        if (driver != null) {
+            status.put("frames", driver.getFramesReplayed());
+            status.put("ticks", driver.getTicksReplayed());
+            status.put("elapsedMs", driver.getElapsedNanos() / 1_000_000);
         }
+        return status;
+    }
+
+    private TickDispatcher startDispatcher() {
+        DepthPacketHistoryManager historyManager = DepthPacketHistoryManager.getInstance();
+        TickDispatcher tickDispatcher = new TickDispatcher(IngestConfig.getWorkerCount(),
+                IngestConfig.getRingCapacity(), IngestConfig.getWaitStrategy(), IngestConfig.isConflation(),
+                tick -> processTick(tick, historyManager));
+        tickDispatcher.start();
+        dispatcher = tickDispatcher;
+        return tickDispatcher;
     }
 
     public synchronized void stopWebSocket() {
         try {
-            if (liveClient != null) {
-                liveClient.closeConnection();
-                liveClient = null;
+            if (!liveClients.isEmpty()) {
+                SubscriptionManager.getInstance().detach();
+                for (WebSocketClient client : liveClients) {
+                    client.closeConnection();
+                }
+                liveClients = Collections.emptyList();
                 System.out.println("🔌 Live market WebSocket stopped.");
             }
 
+            if (frameRecorder != null) {
+                frameRecorder.close();
+                frameRecorder = null;
+            }
+
+            if (replayDriver != null) {
+                replayDriver.stop();
+                replayThread.interrupt();
+                replayDriver = null;
+                replayThread = null;
+            }
+
             if (simulatedThread != null && simulatedThread.isAlive()) {
                 simulatedThread.interrupt();
                 simulatedThread = null;
                 System.out.println("🧪 Simulated WebSocket stopped.");
             }
+
+            if (dispatcher != null) {
+                dispatcher.stop();
+                dispatcher = null;
+            }
         } catch (Exception e) {
             System.err.println("⚠️ Error while stopping WebSocket: " + e.getMessage());
         }
     }
 
-    private void startLiveMarketWebSocket() {
+    public List<WorkerStats> getPipelineStats() {
+        TickDispatcher current = dispatcher;
+        return current == null ? Collections.emptyList() : current.getStats();
+    }
+
+    private void startLiveMarketWebSocket(TickDispatcher tickDispatcher) {
         try {
-            liveClient = new WebSocketClient(Main.publicAccessToken);
+            if (IngestConfig.isRecordFrames()) {
+                frameRecorder = new FrameRecorder(Paths.get(IngestConfig.getCaptureDirectory()),
+                        IngestConfig.getCaptureSegmentBytes());
+            }
 
-            liveClient.setOnOpenListener(() -> System.out.println("📡 WebSocket connected."));
-            liveClient.setOnCloseListener(reason -> System.out.println("🔌 WebSocket closed: " + reason));
+            // 🔀 Symbols are spread over the connections by securityId; every connection feeds the same dispatcher
+            List<WebSocketClient> clients = new ArrayList<>();
+            for (int i = 0; i < IngestConfig.getConnectionCount(); i++) {
+                WebSocketClient client = createLiveClient(i, tickDispatcher);
+                client.connect();
+                clients.add(client);
+            }
+            liveClients = clients;
 
-            liveClient.setOnErrorListener(new org.example.websocket.listeners.OnErrorListener() {
-                @Override public void onError(String errorMessage) {
-                    System.err.println("❌ WebSocket Error: " + errorMessage);
-                }
+            Thread.sleep(1000);
+            SubscriptionManager.getInstance().attach(clients);
 
-                @Override public void onError(Exception e) {
-                    e.printStackTrace();
-                }
+        } catch (Exception e) {
+            System.err.println("❌ WebSocket error during startup: " + e.getMessage());
+        }
+    }
 
-                @Override public void onError(RuntimeException re) {
-                    re.printStackTrace();
-                }
-            });
+    private WebSocketClient createLiveClient(int connectionId, TickDispatcher tickDispatcher) {
+        WebSocketClient client = new WebSocketClient(Main.publicAccessToken, connectionId);
 
-            DepthPacketHistoryManager historyManager = DepthPacketHistoryManager.getInstance();
+        client.setOnOpenListener(() -> System.out.println("📡 WebSocket #" + connectionId + " connected."));
+        client.setOnCloseListener(reason -> System.out.println("🔌 WebSocket #" + connectionId + " closed: " + reason));
 
-            liveClient.setOnMessageListener(ticks -> {
-                for (Tick tick : ticks) {
-                    processTick(tick, historyManager);
-                }
-            });
+        client.setOnErrorListener(new org.example.websocket.listeners.OnErrorListener() {
+            @Override public void onError(String errorMessage) {
+                System.err.println("❌ WebSocket #" + connectionId + " Error: " + errorMessage);
+            }
 
-            liveClient.connect();
-            Thread.sleep(1000);
-            List<PreferenceDto> prefs = SubscriptionPreferenceBuilder.buildPreferences();
-            liveClient.subscribe(prefs);
+            @Override public void onError(Exception e) {
+                e.printStackTrace();
+            }
 
-        } catch (Exception e) {
-            System.err.println("❌ WebSocket error during startup: " + e.getMessage());
+            @Override public void onError(RuntimeException re) {
+                re.printStackTrace();
+            }
+        });
+
+        client.setOnMessageListener(tickDispatcher::publishAll);
+        client.setFrameRecorder(frameRecorder);
+        return client;
+    }
+
+    public List<ConnectionStats> getConnectionStats() {
+        SubscriptionManager subscriptionManager = SubscriptionManager.getInstance();
+        List<ConnectionStats> stats = new ArrayList<>();
+        for (WebSocketClient client : liveClients) {
+            stats.add(client.getStats(subscriptionManager.getSubscriptionCount(client.getConnectionId())));
         }
+        return stats;
     }
 
     private void processTick(Tick tick, DepthPacketHistoryManager historyManager) throws Exception {
+        LatencyRecorder latency = LatencyRecorder.getInstance();
+        latency.record(LatencyStage.QUEUE_WAIT, tick.getParsedNanos(), System.nanoTime());
+        latency.beginTick(tick.getReceivedNanos());
+        try {
+            handleTick(tick, historyManager, latency);
+        } finally {
+            latency.endTick();
+        }
+    }
+
+    private void handleTick(Tick tick, DepthPacketHistoryManager historyManager, LatencyRecorder latency) throws Exception {
         int symbolId = tick.getSecurityId();
+        SubscriptionManager subscriptionManager = SubscriptionManager.getInstance();
 
-        if (tick.getMbpRowPacket() != null && !tick.getMbpRowPacket().isEmpty()) {
-            historyManager.addTick(tick, () -> checkAndTrainModelIfReady(symbolId));
-            appendCompressedTick(tick); // ✅ Add this line
+        // LTP/QUOTE ticks only feed tiering; the strategies need the depth of a FULL packet
+        if (tick.getDepthBook() == null) {
+            subscriptionManager.onTick(tick);
+            return;
         }
 
-        long now = System.currentTimeMillis();
-        if (lastEvaluated.containsKey(symbolId) &&
-                now - lastEvaluated.get(symbolId) < EVALUATION_COOLDOWN_MS) {
+        long stageStart = System.nanoTime();
+        historyManager.addTick(tick, () -> checkAndTrainModelIfReady(symbolId));
+        latency.record(LatencyStage.HISTORY_UPDATE, stageStart, System.nanoTime());
+        RollingFeatureEngine.getInstance().onTick(tick); // ahead of the bars, so bar-close snapshots include this tick
+        BarEngine.getInstance().onTick(tick); // every depth tick, before the evaluation scheduler
+        TickJournal.getInstance().append(tick); // only an enqueue; the journal's writer thread does the I/O
+
+        // Evaluate on what is new (a closed strategy bar, or any tick for tick-driven strategies); a bar the
+        // scheduler passes on is dropped explicitly so it is counted, not overwritten by the next one
+        if (!strategyEngine.hasPendingWork(symbolId)) return;
+        if (evaluationScheduler.shouldEvaluate(tick, System.currentTimeMillis()) == null) {
+            strategyEngine.skipPending(symbolId);
             return;
         }
 
-        lastEvaluated.put(symbolId, now);
-
         List<Tick> recentTicks = historyManager.getTickHistory(symbolId);
+        stageStart = System.nanoTime();
         StrategyOne.Signal signal = StrategyManager.strategySelector(tick, symbolId);
+        latency.record(LatencyStage.STRATEGY, stageStart, System.nanoTime());
+        if (signal != StrategyOne.Signal.HOLD) {
+            subscriptionManager.onSignal(symbolId);
+        }
 
-
+        stageStart = System.nanoTime();
         TradeAnalysis.Action action = new TradeAnalysis().evaluateTradeAction(symbolId, signal, Main.accessToken);
+        long decidedNanos = System.nanoTime();
+        latency.record(LatencyStage.TRADE_ANALYSIS, stageStart, decidedNanos);
+        latency.record(LatencyStage.TICK_TO_DECISION, tick.getReceivedNanos(), decidedNanos);
 
         if (action == TradeAnalysis.Action.BUY || action == TradeAnalysis.Action.SELL) {
             new OrderServices().orderManagement(String.valueOf(symbolId), action, tick.getLastTradedPrice());
@@ -143,34 +263,6 @@ public class WebSocketService {
         }
     }
 
-    private static final String TICK_FILE_PATH = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/all_ticks.jsonl";
-    private static final ObjectMapper mapper = new ObjectMapper()
-            .disable(SerializationFeature.INDENT_OUTPUT); // compact JSON
-    private static final String COMPRESSED_PATH = "src/main/java/org/example/dataAnalysis/depthStrategy/machineLearning/trainingData/marketdata.jsonl.gz";
-
-    private static final long MAX_COMPRESSED_FILE_SIZE_BYTES = 50L * 1024 * 1024; // 50 MB
-
-    private void appendCompressedTick(Tick tick) {
-        File file = new File(COMPRESSED_PATH);
-        if (file.exists() && file.length() > MAX_COMPRESSED_FILE_SIZE_BYTES) {
-            System.out.println("⚠️ Skipping tick logging. Compressed file has reached 50 MB.");
-            return;
-        }
-
-        try (FileOutputStream fos = new FileOutputStream(file, true);
-             GZIPOutputStream gos = new GZIPOutputStream(fos);
-             OutputStreamWriter osw = new OutputStreamWriter(gos);
-             BufferedWriter bw = new BufferedWriter(osw)) {
-
-            String json = mapper.writeValueAsString(tick);
-            bw.write(json);
-            bw.newLine();
-        } catch (IOException e) {
-            System.err.println("❌ Error writing compressed tick: " + e.getMessage());
-        }
-    }
-
-
     private void checkAndTrainModelIfReady(int symbolId) {
         List<Tick> history = DepthPacketHistoryManager.getInstance().getTickHistory(symbolId);
         if (history.size() < 300) return;
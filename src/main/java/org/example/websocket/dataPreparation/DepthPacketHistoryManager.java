@@ -1,18 +1,17 @@
 package org.example.websocket.dataPreparation;
 
+import org.example.config.IngestConfig;
 import org.example.websocket.model.Tick;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DepthPacketHistoryManager {
 
     private static final DepthPacketHistoryManager INSTANCE = new DepthPacketHistoryManager();
 
-    // Main 500-tick rolling evaluation buffer per security ID
-    private final Map<Integer, LinkedList<Tick>> tickHistory = new HashMap<>();
-
-    // Dedicated training buffer (flushes after 300 ticks)
-    private final Map<Integer, LinkedList<Tick>> trainingTickBuffer = new HashMap<>();
+    // Rolling evaluation history per security ID, sized by IngestConfig.historyCapacity when first seen
+    private final Map<Integer, TickHistoryBuffer> tickHistory = new ConcurrentHashMap<>();
 
     private DepthPacketHistoryManager() {}
 
@@ -21,43 +20,41 @@ public class DepthPacketHistoryManager {
     }
 
     /**
-     * Adds a new Tick to both evaluation and training buffers.
-     * Automatically calls onReadyToTrain if 300 ticks collected for training.
+     * Adds a new Tick to the symbol's rolling history.
+     * Each symbol must only be written from one thread (the pipeline worker it is sharded to).
      */
-    public synchronized void addTick(Tick tick, Runnable onReadyToTrain) {
-        int securityId = tick.getSecurityId();
+    public void addTick(Tick tick, Runnable onReadyToTrain) {
         if (tick == null) return;
+        int securityId = tick.getSecurityId();
 
-        // ✅ Add to evaluation history (rolling 500)
-        tickHistory.putIfAbsent(securityId, new LinkedList<>());
-        LinkedList<Tick> evalHistory = tickHistory.get(securityId);
-        if (evalHistory.size() == 100) evalHistory.removeFirst();
-        evalHistory.addLast(tick);
-
-
+        TickHistoryBuffer history = tickHistory.get(securityId);
+        if (history == null) {
+            history = tickHistory.computeIfAbsent(securityId,
+                    k -> new TickHistoryBuffer(IngestConfig.getHistoryCapacity()));
+        }
+        history.add(tick);
     }
 
     /**
-     * Get the 500-tick rolling evaluation buffer.
+     * Snapshot view of the whole rolling history, oldest first. Not a copy: see {@link TickWindow}.
      */
-    public synchronized List<Tick> getTickHistory(int securityId) {
-        return tickHistory.getOrDefault(securityId, new LinkedList<>());
+    public List<Tick> getTickHistory(int securityId) {
+        return getTickWindow(securityId, Integer.MAX_VALUE);
     }
 
     /**
-     * (Optional) Get the training buffer for a security.
+     * Snapshot view of the latest {@code size} ticks, oldest first.
      */
-    public synchronized List<Tick> getTrainingHistory(int securityId) {
-        return trainingTickBuffer.getOrDefault(securityId, new LinkedList<>());
+    public List<Tick> getTickWindow(int securityId, int size) {
+        TickHistoryBuffer history = tickHistory.get(securityId);
+        return history == null ? Collections.emptyList() : history.window(size);
     }
 
-    public synchronized void clearAll() {
+    public void clearAll() {
         tickHistory.clear();
-        trainingTickBuffer.clear();
     }
 
-    public synchronized void clearHistory(int securityId) {
+    public void clearHistory(int securityId) {
         tickHistory.remove(securityId);
-        trainingTickBuffer.remove(securityId);
     }
 }
@@ -0,0 +1,235 @@
+package org.example.websocket.dataPreparation;
+
+import org.example.tradeGovernance.model.Position;
+import org.example.websocket.WebSocketClient;
+import org.example.websocket.model.PreferenceDto;
+import org.example.websocket.model.SubscriptionMode;
+import org.example.websocket.model.SymbolSubscription;
+import org.example.websocket.model.Tick;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the live watchlist and the feed mode of every symbol on it.
+ * The watchlist starts in FULL, since strategies only evaluate depth ticks. Symbols given a cheaper base mode
+ * (through {@link #add} or {@link #unpin}) are promoted to FULL while they are "hot": a trade signal fired,
+ * a position is open, or their QUOTE-level total buy/sell quantity imbalance reaches
+ * {@link #PROMOTE_IMBALANCE_THRESHOLD}; the last is the only trigger a non-FULL symbol can raise by itself,
+ * as no strategy sees it until it is promoted. Hot symbols drop back to their base mode after
+ * {@link #IDLE_DEMOTE_MS} without any of these.
+ * Changes go out as incremental ADD/REMOVE preferences on the session that carries the symbol.
+ */
+public class SubscriptionManager {
+
+    private static final SubscriptionManager INSTANCE = new SubscriptionManager();
+
+    private static final SubscriptionMode DEFAULT_MODE = SubscriptionMode.FULL;
+    // |buy - sell| / (buy + sell) of the day's total buy/sell quantities on a QUOTE tick; 0.3 is a 65/35 split
+    private static final double PROMOTE_IMBALANCE_THRESHOLD = 0.3;
+    private static final long IDLE_DEMOTE_MS = 5 * 60 * 1000;
+
+    private final Map<String, SymbolSubscription> subscriptions = new ConcurrentHashMap<>();
+    private volatile List<WebSocketClient> clients = Collections.emptyList();
+
+    private SubscriptionManager() {
+        for (String scripId : SubscriptionPreferenceBuilder.getScripIdsToSubscribe()) {
+            subscriptions.put(scripId, new SymbolSubscription(scripId, DEFAULT_MODE, false, DEFAULT_MODE, 0));
+        }
+    }
+
+    public static SubscriptionManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Binds to freshly connected clients and subscribes the whole watchlist at its current modes.
+     * Each symbol lives on exactly one connection, chosen by {@link #connectionFor(String, int)}.
+     */
+    public synchronized void attach(List<WebSocketClient> webSocketClients) {
+        this.clients = List.copyOf(webSocketClients);
+        List<PreferenceDto> preferences = new ArrayList<>();
+        for (SymbolSubscription sub : subscriptions.values()) {
+            preferences.add(SubscriptionPreferenceBuilder.build("ADD", sub.getMode(), sub.getScripId()));
+        }
+        send(preferences);
+        System.out.println("📡 Subscribed " + preferences.size() + " symbols over " + clients.size()
+                + " connection(s) " + getModeCounts());
+    }
+
+    public synchronized void detach() {
+        this.clients = Collections.emptyList();
+    }
+
+    /**
+     * Same partitioning as the tick dispatcher's shards: numeric scrip ids modulo the connection count.
+     */
+    public static int connectionFor(String scripId, int connections) {
+        int key;
+        try {
+            key = Integer.parseInt(scripId);
+        } catch (NumberFormatException e) {
+            key = scripId.hashCode();
+        }
+        return Math.floorMod(key, connections);
+    }
+
+    public int getSubscriptionCount(int connectionId) {
+        int connections = Math.max(1, clients.size());
+        int count = 0;
+        for (String scripId : subscriptions.keySet()) {
+            if (connectionFor(scripId, connections) == connectionId) count++;
+        }
+        return count;
+    }
+
+    public List<SymbolSubscription> getSubscriptions() {
+        List<SymbolSubscription> list = new ArrayList<>(subscriptions.values());
+        list.sort(Comparator.comparing(SymbolSubscription::getScripId));
+        return list;
+    }
+
+    public Map<SubscriptionMode, Integer> getModeCounts() {
+        Map<SubscriptionMode, Integer> counts = new EnumMap<>(SubscriptionMode.class);
+        for (SubscriptionMode mode : SubscriptionMode.values()) counts.put(mode, 0);
+        for (SymbolSubscription sub : subscriptions.values()) counts.merge(sub.getMode(), 1, Integer::sum);
+        return counts;
+    }
+
+    // ---- manual control (REST) ----
+
+    public synchronized SymbolSubscription add(String scripId, SubscriptionMode mode) {
+        SymbolSubscription existing = subscriptions.get(scripId);
+        if (existing != null) {
+            return setMode(scripId, mode);
+        }
+        SymbolSubscription sub = new SymbolSubscription(scripId, mode, false, mode, 0);
+        subscriptions.put(scripId, sub);
+        send(List.of(SubscriptionPreferenceBuilder.build("ADD", mode, scripId)));
+        System.out.println("➕ Subscribed " + scripId + " in " + mode);
+        return sub;
+    }
+
+    public synchronized boolean remove(String scripId) {
+        SymbolSubscription sub = subscriptions.remove(scripId);
+        if (sub == null) return false;
+        send(List.of(SubscriptionPreferenceBuilder.build("REMOVE", sub.getMode(), scripId)));
+        System.out.println("➖ Unsubscribed " + scripId);
+        return true;
+    }
+
+    /**
+     * Pins a symbol to {@code mode}; automatic promotion/demotion skips pinned symbols.
+     */
+    public synchronized SymbolSubscription setMode(String scripId, SubscriptionMode mode) {
+        SymbolSubscription sub = subscriptions.get(scripId);
+        if (sub == null) return null;
+        sub.setPinned(true);
+        sub.setBaseMode(mode);
+        changeMode(sub, mode, "manual");
+        return sub;
+    }
+
+    /**
+     * Hands a symbol back to automatic tiering at {@code baseMode}.
+     */
+    public synchronized SymbolSubscription unpin(String scripId, SubscriptionMode baseMode) {
+        SymbolSubscription sub = subscriptions.get(scripId);
+        if (sub == null) return null;
+        sub.setPinned(false);
+        sub.setBaseMode(baseMode);
+        if (sub.getLastHotMillis() == 0) changeMode(sub, baseMode, "unpinned");
+        return sub;
+    }
+
+    // ---- automatic tiering ----
+
+    /**
+     * Called for every tick. Cheap when nothing changes: a map lookup and a few comparisons.
+     */
+    public void onTick(Tick tick) {
+        if (tick.getDepthBook() != null) return; // already FULL
+        long buy = tick.getTotalBuyQuantity(), sell = tick.getTotalSellQuantity();
+        if (buy + sell == 0) return;
+        if (Math.abs(buy - sell) / (double) (buy + sell) >= PROMOTE_IMBALANCE_THRESHOLD) {
+            markHot(String.valueOf(tick.getSecurityId()), "quote imbalance");
+        }
+    }
+
+    public void onSignal(int securityId) {
+        markHot(String.valueOf(securityId), "signal");
+    }
+
+    /**
+     * Keeps symbols with an open position in FULL, subscribing them first if they are not on the watchlist.
+     */
+    public void syncOpenPositions(List<Position> positions) {
+        for (Position position : positions) {
+            if (position.getNet_qty() == 0 || position.getSecurity_id() == null) continue;
+            String scripId = position.getSecurity_id();
+            if (!subscriptions.containsKey(scripId)) {
+                synchronized (this) {
+                    if (!subscriptions.containsKey(scripId)) {
+                        subscriptions.put(scripId, new SymbolSubscription(scripId, DEFAULT_MODE, false, DEFAULT_MODE, 0));
+                        send(List.of(SubscriptionPreferenceBuilder.build("ADD", DEFAULT_MODE, scripId)));
+                    }
+                }
+            }
+            markHot(scripId, "open position");
+        }
+    }
+
+    /**
+     * Demotes automatically promoted symbols that have been quiet for {@link #IDLE_DEMOTE_MS}.
+     */
+    public synchronized void demoteIdle() {
+        long now = System.currentTimeMillis();
+        for (SymbolSubscription sub : subscriptions.values()) {
+            if (sub.isPinned() || sub.getLastHotMillis() == 0) continue;
+            if (now - sub.getLastHotMillis() >= IDLE_DEMOTE_MS) {
+                sub.setLastHotMillis(0);
+                changeMode(sub, sub.getBaseMode(), "idle");
+            }
+        }
+    }
+
+    private void markHot(String scripId, String reason) {
+        SymbolSubscription sub = subscriptions.get(scripId);
+        if (sub == null || sub.isPinned()) return;
+        sub.setLastHotMillis(System.currentTimeMillis());
+        if (sub.getMode() == SubscriptionMode.FULL) return;
+        synchronized (this) {
+            if (sub.getMode() != SubscriptionMode.FULL && subscriptions.get(scripId) == sub) {
+                changeMode(sub, SubscriptionMode.FULL, reason);
+            }
+        }
+    }
+
+    private void changeMode(SymbolSubscription sub, SubscriptionMode mode, String reason) {
+        SubscriptionMode previous = sub.getMode();
+        if (previous == mode) return;
+        sub.setMode(mode);
+        // A scrip is subscribed per mode, so switching is a remove of the old mode plus an add of the new one
+        send(List.of(SubscriptionPreferenceBuilder.build("REMOVE", previous, sub.getScripId()),
+                SubscriptionPreferenceBuilder.build("ADD", mode, sub.getScripId())));
+        System.out.println((mode.compareTo(previous) > 0 ? "⏫ " : "⏬ ") + sub.getScripId() + " " + previous
+                + " → " + mode + " (" + reason + ")");
+    }
+
+    private void send(List<PreferenceDto> preferences) {
+        List<WebSocketClient> current = clients;
+        if (current.isEmpty() || preferences.isEmpty()) return;
+        if (current.size() == 1) {
+            current.get(0).subscribe(preferences);
+            return;
+        }
+        List<List<PreferenceDto>> perConnection = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) perConnection.add(new ArrayList<>());
+        for (PreferenceDto preference : preferences) {
+            perConnection.get(connectionFor(preference.getScripId(), current.size())).add(preference);
+        }
+        for (int i = 0; i < current.size(); i++) {
+            if (!perConnection.get(i).isEmpty()) current.get(i).subscribe(perConnection.get(i));
+        }
+    }
+}
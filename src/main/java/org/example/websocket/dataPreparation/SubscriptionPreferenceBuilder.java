@@ -2,13 +2,14 @@ package org.example.websocket.dataPreparation;
 
 
 import org.example.websocket.model.PreferenceDto;
+import org.example.websocket.model.SubscriptionMode;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class SubscriptionPreferenceBuilder {
 
-    // ✅ List of scrip IDs to subscribe to — modify this as needed
+    // ✅ Initial watchlist — symbols can be added/removed at runtime through SubscriptionManager
     private static final List<String> scripIdsToSubscribe = List.of(
             "3787","3499","10794","1624","10666","14977","18143","4668","4717","2475","11630","5097","27066","1406",
             "14366","8954","1491","12018","11915","24777","21951","383","14428","4973","11538","19084",
@@ -17,6 +18,13 @@ public class SubscriptionPreferenceBuilder {
 
     /*"3499","10794","1624","10666","14977","18143","4668","4717"*/
 
+    public static final String SCRIP_TYPE = "EQUITY";
+    public static final String EXCHANGE_TYPE = "NSE";
+
+    public static List<String> getScripIdsToSubscribe() {
+        return scripIdsToSubscribe;
+    }
+
     /**
      * Builds a list of PreferenceDto for WebSocket subscription using "FULL" mode.
      * @return List of subscription preferences
@@ -24,8 +32,12 @@ public class SubscriptionPreferenceBuilder {
     public static List<PreferenceDto> buildPreferences() {
         List<PreferenceDto> preferences = new ArrayList<>();
         for (String scripId : scripIdsToSubscribe) {
-            preferences.add(new PreferenceDto("ADD", "FULL", "EQUITY", "NSE", scripId));
+            preferences.add(build("ADD", SubscriptionMode.FULL, scripId));
         }
         return preferences;
     }
+
+    public static PreferenceDto build(String actionType, SubscriptionMode mode, String scripId) {
+        return new PreferenceDto(actionType, mode.name(), SCRIP_TYPE, EXCHANGE_TYPE, scripId);
+    }
 }
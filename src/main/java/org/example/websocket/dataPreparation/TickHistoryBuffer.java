@@ -0,0 +1,78 @@
+package org.example.websocket.dataPreparation;
+
+import org.example.websocket.model.Tick;
+
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity tick history of one symbol. Single writer (the pipeline worker that owns the symbol),
+ * any number of lock-free readers. Every tick gets a sequence number; readers validate a slot against
+ * the published sequence after reading it, so an overwritten slot is detected instead of returned.
+ */
+public class TickHistoryBuffer {
+
+    private final int capacity;
+    // One spare slot so the writer's next store never touches the oldest readable tick
+    private final AtomicReferenceArray<Tick> slots;
+    private volatile long published; // sequence of the next tick to be written
+
+    public TickHistoryBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity + 1);
+    }
+
+    /**
+     * Appends a tick. Must only be called from the symbol's single writer thread.
+     */
+    public void add(Tick tick) {
+        long sequence = published;
+        slots.lazySet((int) (sequence % slots.length()), tick);
+        published = sequence + 1;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long publishedSequence() {
+        return published;
+    }
+
+    public int size() {
+        return (int) Math.min(published, capacity);
+    }
+
+    /**
+     * View of the latest {@code maxSize} ticks, oldest first, pinned to the ticks present right now.
+     * Nothing is copied; reading a tick the writer has since overwritten throws
+     * {@link ConcurrentModificationException}.
+     */
+    public TickWindow window(int maxSize) {
+        long end = published;
+        int size = (int) Math.min(Math.min(end, capacity), Math.max(0, maxSize));
+        return new TickWindow(this, end - size, size);
+    }
+
+    public TickWindow window() {
+        return window(capacity);
+    }
+
+    Tick read(long sequence) {
+        Tick tick = slots.get((int) (sequence % slots.length()));
+        if (!isAvailable(sequence)) {
+            throw new ConcurrentModificationException("Tick " + sequence + " was overwritten (published "
+                    + published + ", capacity " + capacity + ")");
+        }
+        return tick;
+    }
+
+    /**
+     * True while {@code sequence} is still readable: written, and its slot not yet reused.
+     */
+    boolean isAvailable(long sequence) {
+        long current = published;
+        return sequence < current && current - sequence <= capacity;
+    }
+}
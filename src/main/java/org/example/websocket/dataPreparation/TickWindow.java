@@ -0,0 +1,47 @@
+package org.example.websocket.dataPreparation;
+
+import org.example.websocket.model.Tick;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only, copy-free window over a {@link TickHistoryBuffer}, oldest tick first.
+ * The window does not grow; call {@link TickHistoryBuffer#window(int)} again for newer ticks.
+ */
+public class TickWindow extends AbstractList<Tick> implements RandomAccess {
+
+    private final TickHistoryBuffer buffer;
+    private final long firstSequence;
+    private final int size;
+
+    TickWindow(TickHistoryBuffer buffer, long firstSequence, int size) {
+        this.buffer = buffer;
+        this.firstSequence = firstSequence;
+        this.size = size;
+    }
+
+    @Override
+    public Tick get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of window of " + size);
+        }
+        return buffer.read(firstSequence + index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * True while none of the window's ticks has been overwritten.
+     */
+    public boolean isValid() {
+        return size == 0 || buffer.isAvailable(firstSequence);
+    }
+}
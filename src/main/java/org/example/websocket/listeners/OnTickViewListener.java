@@ -0,0 +1,10 @@
+package org.example.websocket.listeners;
+
+import org.example.websocket.model.TickView;
+
+public interface OnTickViewListener {
+    /**
+     * Called once per packet with a cursor that is only valid for the duration of the call.
+     */
+    void onTick(TickView view) throws Exception;
+}
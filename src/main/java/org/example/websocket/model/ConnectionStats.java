@@ -0,0 +1,25 @@
+package org.example.websocket.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionStats {
+    private int connection;
+    private boolean open;
+    private int subscriptions;
+    private long frames;
+    private long ticks;
+    private long bytes;
+    private double framesPerSecond;
+    private double ticksPerSecond;
+    // Receive wall-clock time minus the newest exchange timestamp in the frame (exchange clock has 1s resolution)
+    private long lastExchangeLagMs;
+    private long maxExchangeLagMs;
+    // Time the I/O thread spends on one frame: record, parse and hand-off
+    private double avgHandleMicros;
+    private long lastFrameAgeMs;
+}
@@ -0,0 +1,126 @@
+package org.example.websocket.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.example.websocket.constant.ByteResponseCreationConstants.DEPTH_PACKETS_COUNT;
+
+/**
+ * Fixed-depth market-by-price snapshot held in parallel primitive arrays.
+ * Level 0 is the best bid/ask. Replaces the per-tick list of boxed {@link DepthPacket}s,
+ * which is still available through {@link #toPackets()} for JSON and legacy callers.
+ */
+public class DepthBook {
+
+    public static final int LEVELS = DEPTH_PACKETS_COUNT;
+
+    private final float[] bidPrice = new float[LEVELS];
+    private final float[] askPrice = new float[LEVELS];
+    private final int[] bidQuantity = new int[LEVELS];
+    private final int[] askQuantity = new int[LEVELS];
+    private final short[] bidOrders = new short[LEVELS];
+    private final short[] askOrders = new short[LEVELS];
+
+    public void setLevel(int level, int bidQty, int askQty, short bidOrderCount, short askOrderCount,
+                         float bidPx, float askPx) {
+        bidQuantity[level] = bidQty;
+        askQuantity[level] = askQty;
+        bidOrders[level] = bidOrderCount;
+        askOrders[level] = askOrderCount;
+        bidPrice[level] = bidPx;
+        askPrice[level] = askPx;
+    }
+
+    public float getBidPrice(int level) {
+        return bidPrice[level];
+    }
+
+    public float getAskPrice(int level) {
+        return askPrice[level];
+    }
+
+    public int getBidQuantity(int level) {
+        return bidQuantity[level];
+    }
+
+    public int getAskQuantity(int level) {
+        return askQuantity[level];
+    }
+
+    public short getBidOrders(int level) {
+        return bidOrders[level];
+    }
+
+    public short getAskOrders(int level) {
+        return askOrders[level];
+    }
+
+    public long getTotalBidQuantity() {
+        long total = 0;
+        for (int i = 0; i < LEVELS; i++) total += bidQuantity[i];
+        return total;
+    }
+
+    public long getTotalAskQuantity() {
+        long total = 0;
+        for (int i = 0; i < LEVELS; i++) total += askQuantity[i];
+        return total;
+    }
+
+    /**
+     * Copies the first {@link #LEVELS} packets in list order; missing levels stay zero.
+     *
+     * @return null for a null or empty list, so "no depth" keeps meaning null
+     */
+    public static DepthBook fromPackets(List<DepthPacket> packets) {
+        if (packets == null || packets.isEmpty()) return null;
+        DepthBook book = new DepthBook();
+        int levels = Math.min(LEVELS, packets.size());
+        for (int i = 0; i < levels; i++) {
+            DepthPacket dp = packets.get(i);
+            book.setLevel(i, dp.getBuyQuantity(), dp.getSellQuantity(), dp.getBuyOrder(), dp.getSellOrder(),
+                    dp.getBuyPrice(), dp.getSellPrice());
+        }
+        return book;
+    }
+
+    /**
+     * Boxed view in the wire's packet numbering (1-based). Allocates; keep it off the hot path.
+     */
+    public List<DepthPacket> toPackets() {
+        List<DepthPacket> packets = new ArrayList<>(LEVELS);
+        for (int i = 0; i < LEVELS; i++) {
+            packets.add(new DepthPacket(i + 1, bidQuantity[i], askQuantity[i], bidOrders[i], askOrders[i],
+                    bidPrice[i], askPrice[i]));
+        }
+        return packets;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DepthBook other)) return false;
+        return Arrays.equals(bidPrice, other.bidPrice) && Arrays.equals(askPrice, other.askPrice)
+                && Arrays.equals(bidQuantity, other.bidQuantity) && Arrays.equals(askQuantity, other.askQuantity)
+                && Arrays.equals(bidOrders, other.bidOrders) && Arrays.equals(askOrders, other.askOrders);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(bidPrice);
+        result = 31 * result + Arrays.hashCode(askPrice);
+        result = 31 * result + Arrays.hashCode(bidQuantity);
+        result = 31 * result + Arrays.hashCode(askQuantity);
+        result = 31 * result + Arrays.hashCode(bidOrders);
+        result = 31 * result + Arrays.hashCode(askOrders);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DepthBook(bidPrice=" + Arrays.toString(bidPrice) + ", bidQuantity=" + Arrays.toString(bidQuantity)
+                + ", bidOrders=" + Arrays.toString(bidOrders) + ", askPrice=" + Arrays.toString(askPrice)
+                + ", askQuantity=" + Arrays.toString(askQuantity) + ", askOrders=" + Arrays.toString(askOrders) + ")";
+    }
+}
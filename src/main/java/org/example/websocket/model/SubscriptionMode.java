@@ -0,0 +1,10 @@
+package org.example.websocket.model;
+
+/**
+ * Feed modes in increasing packet size; the names are the broker's {@code modeType} values.
+ */
+public enum SubscriptionMode {
+    LTP,
+    QUOTE,
+    FULL
+}
@@ -0,0 +1,19 @@
+package org.example.websocket.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SymbolSubscription {
+    // Mode and hot/pin state are written on tick threads and read by the demotion sweep, hence volatile
+    private String scripId;
+    private volatile SubscriptionMode mode;
+    // Mode set through the REST API; automatic promotion/demotion leaves these symbols alone
+    private volatile boolean pinned;
+    // Mode the symbol falls back to once it is no longer hot
+    private volatile SubscriptionMode baseMode;
+    private volatile long lastHotMillis;
+}
@@ -1,6 +1,7 @@
 package org.example.websocket.model;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,6 +34,33 @@ public class Tick {
     private float fiftyTwoWeekLow;
     private long oi;
     private long oiChange;
-    private List<DepthPacket> mbpRowPacket;
-}
 
+    // Five-level book for FULL packets, null otherwise. Serialized as "mbpRowPacket" below.
+    @JsonIgnore
+    private DepthBook depthBook;
+
+    // System.nanoTime() when the carrying frame arrived / finished decoding; 0 if not from the feed
+    @JsonIgnore
+    private transient long receivedNanos;
+    @JsonIgnore
+    private transient long parsedNanos;
+
+    /**
+     * Boxed depth list kept for JSON compatibility with stored tick files. Allocates on every call;
+     * hot paths should read {@link #getDepthBook()} instead.
+     */
+    public List<DepthPacket> getMbpRowPacket() {
+        return depthBook == null ? null : depthBook.toPackets();
+    }
+
+    public void setMbpRowPacket(List<DepthPacket> mbpRowPacket) {
+        this.depthBook = DepthBook.fromPackets(mbpRowPacket);
+    }
+
+    public static class TickBuilder {
+        public TickBuilder mbpRowPacket(List<DepthPacket> mbpRowPacket) {
+            this.depthBook = DepthBook.fromPackets(mbpRowPacket);
+            return this;
+        }
+    }
+}
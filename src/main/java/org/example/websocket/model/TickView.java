@@ -0,0 +1,318 @@
+package org.example.websocket.model;
+
+import org.example.websocket.util.EpochConverterUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.example.websocket.constant.ByteConversionConstants.*;
+import static org.example.websocket.constant.ByteResponseCreationConstants.*;
+
+/**
+ * Flyweight cursor over a single packet inside a raw WebSocket frame.
+ * Every accessor reads straight from the wrapped buffer, so one instance can be
+ * re-pointed at every packet of every frame without allocating.
+ * <p>
+ * The wrapped buffer must be in little-endian order and stays owned by the caller;
+ * a view is only valid until the buffer is reused. Use {@link #toTick()} to take an owned copy.
+ * Fields that a packet type does not carry read as zero, matching the {@link Tick} defaults.
+ */
+public class TickView {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private byte packetType;
+
+    /**
+     * Points this view at the packet starting at {@code offset}.
+     *
+     * @return false if the byte at {@code offset} is not a known packet type
+     */
+    public boolean wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.packetType = buffer.get(offset);
+        return packetSize(packetType) > 0;
+    }
+
+    /**
+     * Size in bytes of the given packet type, or 0 if the type is unknown.
+     */
+    public static int packetSize(byte packetType) {
+        return switch (packetType) {
+            case LTP_PKT -> LTP_PACKET_SIZE;
+            case QUOTE_PKT -> QUOTE_PACKET_SIZE;
+            case FULL_PKT -> FULL_PACKET_SIZE;
+            case INDEX_LTP_PKT -> INDEX_LTP_PACKET_SIZE;
+            case INDEX_QUOTE_PKT -> INDEX_QUOTE_PACKET_SIZE;
+            case INDEX_FULL_PKT -> INDEX_FULL_PACKET_SIZE;
+            default -> 0;
+        };
+    }
+
+    /**
+     * The Paytm feed sends changeAbsolute with float noise; round it to paise (half-even, like "0.00").
+     */
+    public static float roundChange(float value) {
+        return (float) (Math.rint(value * 100.0) / 100.0);
+    }
+
+    public byte getPacketType() {
+        return packetType;
+    }
+
+    public int getPacketSize() {
+        return packetSize(packetType);
+    }
+
+    public boolean hasDepth() {
+        return packetType == FULL_PKT;
+    }
+
+    // ----- Common fields -----
+
+    public float getLastTradedPrice() {
+        return buffer.getFloat(offset + (packetType == FULL_PKT ? FULL_LTP_OFFSET : LTP_OFFSET));
+    }
+
+    public int getSecurityId() {
+        return buffer.getInt(offset + switch (packetType) {
+            case LTP_PKT -> LTP_SECURITY_ID_OFFSET;
+            case QUOTE_PKT -> QUOTE_SECURITY_ID_OFFSET;
+            case FULL_PKT -> FULL_SECURITY_ID_OFFSET;
+            case INDEX_LTP_PKT -> INDEX_LTP_SECURITY_ID_OFFSET;
+            case INDEX_QUOTE_PKT -> INDEX_QUOTE_SECURITY_ID_OFFSET;
+            default -> INDEX_FULL_SECURITY_ID_OFFSET;
+        });
+    }
+
+    public byte getTradable() {
+        return buffer.get(offset + switch (packetType) {
+            case LTP_PKT -> LTP_TRADABLE_OFFSET;
+            case QUOTE_PKT -> QUOTE_TRADABLE_OFFSET;
+            case FULL_PKT -> FULL_TRADABLE_OFFSET;
+            case INDEX_LTP_PKT -> INDEX_LTP_TRADABLE_OFFSET;
+            case INDEX_QUOTE_PKT -> INDEX_QUOTE_TRADABLE_OFFSET;
+            default -> INDEX_FULL_TRADABLE_OFFSET;
+        });
+    }
+
+    public byte getMode() {
+        return buffer.get(offset + switch (packetType) {
+            case LTP_PKT -> LTP_MODETYPE_OFFSET;
+            case QUOTE_PKT -> QUOTE_MODETYPE_OFFSET;
+            case FULL_PKT -> FULL_MODETYPE_OFFSET;
+            case INDEX_LTP_PKT -> INDEX_LTP_MODETYPE_OFFSET;
+            case INDEX_QUOTE_PKT -> INDEX_QUOTE_MODETYPE_OFFSET;
+            default -> INDEX_FULL_MODETYPE_OFFSET;
+        });
+    }
+
+    public float getChangePercent() {
+        return buffer.getFloat(offset + switch (packetType) {
+            case LTP_PKT -> LTP_CHANGE_PERCENT_OFFSET;
+            case QUOTE_PKT -> QUOTE_CHANGE_PERCENT_OFFSET;
+            case FULL_PKT -> FULL_CHANGE_PERCENT_OFFSET;
+            case INDEX_LTP_PKT -> INDEX_LTP_CHANGE_PERCENT_OFFSET;
+            case INDEX_QUOTE_PKT -> INDEX_QUOTE_CHANGE_PERCENT_OFFSET;
+            default -> INDEX_FULL_CHANGE_PERCENT_OFFSET;
+        });
+    }
+
+    public float getChangeAbsolute() {
+        return roundChange(buffer.getFloat(offset + switch (packetType) {
+            case LTP_PKT -> LTP_CHANGE_ABSOLUTE_OFFSET;
+            case QUOTE_PKT -> QUOTE_CHANGE_ABSOLUTE_OFFSET;
+            case FULL_PKT -> FULL_CHANGE_ABSOLUTE_OFFSET;
+            case INDEX_LTP_PKT -> INDEX_LTP_CHANGE_ABSOLUTE_OFFSET;
+            case INDEX_QUOTE_PKT -> INDEX_QUOTE_CHANGE_ABSOLUTE_OFFSET;
+            default -> INDEX_FULL_CHANGE_ABSOLUTE_OFFSET;
+        }));
+    }
+
+    // ----- Time fields (epoch seconds) -----
+
+    public long getLastTradedTime() {
+        return switch (packetType) {
+            case LTP_PKT -> EpochConverterUtil.epochConverter(buffer.getInt(offset + LTP_LTT_OFFSET));
+            case QUOTE_PKT -> EpochConverterUtil.epochConverter(buffer.getInt(offset + QUOTE_LTT_OFFSET));
+            case FULL_PKT -> EpochConverterUtil.epochConverter(buffer.getInt(offset + FULL_LTT_OFFSET));
+            default -> 0;
+        };
+    }
+
+    public long getLastUpdatedTime() {
+        return switch (packetType) {
+            case INDEX_LTP_PKT -> EpochConverterUtil.epochConverter(buffer.getInt(offset + INDEX_LTP_LUT_OFFSET));
+            case INDEX_FULL_PKT -> EpochConverterUtil.epochConverter(buffer.getInt(offset + INDEX_FULL_LUT_OFFSET));
+            default -> 0;
+        };
+    }
+
+    // ----- Quote fields (QUOTE / FULL only) -----
+
+    public int getLastTradedQuantity() {
+        return quoteInt(QUOTE_LAST_TRADED_QUANTITY_OFFSET, FULL_LAST_TRADED_QUANTITY_OFFSET);
+    }
+
+    public float getAverageTradedPrice() {
+        return quoteFloat(QUOTE_AVG_TRADED_PRICE_OFFSET, FULL_AVG_TRADED_PRICE_OFFSET);
+    }
+
+    public long getVolumeTraded() {
+        return quoteInt(QUOTE_VOLUME_OFFSET, FULL_VOLUME_OFFSET);
+    }
+
+    public int getTotalBuyQuantity() {
+        return quoteInt(QUOTE_TOTAL_BUY_QUANTITY_OFFSET, FULL_TOTAL_BUY_QUANTITY_OFFSET);
+    }
+
+    public int getTotalSellQuantity() {
+        return quoteInt(QUOTE_TOTAL_SELL_QUANTITY_OFFSET, FULL_TOTAL_SELL_QUANTITY_OFFSET);
+    }
+
+    public float getOpen() {
+        return ohlcFloat(QUOTE_OPEN_OFFSET, FULL_OPEN_OFFSET, INDEX_QUOTE_OPEN_OFFSET, INDEX_FULL_OPEN_OFFSET);
+    }
+
+    public float getClose() {
+        return ohlcFloat(QUOTE_CLOSE_OFFSET, FULL_CLOSE_OFFSET, INDEX_QUOTE_CLOSE_OFFSET, INDEX_FULL_CLOSE_OFFSET);
+    }
+
+    public float getHigh() {
+        return ohlcFloat(QUOTE_HIGH_OFFSET, FULL_HIGH_OFFSET, INDEX_QUOTE_HIGH_OFFSET, INDEX_FULL_HIGH_OFFSET);
+    }
+
+    public float getLow() {
+        return ohlcFloat(QUOTE_LOW_OFFSET, FULL_LOW_OFFSET, INDEX_QUOTE_LOW_OFFSET, INDEX_FULL_LOW_OFFSET);
+    }
+
+    public float getFiftyTwoWeekHigh() {
+        return switch (packetType) {
+            case QUOTE_PKT -> buffer.getFloat(offset + QUOTE_52_WEEK_HIGH_OFFSET);
+            case FULL_PKT -> buffer.getFloat(offset + FULL_52_WEEK_HIGH_OFFSET);
+            case INDEX_QUOTE_PKT -> buffer.getFloat(offset + INDEX_QUOTE_52_WEEK_HIGH_OFFSET);
+            default -> 0f;
+        };
+    }
+
+    public float getFiftyTwoWeekLow() {
+        return switch (packetType) {
+            case QUOTE_PKT -> buffer.getFloat(offset + QUOTE_52_WEEK_LOW_OFFSET);
+            case FULL_PKT -> buffer.getFloat(offset + FULL_52_WEEK_LOW_OFFSET);
+            case INDEX_QUOTE_PKT -> buffer.getFloat(offset + INDEX_QUOTE_52_WEEK_LOW_OFFSET);
+            default -> 0f;
+        };
+    }
+
+    // ----- FULL-only fields -----
+
+    public long getOi() {
+        return packetType == FULL_PKT ? buffer.getInt(offset + FULL_OI_OFFSET) : 0;
+    }
+
+    public long getOiChange() {
+        return packetType == FULL_PKT ? buffer.getInt(offset + FULL_CHANGE_OI_OFFSET) : 0;
+    }
+
+    /**
+     * Depth accessors take a zero-based level in [0, DEPTH_PACKETS_COUNT). Only valid when {@link #hasDepth()}.
+     */
+    public int getBuyQuantity(int level) {
+        return buffer.getInt(depthOffset(level) + DEPTH_BUY_QUANTITY_OFFSET);
+    }
+
+    public int getSellQuantity(int level) {
+        return buffer.getInt(depthOffset(level) + DEPTH_SELL_QUANTITY_OFFSET);
+    }
+
+    public short getBuyOrder(int level) {
+        return buffer.getShort(depthOffset(level) + DEPTH_BUY_ORDER_OFFSET);
+    }
+
+    public short getSellOrder(int level) {
+        return buffer.getShort(depthOffset(level) + DEPTH_SELL_ORDER_OFFSET);
+    }
+
+    public float getBuyPrice(int level) {
+        return buffer.getFloat(depthOffset(level) + DEPTH_BUY_PRICE_OFFSET);
+    }
+
+    public float getSellPrice(int level) {
+        return buffer.getFloat(depthOffset(level) + DEPTH_SELL_PRICE_OFFSET);
+    }
+
+    /**
+     * Materializes the current packet into an owned {@link Tick}.
+     */
+    public Tick toTick() {
+        Tick.TickBuilder builder = Tick.builder()
+                .lastTradedPrice(getLastTradedPrice())
+                .lastTradedTime(getLastTradedTime())
+                .lastUpdatedTime(getLastUpdatedTime())
+                .securityId(getSecurityId())
+                .tradable(getTradable())
+                .mode(getMode())
+                .lastTradedQuantity(getLastTradedQuantity())
+                .averageTradedPrice(getAverageTradedPrice())
+                .volumeTraded(getVolumeTraded())
+                .totalBuyQuantity(getTotalBuyQuantity())
+                .totalSellQuantity(getTotalSellQuantity())
+                .open(getOpen())
+                .close(getClose())
+                .high(getHigh())
+                .low(getLow())
+                .changePercent(getChangePercent())
+                .changeAbsolute(getChangeAbsolute())
+                .fiftyTwoWeekHigh(getFiftyTwoWeekHigh())
+                .fiftyTwoWeekLow(getFiftyTwoWeekLow())
+                .oi(getOi())
+                .oiChange(getOiChange());
+
+        if (hasDepth()) {
+            DepthBook book = new DepthBook();
+            copyDepthInto(book);
+            builder.depthBook(book);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copies the five depth levels into a caller-owned book. Only valid when {@link #hasDepth()}.
+     */
+    public void copyDepthInto(DepthBook book) {
+        for (int i = 0; i < DEPTH_PACKETS_COUNT; i++) {
+            book.setLevel(i, getBuyQuantity(i), getSellQuantity(i), getBuyOrder(i), getSellOrder(i),
+                    getBuyPrice(i), getSellPrice(i));
+        }
+    }
+
+    private int depthOffset(int level) {
+        return offset + level * DEPTH_PACKET_SIZE;
+    }
+
+    private int quoteInt(int quoteOffset, int fullOffset) {
+        return switch (packetType) {
+            case QUOTE_PKT -> buffer.getInt(offset + quoteOffset);
+            case FULL_PKT -> buffer.getInt(offset + fullOffset);
+            default -> 0;
+        };
+    }
+
+    private float quoteFloat(int quoteOffset, int fullOffset) {
+        return switch (packetType) {
+            case QUOTE_PKT -> buffer.getFloat(offset + quoteOffset);
+            case FULL_PKT -> buffer.getFloat(offset + fullOffset);
+            default -> 0f;
+        };
+    }
+
+    private float ohlcFloat(int quoteOffset, int fullOffset, int indexQuoteOffset, int indexFullOffset) {
+        return switch (packetType) {
+            case QUOTE_PKT -> buffer.getFloat(offset + quoteOffset);
+            case FULL_PKT -> buffer.getFloat(offset + fullOffset);
+            case INDEX_QUOTE_PKT -> buffer.getFloat(offset + indexQuoteOffset);
+            case INDEX_FULL_PKT -> buffer.getFloat(offset + indexFullOffset);
+            default -> 0f;
+        };
+    }
+}
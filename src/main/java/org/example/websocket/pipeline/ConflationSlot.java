@@ -0,0 +1,66 @@
+package org.example.websocket.pipeline;
+
+import org.example.websocket.model.Tick;
+
+/**
+ * Latest pending tick of one symbol in conflating mode. While a slot waits in the ring, newer ticks
+ * are folded into it instead of being queued, so a burst costs one evaluation of the freshest book.
+ */
+final class ConflationSlot {
+
+    private Tick pending;
+    private boolean queued;
+    private long merged;
+
+    /**
+     * @return true if the slot has to be put on the ring (it was not already waiting there)
+     */
+    synchronized boolean offer(Tick tick) {
+        if (pending == null) {
+            pending = tick;
+        } else {
+            pending = merge(pending, tick);
+            merged++;
+        }
+        if (queued) return false;
+        queued = true;
+        return true;
+    }
+
+    /**
+     * The ring was full; leave the tick pending so the next offer retries the enqueue.
+     */
+    synchronized void enqueueFailed() {
+        queued = false;
+    }
+
+    synchronized Tick take() {
+        Tick tick = pending;
+        pending = null;
+        queued = false;
+        return tick;
+    }
+
+    synchronized long getMerged() {
+        return merged;
+    }
+
+    /**
+     * Folds {@code older} into {@code newer}: the newer snapshot wins, traded quantity accumulates,
+     * high/low widen, and the receive stamps keep the older arrival so latency shows the conflation delay.
+     * Depth only ever comes from the newer tick itself: a depth-less (QUOTE) tick never inherits a pending
+     * FULL tick's book, which would then pass for fresh depth at the newer price.
+     */
+    static Tick merge(Tick older, Tick newer) {
+        newer.setLastTradedQuantity(older.getLastTradedQuantity() + newer.getLastTradedQuantity());
+        newer.setHigh(Math.max(older.getHigh(), newer.getHigh()));
+        if (older.getLow() > 0 && (newer.getLow() == 0 || older.getLow() < newer.getLow())) {
+            newer.setLow(older.getLow());
+        }
+        if (older.getReceivedNanos() != 0) {
+            newer.setReceivedNanos(older.getReceivedNanos());
+            newer.setParsedNanos(older.getParsedNanos());
+        }
+        return newer;
+    }
+}
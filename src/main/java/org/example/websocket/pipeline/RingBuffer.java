@@ -0,0 +1,97 @@
+package org.example.websocket.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, pre-allocated multi-producer / single-consumer ring of hand-off slots.
+ * Carries ticks, or per-symbol conflation slots in conflating mode.
+ * Producers claim a sequence with a CAS, fill the slot and publish it by advancing the slot's
+ * sequence; the single consumer reads slots strictly in claim order. Nothing is allocated per tick.
+ */
+public class RingBuffer<E> {
+
+    /**
+     * Pre-allocated event; producers overwrite its fields in place.
+     */
+    static final class Slot<E> {
+        E item;
+        long publishedNanos;
+    }
+
+    private final Slot<E>[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerSequence = new AtomicLong();
+    private volatile long consumerSequence;
+
+    volatile Thread consumerThread;
+    volatile boolean consumerParked;
+
+    public RingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        @SuppressWarnings("unchecked")
+        Slot<E>[] slots = (Slot<E>[]) new Slot<?>[capacity];
+        this.slots = slots;
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot<>();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an item without blocking.
+     *
+     * @return false if the ring is full
+     */
+    public boolean offer(E item, long nowNanos) {
+        long sequence;
+        int index;
+        while (true) {
+            sequence = producerSequence.get();
+            index = (int) sequence & mask;
+            long slotSequence = sequences.get(index);
+            if (slotSequence == sequence) {
+                if (producerSequence.compareAndSet(sequence, sequence + 1)) break;
+            } else if (slotSequence < sequence) {
+                return false; // consumer has not released this slot yet: full
+            }
+        }
+        Slot<E> slot = slots[index];
+        slot.item = item;
+        slot.publishedNanos = nowNanos;
+        sequences.set(index, sequence + 1); // publish
+        return true;
+    }
+
+    /**
+     * Takes the next published slot, or null if there is none. Single consumer only.
+     * The slot must be handed back through {@link #release(Slot)} once its fields have been read.
+     */
+    Slot<E> peek() {
+        long sequence = consumerSequence;
+        int index = (int) sequence & mask;
+        return sequences.get(index) == sequence + 1 ? slots[index] : null;
+    }
+
+    void release(Slot<E> slot) {
+        long sequence = consumerSequence;
+        slot.item = null;
+        sequences.set((int) sequence & mask, sequence + slots.length);
+        consumerSequence = sequence + 1;
+    }
+
+    public boolean isEmpty() {
+        return producerSequence.get() == consumerSequence;
+    }
+
+    public int size() {
+        return (int) Math.max(0, producerSequence.get() - consumerSequence);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.websocket.pipeline;
+
+import org.example.websocket.model.Tick;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands ticks from the WebSocket I/O thread to a fixed pool of strategy workers.
+ * The I/O thread only parses and publishes; a full ring drops the tick (counted per worker)
+ * instead of stalling the socket. In conflating mode a burst collapses to the latest tick per symbol.
+ */
+public class TickDispatcher {
+
+    private final TickWorker[] workers;
+    private final boolean conflating;
+
+    public TickDispatcher(int workerCount, int ringCapacity, WaitStrategy waitStrategy, TickHandler handler) {
+        this(workerCount, ringCapacity, waitStrategy, false, handler);
+    }
+
+    /**
+     * @param conflate keep only the latest pending tick per symbol instead of queueing every tick
+     */
+    public TickDispatcher(int workerCount, int ringCapacity, WaitStrategy waitStrategy, boolean conflate,
+                          TickHandler handler) {
+        workers = new TickWorker[workerCount];
+        conflating = conflate;
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new TickWorker(i, ringCapacity, waitStrategy, conflate, handler);
+        }
+    }
+
+    public void start() {
+        for (TickWorker worker : workers) worker.start();
+        System.out.println("🧵 Tick dispatcher started with " + workers.length + " workers"
+                + (conflating ? " (conflating)" : ""));
+    }
+
+    public void stop() {
+        for (TickWorker worker : workers) worker.stop();
+        System.out.println("🛑 Tick dispatcher stopped");
+    }
+
+    /**
+     * @return false if the tick was dropped because its worker's ring was full
+     */
+    public boolean publish(Tick tick) {
+        return workers[shardOf(tick.getSecurityId())].publish(tick);
+    }
+
+    public void publishAll(List<Tick> ticks) {
+        for (int i = 0, n = ticks.size(); i < n; i++) {
+            publish(ticks.get(i));
+        }
+    }
+
+    public int shardOf(int securityId) {
+        return Math.floorMod(securityId, workers.length);
+    }
+
+    public List<WorkerStats> getStats() {
+        List<WorkerStats> stats = new ArrayList<>(workers.length);
+        for (TickWorker worker : workers) stats.add(worker.stats());
+        return stats;
+    }
+}
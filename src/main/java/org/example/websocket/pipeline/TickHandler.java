@@ -0,0 +1,8 @@
+package org.example.websocket.pipeline;
+
+import org.example.websocket.model.Tick;
+
+@FunctionalInterface
+public interface TickHandler {
+    void onTick(Tick tick) throws Exception;
+}
@@ -0,0 +1,118 @@
+package org.example.websocket.pipeline;
+
+import org.example.websocket.model.Tick;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains one {@link RingBuffer} on a dedicated thread. Every symbol is pinned to exactly one
+ * worker, so ticks of a symbol are handled in arrival order and never concurrently.
+ * In conflating mode the ring carries one {@link ConflationSlot} per waiting symbol instead of every tick.
+ */
+public class TickWorker implements Runnable {
+
+    private final int id;
+    private final RingBuffer<Object> ring;
+    private final TickHandler handler;
+    private final WaitStrategy waitStrategy;
+    private final Map<Integer, ConflationSlot> conflationSlots; // null unless conflating
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long processed;
+    private volatile long failed;
+    private volatile boolean running = true;
+    private Thread thread;
+
+    TickWorker(int id, int capacity, WaitStrategy waitStrategy, boolean conflate, TickHandler handler) {
+        this.id = id;
+        this.ring = new RingBuffer<>(capacity);
+        this.waitStrategy = waitStrategy;
+        this.handler = handler;
+        this.conflationSlots = conflate ? new ConcurrentHashMap<>() : null;
+    }
+
+    void start() {
+        thread = new Thread(this, "tick-worker-" + id);
+        thread.setDaemon(true);
+        ring.consumerThread = thread;
+        thread.start();
+    }
+
+    boolean publish(Tick tick) {
+        published.incrementAndGet();
+        if (conflationSlots == null) {
+            if (enqueue(tick)) return true;
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        int securityId = tick.getSecurityId();
+        ConflationSlot slot = conflationSlots.get(securityId);
+        if (slot == null) {
+            slot = conflationSlots.computeIfAbsent(securityId, k -> new ConflationSlot());
+        }
+        if (!slot.offer(tick)) return true; // merged into a slot already waiting on the ring
+        // On a full ring the tick stays pending and goes out with the symbol's next tick: deferred, not dropped
+        if (!enqueue(slot)) slot.enqueueFailed();
+        return true;
+    }
+
+    private boolean enqueue(Object item) {
+        if (ring.offer(item, System.nanoTime())) {
+            waitStrategy.signal(ring);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        int idleCount = 0;
+        long done = 0;
+        long errors = 0;
+        while (running) {
+            RingBuffer.Slot<Object> slot = ring.peek();
+            if (slot == null) {
+                waitStrategy.idle(ring, idleCount++);
+                continue;
+            }
+            idleCount = 0;
+            Object item = slot.item;
+            ring.release(slot);
+            Tick tick = item instanceof ConflationSlot conflated ? conflated.take() : (Tick) item;
+            if (tick == null) continue;
+            try {
+                handler.onTick(tick);
+            } catch (Exception e) {
+                failed = ++errors;
+                System.err.println("❌ Worker " + id + " failed on tick " + tick.getSecurityId() + ": " + e.getMessage());
+            }
+            processed = ++done;
+        }
+    }
+
+    void stop() {
+        running = false;
+        if (thread != null) {
+            ring.consumerParked = false;
+            thread.interrupt();
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    WorkerStats stats() {
+        long conflated = 0;
+        if (conflationSlots != null) {
+            for (ConflationSlot slot : conflationSlots.values()) conflated += slot.getMerged();
+        }
+        return new WorkerStats(id, waitStrategy.name(), conflationSlots != null, ring.capacity(), ring.size(),
+                published.get(), processed, conflated, dropped.get(), failed);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.websocket.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How an idle worker waits for the next tick.
+ * <ul>
+ *   <li>BLOCKING – parks until a producer wakes it; lowest CPU, adds wake-up latency.</li>
+ *   <li>YIELDING – spins briefly, then yields the core between polls.</li>
+ *   <li>BUSY_SPIN – never gives up the core; lowest latency, burns one core per worker.</li>
+ * </ul>
+ */
+public enum WaitStrategy {
+    BLOCKING {
+        @Override
+        void idle(RingBuffer<?> ring, int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return;
+            }
+            ring.consumerParked = true;
+            // Re-check after publishing the flag so a concurrent offer cannot be missed
+            if (ring.isEmpty()) {
+                LockSupport.parkNanos(ring, MAX_PARK_NANOS);
+            }
+            ring.consumerParked = false;
+        }
+
+        @Override
+        void signal(RingBuffer<?> ring) {
+            if (ring.consumerParked) {
+                LockSupport.unpark(ring.consumerThread);
+            }
+        }
+    },
+    YIELDING {
+        @Override
+        void idle(RingBuffer<?> ring, int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    BUSY_SPIN {
+        @Override
+        void idle(RingBuffer<?> ring, int idleCount) {
+            Thread.onSpinWait();
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    /**
+     * Called by the consumer each time it finds the ring empty; {@code idleCount} resets after every hit.
+     */
+    abstract void idle(RingBuffer<?> ring, int idleCount);
+
+    /**
+     * Called by a producer after publishing.
+     */
+    void signal(RingBuffer<?> ring) {
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.websocket.pipeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerStats {
+    private int worker;
+    private String waitStrategy;
+    private boolean conflating;
+    private int capacity;
+    private int queueDepth;
+    private long published;
+    private long processed;
+    // Ticks folded into a newer pending tick of the same symbol instead of being processed
+    private long conflated;
+    // Ticks lost to a full ring; conflating workers keep them pending instead, so never drop
+    private long dropped;
+    private long failed;
+}
@@ -0,0 +1,24 @@
+package org.example.websocket.recording;
+
+/**
+ * On-disk layout of a raw frame capture segment (little-endian):
+ * <pre>
+ *   header  : int magic, short version, short reserved, long openedEpochMillis, long openedNanoTime, long reserved
+ *   record* : long receiveNanoTime, int length, byte[length] frame
+ *   end     : int length 0 (the unused tail of a segment is zero-filled)
+ * </pre>
+ * Receive times are {@link System#nanoTime()} readings; the header pairs one with wall-clock time
+ * so a record can be placed on the calendar.
+ */
+public final class FrameCaptureFormat {
+
+    public static final int MAGIC = 0x50434B54; // "TKCP"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+    public static final String FILE_PREFIX = "frames-";
+    public static final String FILE_SUFFIX = ".cap";
+
+    private FrameCaptureFormat() {
+    }
+}
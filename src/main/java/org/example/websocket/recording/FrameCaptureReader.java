@@ -0,0 +1,119 @@
+package org.example.websocket.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.websocket.recording.FrameCaptureFormat.*;
+
+/**
+ * Reads frames back out of capture segments in recording order.
+ * {@link #frame()} is a reused view into the mapped segment and is only valid until the next {@link #next()}.
+ */
+public class FrameCaptureReader {
+
+    private final List<Path> segments;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private ByteBuffer frameView;
+    private int nextRecord;
+    private long receiveNanos;
+    private long segmentOpenedEpochNanos;
+    private long segmentOpenedNanoTime;
+
+    public FrameCaptureReader(List<Path> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * A single capture file, or every segment in a directory in file-name (i.e. recording) order.
+     */
+    public static FrameCaptureReader open(Path path) throws IOException {
+        if (!Files.isDirectory(path)) return new FrameCaptureReader(List.of(path));
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(path)) {
+            listing.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return new FrameCaptureReader(files);
+    }
+
+    /**
+     * Advances to the next recorded frame.
+     *
+     * @return false when every segment is exhausted
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (segment == null && !openNextSegment()) return false;
+
+            if (nextRecord + RECORD_HEADER_SIZE <= segment.limit()) {
+                long nanos = segment.getLong(nextRecord);
+                int length = segment.getInt(nextRecord + Long.BYTES);
+                int start = nextRecord + RECORD_HEADER_SIZE;
+                if (length > 0 && start + length <= segment.limit()) {
+                    receiveNanos = nanos;
+                    frameView.limit(start + length).position(start);
+                    nextRecord = start + length;
+                    return true;
+                }
+            }
+            segment = null; // end marker or truncated tail
+        }
+    }
+
+    private boolean openNextSegment() throws IOException {
+        if (segmentIndex >= segments.size()) return false;
+        Path path = segments.get(segmentIndex++);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        if (segment.limit() < HEADER_SIZE || segment.getInt(0) != MAGIC) {
+            throw new IOException("Not a frame capture file: " + path);
+        }
+        if (segment.getShort(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported capture version " + segment.getShort(Integer.BYTES) + " in " + path);
+        }
+        segmentOpenedEpochNanos = segment.getLong(8) * 1_000_000L;
+        segmentOpenedNanoTime = segment.getLong(16);
+        frameView = segment.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        nextRecord = HEADER_SIZE;
+        return true;
+    }
+
+    public ByteBuffer frame() {
+        return frameView;
+    }
+
+    /**
+     * The recording session's {@link System#nanoTime()} at receive; only comparable within one segment.
+     */
+    public long receiveNanos() {
+        return receiveNanos;
+    }
+
+    /**
+     * Receive time as wall-clock epoch nanoseconds, rebased through the segment header, so frames from
+     * different recording sessions share one timeline (to the millisecond of each segment's opening).
+     */
+    public long receiveEpochNanos() {
+        return segmentOpenedEpochNanos + (receiveNanos - segmentOpenedNanoTime);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.websocket.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.example.websocket.recording.FrameCaptureFormat.*;
+
+/**
+ * Appends raw WebSocket frames, exactly as received, to memory-mapped capture segments.
+ * A segment is mapped at its full size up front and a new one is started when the next frame
+ * does not fit, so recording a frame is a bounded memory copy with no syscalls.
+ */
+public class FrameRecorder implements Closeable {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private int segmentIndex;
+    private long framesRecorded;
+    private long bytesRecorded;
+    private long framesSkipped;
+
+    public FrameRecorder(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        rollSegment();
+    }
+
+    /**
+     * Copies {@code frame} from its position to its limit; the buffer's position is left untouched.
+     */
+    public synchronized void record(ByteBuffer frame, long receiveNanos) throws IOException {
+        if (segment == null) return; // closed
+        int length = frame.remaining();
+        if (length == 0) return;
+
+        int needed = RECORD_HEADER_SIZE + length + Integer.BYTES; // keep room for the end marker
+        if (needed > segmentBytes - HEADER_SIZE) {
+            framesSkipped++;
+            System.err.println("⚠️ Frame of " + length + " bytes exceeds capture segment size, not recorded");
+            return;
+        }
+        if (segment.remaining() < needed) {
+            rollSegment();
+        }
+
+        int at = segment.position();
+        segment.putLong(at, receiveNanos);
+        segment.putInt(at + Long.BYTES, length);
+        segment.put(at + RECORD_HEADER_SIZE, frame, frame.position(), length);
+        segment.position(at + RECORD_HEADER_SIZE + length);
+
+        framesRecorded++;
+        bytesRecorded += length;
+    }
+
+    private void rollSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        segmentPath = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIME)
+                + "-" + String.format("%04d", segmentIndex++) + FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segment.putInt(MAGIC);
+        segment.putShort(VERSION);
+        segment.putShort((short) 0);
+        segment.putLong(System.currentTimeMillis());
+        segment.putLong(System.nanoTime());
+        segment.putLong(0L);
+        System.out.println("🎞️ Recording raw frames to " + segmentPath);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segment == null) return;
+        segment.force();
+        segment = null;
+        System.out.println("🎞️ Frame recorder closed: " + framesRecorded + " frames, " + bytesRecorded + " bytes in "
+                + segmentIndex + " segment(s)");
+    }
+
+    public synchronized long getFramesRecorded() {
+        return framesRecorded;
+    }
+
+    public synchronized long getBytesRecorded() {
+        return bytesRecorded;
+    }
+
+    public synchronized long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    public synchronized Path getSegmentPath() {
+        return segmentPath;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.websocket.recording;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalStats {
+    private String activeSegment;
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    // Ticks turned away because the writer had fallen a full queue behind
+    private long dropped;
+    private long ticksWritten;
+    private long blocksWritten;
+    private long rawBytes;
+    private long compressedBytes;
+    private double bytesPerSecond;
+    private long syncs;
+    private long segmentsRolled;
+    private long writeFailures;
+    // Compressing and writing one block, including the sync when the policy asks for one
+    private double flushMeanUs;
+    private double flushP99Us;
+    private double flushMaxUs;
+}
@@ -0,0 +1,15 @@
+package org.example.websocket.recording;
+
+/**
+ * When the {@link TickJournal} forces written blocks to disk.
+ * <ul>
+ *   <li>NEVER – leave it to the OS; a crash can lose whatever is still in the page cache.</li>
+ *   <li>INTERVAL – at most once per configured interval, and when a segment is closed.</li>
+ *   <li>EVERY_BLOCK – after every compressed block; safest, costs a disk sync per block.</li>
+ * </ul>
+ */
+public enum JournalSyncPolicy {
+    NEVER,
+    INTERVAL,
+    EVERY_BLOCK
+}
@@ -0,0 +1,65 @@
+package org.example.websocket.recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits a stream into newline-terminated lines as raw bytes in one reused buffer, so JSONL can be filtered
+ * and copied through without decoding each line into a String. {@link #line()} is valid until the next
+ * {@link #next()}; the trailing newline (and a CR before it) is not included.
+ */
+public class JsonLineReader {
+
+    private final InputStream in;
+    private final byte[] chunk = new byte[64 * 1024];
+    private int chunkPos;
+    private int chunkEnd;
+    private byte[] line = new byte[4096];
+    private int length;
+
+    public JsonLineReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @return false at end of stream; a last line without a newline is still returned
+     */
+    public boolean next() throws IOException {
+        length = 0;
+        boolean any = false;
+        while (true) {
+            if (chunkPos == chunkEnd) {
+                chunkEnd = in.read(chunk, 0, chunk.length);
+                chunkPos = 0;
+                if (chunkEnd <= 0) {
+                    chunkEnd = 0;
+                    return any;
+                }
+            }
+            any = true;
+            int start = chunkPos;
+            while (chunkPos < chunkEnd && chunk[chunkPos] != '\n') chunkPos++;
+            append(start, chunkPos - start);
+            if (chunkPos < chunkEnd) {
+                chunkPos++; // consume the newline
+                if (length > 0 && line[length - 1] == '\r') length--;
+                return true;
+            }
+        }
+    }
+
+    private void append(int from, int count) {
+        if (length + count > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+        System.arraycopy(chunk, from, line, length, count);
+        length += count;
+    }
+
+    public byte[] line() {
+        return line;
+    }
+
+    public int length() {
+        return length;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.websocket.recording;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams stored ticks (the legacy marketdata.jsonl.gz plus the {@link TickJournal}'s segments) to an output
+ * stream in constant memory, optionally filtered by symbol and lastTradedTime. Without filters a gzip export
+ * copies the compressed files through untouched; otherwise lines are decompressed, matched on their keys
+ * alone and copied through as raw bytes.
+ */
+public class TickExporter {
+
+    public enum Format {
+        JSONL,
+        GZIP
+    }
+
+    private final Path legacyFile;
+    private final TickJournal journal;
+
+    public TickExporter(Path legacyFile, TickJournal journal) {
+        this.legacyFile = legacyFile;
+        this.journal = journal;
+    }
+
+    /**
+     * @param securityId  only this symbol, or null for all
+     * @param fromSeconds only ticks with lastTradedTime at or after this, or null
+     * @param toSeconds   only ticks with lastTradedTime before this, or null
+     * @return ticks written, or -1 for an unfiltered gzip passthrough, which does not look inside the data
+     */
+    public long export(OutputStream out, Integer securityId, Long fromSeconds, Long toSeconds, Format format)
+            throws IOException {
+        List<Path> sources = new ArrayList<>();
+        if (Files.exists(legacyFile)) sources.add(legacyFile);
+        sources.addAll(journal.getSegments());
+
+        boolean filtered = securityId != null || fromSeconds != null || toSeconds != null;
+        if (format == Format.GZIP && !filtered) {
+            for (Path source : sources) {
+                if (Files.exists(source)) copy(source, out);
+            }
+            out.flush();
+            return -1;
+        }
+
+        OutputStream target = format == Format.GZIP ? new GZIPOutputStream(out, 64 * 1024) : out;
+        TickLineKeys keys = new TickLineKeys();
+        long written = 0;
+        for (Path source : sources) {
+            if (!Files.exists(source) || Files.size(source) == 0) continue;
+            try (InputStream in = new GZIPInputStream(open(source), 64 * 1024)) {
+                JsonLineReader lines = new JsonLineReader(in);
+                while (lines.next()) {
+                    if (lines.length() == 0) continue;
+                    if (filtered) {
+                        if (!keys.read(lines.line(), 0, lines.length())) continue;
+                        if (securityId != null && keys.getSecurityId() != securityId) continue;
+                        if (fromSeconds != null && keys.getLastTradedTime() < fromSeconds) continue;
+                        if (toSeconds != null && keys.getLastTradedTime() >= toSeconds) continue;
+                    }
+                    target.write(lines.line(), 0, lines.length());
+                    target.write('\n');
+                    written++;
+                }
+            } catch (EOFException e) {
+                System.err.println("⚠️ Truncated block at the end of " + source + ", exported what was readable");
+            }
+        }
+        if (target instanceof GZIPOutputStream gzip) gzip.finish();
+        target.flush();
+        return written;
+    }
+
+    private void copy(Path source, OutputStream out) throws IOException {
+        try (InputStream in = open(source)) {
+            in.transferTo(out);
+        }
+    }
+
+    // Bounded to the journal's complete blocks, so a block still being written is never read or sent
+    private InputStream open(Path source) throws IOException {
+        long readable = source.equals(legacyFile) ? Files.size(source) : journal.getReadableLength(source);
+        return new FilterInputStream(Files.newInputStream(source)) {
+            private long remaining = readable;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) return -1;
+                int b = super.read();
+                if (b >= 0) remaining--;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (remaining <= 0) return -1;
+                int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+                if (n > 0) remaining -= n;
+                return n;
+            }
+        };
+    }
+}
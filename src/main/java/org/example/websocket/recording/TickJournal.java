@@ -0,0 +1,395 @@
+package org.example.websocket.recording;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.config.IngestConfig;
+import org.example.monitoring.LatencyHistogram;
+import org.example.websocket.model.Tick;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists FULL ticks as JSON lines for retraining. Callers only enqueue; one writer thread serializes
+ * ticks into blocks, writes each block as its own gzip member and rolls to a new segment file by size or
+ * age. A segment is therefore a plain concatenated-gzip JSONL file that {@link java.util.zip.GZIPInputStream}
+ * reads end to end, the same format the single marketdata.jsonl.gz file used to have.
+ * <p>
+ * If the writer falls a whole queue behind, further ticks are counted as dropped rather than blocking the feed.
+ */
+public class TickJournal implements Closeable {
+
+    public static final String FILE_PREFIX = "ticks-";
+    public static final String FILE_SUFFIX = ".jsonl.gz";
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int BATCH = 1024;
+
+    private static volatile TickJournal instance;
+
+    private final Path directory;
+    private final ArrayBlockingQueue<Tick> queue;
+    private final Queue<CompletableFuture<Void>> rollRequests = new ConcurrentLinkedQueue<>();
+    private final ObjectWriter jsonWriter = new ObjectMapper()
+            .disable(SerializationFeature.INDENT_OUTPUT) // compact JSON
+            .writer();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // Writer thread state
+    private final BlockBuffer raw = new BlockBuffer();
+    private final BlockBuffer compressed = new BlockBuffer();
+    private FileChannel channel;
+    private long segmentSize;
+    private long segmentOpenedMillis;
+    private int segmentIndex;
+    private int blockTicks;
+    private long blockStartedMillis;
+    private long lastSyncMillis;
+    private boolean unsynced;
+
+    // Counters; the writer's are only ever written by the writer thread
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Path activeSegment;
+    private volatile long activeSegmentBytes; // whole blocks written to the active segment
+    private volatile long ticksWritten;
+    private volatile long blocksWritten;
+    private volatile long rawBytes;
+    private volatile long compressedBytes;
+    private volatile long syncs;
+    private volatile long segmentsRolled;
+    private volatile long writeFailures;
+    private final LatencyHistogram flushNanos = new LatencyHistogram();
+    private long rateSinceNanos = System.nanoTime();
+    private long rateSinceBytes;
+
+    // ByteArrayOutputStream whose contents can be handed to a channel without copying
+    private static final class BlockBuffer extends ByteArrayOutputStream {
+        BlockBuffer() {
+            super(64 * 1024);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    public TickJournal(Path directory, int queueCapacity) {
+        this.directory = directory;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::run, "tick-journal");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * The journal in {@link IngestConfig#getJournalDirectory()}, started on first use and flushed on JVM shutdown.
+     */
+    public static TickJournal getInstance() {
+        TickJournal journal = instance;
+        if (journal == null) {
+            synchronized (TickJournal.class) {
+                journal = instance;
+                if (journal == null) {
+                    journal = new TickJournal(Paths.get(IngestConfig.getJournalDirectory()),
+                            IngestConfig.getJournalQueueCapacity());
+                    journal.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "tick-journal-shutdown"));
+                    instance = journal;
+                }
+            }
+        }
+        return journal;
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Queues a tick for writing; never blocks.
+     */
+    public void append(Tick tick) {
+        if (queue.offer(tick)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % 10_000 == 0) {
+            System.err.println("⚠️ Tick journal queue full, " + count + " tick(s) dropped so far");
+        }
+    }
+
+    /**
+     * Writes out everything queued so far and closes the active segment, so every segment returned by
+     * {@link #getClosedSegments()} afterwards is complete. The next tick starts a new segment.
+     */
+    public void roll() throws IOException {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        rollRequests.add(done);
+        try {
+            done.get(IngestConfig.getJournalFlushMillis() + 30_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for the tick journal to roll", e);
+        } catch (Exception e) {
+            throw new IOException("Tick journal did not roll: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Every segment in the journal directory in write order, including the one being written.
+     */
+    public List<Path> getSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    /**
+     * Segments the writer has finished with; safe to read in full or delete. The active segment is named
+     * before its file is created and only cleared once it is closed, so listing first and reading the active
+     * name second never counts a segment still being written as closed.
+     */
+    public List<Path> getClosedSegments() throws IOException {
+        List<Path> files = getSegments();
+        Path active = activeSegment;
+        if (active != null) files.remove(active);
+        return files;
+    }
+
+    /**
+     * Bytes of a segment that hold complete gzip blocks: the whole file for a closed segment, only the blocks
+     * written so far for the active one, whose tail may be mid-write.
+     */
+    public long getReadableLength(Path segment) throws IOException {
+        long length = Files.size(segment);
+        if (segment.equals(activeSegment)) length = Math.min(length, activeSegmentBytes);
+        return length;
+    }
+
+    /**
+     * Compressed bytes on disk across all segments.
+     */
+    public long getJournalBytes() throws IOException {
+        long total = 0;
+        for (Path segment : getSegments()) total += Files.size(segment);
+        return total;
+    }
+
+    private void run() {
+        List<Tick> batch = new ArrayList<>(BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Tick first = queue.poll(Math.min(IngestConfig.getJournalFlushMillis(), 100), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH - 1);
+                    for (Tick tick : batch) serialize(tick);
+                    batch.clear();
+                }
+
+                long now = System.currentTimeMillis();
+                if (blockTicks > 0 && now - blockStartedMillis >= IngestConfig.getJournalFlushMillis()) {
+                    writeBlock(now);
+                }
+                if (unsynced && IngestConfig.getJournalSyncPolicy() == JournalSyncPolicy.INTERVAL
+                        && now - lastSyncMillis >= IngestConfig.getJournalSyncMillis()) {
+                    sync(now);
+                }
+                CompletableFuture<Void> request;
+                while ((request = rollRequests.poll()) != null) {
+                    queue.drainTo(batch);
+                    for (Tick tick : batch) serialize(tick);
+                    batch.clear();
+                    writeBlock(now);
+                    closeSegment();
+                    request.complete(null);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+        }
+        writeBlock(System.currentTimeMillis());
+        closeSegment();
+        CompletableFuture<Void> request;
+        while ((request = rollRequests.poll()) != null) request.complete(null);
+    }
+
+    private void serialize(Tick tick) {
+        try {
+            if (blockTicks == 0) blockStartedMillis = System.currentTimeMillis();
+            jsonWriter.writeValue(raw, tick);
+            raw.write('\n');
+            blockTicks++;
+        } catch (IOException e) {
+            writeFailures++;
+            System.err.println("❌ Error serializing tick for the journal: " + e.getMessage());
+        }
+        if (raw.size() >= IngestConfig.getJournalBlockBytes()) {
+            writeBlock(System.currentTimeMillis());
+        }
+    }
+
+    private void writeBlock(long now) {
+        if (blockTicks == 0) return;
+        long start = System.nanoTime();
+        try {
+            if (channel != null && (segmentSize >= IngestConfig.getJournalSegmentBytes()
+                    || now - segmentOpenedMillis >= IngestConfig.getJournalSegmentMillis())) {
+                closeSegment();
+                segmentsRolled++;
+            }
+            if (channel == null) openSegment(now);
+
+            compressed.reset();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 64 * 1024)) {
+                raw.writeTo(gzip);
+            }
+            ByteBuffer block = compressed.view();
+            while (block.hasRemaining()) channel.write(block);
+
+            segmentSize += compressed.size();
+            activeSegmentBytes = segmentSize;
+            ticksWritten += blockTicks;
+            blocksWritten++;
+            rawBytes += raw.size();
+            compressedBytes += compressed.size();
+            unsynced = true;
+            if (IngestConfig.getJournalSyncPolicy() == JournalSyncPolicy.EVERY_BLOCK) sync(now);
+        } catch (IOException e) {
+            writeFailures++;
+            System.err.println("❌ Error writing tick journal block of " + blockTicks + " ticks: " + e.getMessage());
+            abandonSegment(); // the next block starts a fresh segment after a possibly partial write
+        } finally {
+            raw.reset();
+            blockTicks = 0;
+            flushNanos.record(System.nanoTime() - start);
+        }
+    }
+
+    private void sync(long now) {
+        if (channel == null) return;
+        try {
+            channel.force(false);
+            syncs++;
+        } catch (IOException e) {
+            writeFailures++;
+            System.err.println("❌ Error syncing tick journal: " + e.getMessage());
+        }
+        lastSyncMillis = now;
+        unsynced = false;
+    }
+
+    private void openSegment(long now) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIME)
+                + "-" + String.format("%04d", segmentIndex++) + FILE_SUFFIX);
+        // Published before the file exists, so getClosedSegments() can never list it as finished
+        activeSegmentBytes = 0;
+        activeSegment = path;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            activeSegment = null;
+            throw e;
+        }
+        segmentSize = 0;
+        segmentOpenedMillis = now;
+        lastSyncMillis = now;
+        System.out.println("📝 Journaling ticks to " + path);
+    }
+
+    private void closeSegment() {
+        if (channel == null) return;
+        if (unsynced && IngestConfig.getJournalSyncPolicy() != JournalSyncPolicy.NEVER) {
+            sync(System.currentTimeMillis());
+        }
+        abandonSegment();
+    }
+
+    private void abandonSegment() {
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            System.err.println("❌ Error closing tick journal segment: " + e.getMessage());
+        }
+        channel = null;
+        activeSegment = null;
+        unsynced = false;
+    }
+
+    /**
+     * Stops accepting work once the queue is drained, writes the last block and closes the segment.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(30_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counters since start; bytes per second and flush latency cover the interval since the last reset.
+     */
+    public synchronized JournalStats getStats(boolean reset) {
+        long now = System.nanoTime();
+        long bytes = compressedBytes;
+        double seconds = (now - rateSinceNanos) / 1e9;
+        double bytesPerSecond = seconds > 0 ? (bytes - rateSinceBytes) / seconds : 0;
+        if (reset) {
+            rateSinceNanos = now;
+            rateSinceBytes = bytes;
+        }
+        LatencyHistogram.Snapshot flush = flushNanos.snapshot(reset);
+        Path active = activeSegment;
+        return new JournalStats(
+                active == null ? null : active.toString(),
+                queue.size(),
+                queue.size() + queue.remainingCapacity(),
+                enqueued.get(),
+                dropped.get(),
+                ticksWritten,
+                blocksWritten,
+                rawBytes,
+                bytes,
+                bytesPerSecond,
+                syncs,
+                segmentsRolled,
+                writeFailures,
+                flush.getMean() / 1000.0,
+                flush.getValueAtPercentile(99) / 1000.0,
+                flush.getMax() / 1000.0);
+    }
+}
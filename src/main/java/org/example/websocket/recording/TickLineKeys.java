@@ -0,0 +1,55 @@
+package org.example.websocket.recording;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Pulls securityId and lastTradedTime out of one JSON tick line with the streaming parser, skipping the
+ * depth array and every other field without building a tree or a {@link org.example.websocket.model.Tick}.
+ * Reused across lines; not thread-safe.
+ */
+public class TickLineKeys {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private int securityId;
+    private long lastTradedTime;
+
+    /**
+     * @return false if the line is not a JSON object carrying both keys
+     */
+    public boolean read(byte[] line, int offset, int length) {
+        boolean haveId = false, haveTime = false;
+        try (JsonParser parser = FACTORY.createParser(line, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("securityId".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                    securityId = parser.getIntValue();
+                    haveId = true;
+                } else if ("lastTradedTime".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                    lastTradedTime = parser.getLongValue();
+                    haveTime = true;
+                } else {
+                    parser.skipChildren();
+                }
+                if (haveId && haveTime) return true;
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public int getSecurityId() {
+        return securityId;
+    }
+
+    public long getLastTradedTime() {
+        return lastTradedTime;
+    }
+}